@@ -0,0 +1,80 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+import com.nukie.app.data.model.UnifiedPost;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a concurrent aggregated feed request: the merged posts of every platform that
+ * answered in time, the per-platform outcome, and the cursor for the next page.
+ */
+public final class AggregatedFeedResult {
+    private final List<UnifiedPost> posts;
+    private final Map<PlatformType, PlatformFetchStatus> platformStatuses;
+    private final FeedCursor nextCursor;
+    
+    public AggregatedFeedResult(
+            List<UnifiedPost> posts,
+            Map<PlatformType, PlatformFetchStatus> platformStatuses,
+            FeedCursor nextCursor) {
+        this.posts = Collections.unmodifiableList(posts);
+        this.platformStatuses = Collections.unmodifiableMap(new EnumMap<>(platformStatuses));
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<UnifiedPost> getPosts() {
+        return posts;
+    }
+    
+    public Map<PlatformType, PlatformFetchStatus> getPlatformStatuses() {
+        return platformStatuses;
+    }
+    
+    /**
+     * Cursor for the next aggregated page; see {@link FeedCursor#hasMore()}.
+     */
+    public FeedCursor getNextCursor() {
+        return nextCursor;
+    }
+    
+    /**
+     * Platforms that were abandoned because they missed their deadline.
+     */
+    public List<PlatformType> getTimedOutPlatforms() {
+        return getPlatformsWithStatus(PlatformFetchStatus.TIMED_OUT);
+    }
+    
+    /**
+     * Platforms whose client reported an error.
+     */
+    public List<PlatformType> getFailedPlatforms() {
+        return getPlatformsWithStatus(PlatformFetchStatus.FAILED);
+    }
+    
+    /**
+     * True if every platform answered successfully.
+     */
+    public boolean isComplete() {
+        for (PlatformFetchStatus status : platformStatuses.values()) {
+            if (status != PlatformFetchStatus.SUCCESS) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private List<PlatformType> getPlatformsWithStatus(PlatformFetchStatus wanted) {
+        List<PlatformType> platforms = new ArrayList<>();
+        for (Map.Entry<PlatformType, PlatformFetchStatus> entry : platformStatuses.entrySet()) {
+            if (entry.getValue() == wanted) {
+                platforms.add(entry.getKey());
+            }
+        }
+        return platforms;
+    }
+}
@@ -0,0 +1,76 @@
+package com.nukie.app.lynx;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.BatteryManager;
+import android.os.PowerManager;
+
+/**
+ * {@link BackgroundSyncScheduler.DeviceConditions} read from the connectivity, battery and
+ * power services.
+ */
+final class AndroidDeviceConditions implements BackgroundSyncScheduler.DeviceConditions {
+    /** Battery level, in percent, below which sync is deferred unless charging. */
+    private static final int LOW_BATTERY_PERCENT = 15;
+    
+    private final Context context;
+    private final ConnectivityManager connectivityManager;
+    private final PowerManager powerManager;
+    
+    AndroidDeviceConditions(Context context) {
+        this.context = context.getApplicationContext();
+        this.connectivityManager = (ConnectivityManager) this.context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        this.powerManager = (PowerManager) this.context.getSystemService(Context.POWER_SERVICE);
+    }
+    
+    /**
+     * Calls {@code onChange} whenever connectivity, charging or battery saver state changes.
+     */
+    void register(Runnable onChange) {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(ConnectivityManager.CONNECTIVITY_ACTION);
+        filter.addAction(Intent.ACTION_POWER_CONNECTED);
+        filter.addAction(Intent.ACTION_POWER_DISCONNECTED);
+        filter.addAction(Intent.ACTION_BATTERY_LOW);
+        filter.addAction(Intent.ACTION_BATTERY_OKAY);
+        filter.addAction(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED);
+        context.registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                onChange.run();
+            }
+        }, filter);
+    }
+    
+    @Override
+    public boolean isNetworkAvailable() {
+        NetworkInfo network = connectivityManager.getActiveNetworkInfo();
+        return network != null && network.isConnected();
+    }
+    
+    @Override
+    public boolean isNetworkMetered() {
+        return connectivityManager.isActiveNetworkMetered();
+    }
+    
+    @Override
+    public boolean isPowerConstrained() {
+        if (powerManager.isPowerSaveMode()) {
+            return true;
+        }
+        // The battery status broadcast is sticky, so this reads the last one without a receiver
+        Intent battery = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (battery == null) {
+            return false;
+        }
+        int status = battery.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
+        boolean charging = status == BatteryManager.BATTERY_STATUS_CHARGING || status == BatteryManager.BATTERY_STATUS_FULL;
+        int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        return !charging && level >= 0 && scale > 0 && level * 100 / scale < LOW_BATTERY_PERCENT;
+    }
+}
@@ -0,0 +1,18 @@
+package com.nukie.app.lynx;
+
+import android.util.Log;
+
+/**
+ * {@link LynxLog.Sink} writing to logcat.
+ */
+final class AndroidLogSink implements LynxLog.Sink {
+    @Override
+    public void log(int priority, String tag, String message, Throwable error) {
+        // LynxLog priorities match android.util.Log's
+        if (error != null) {
+            Log.println(priority, tag, message + '\n' + Log.getStackTraceString(error));
+        } else {
+            Log.println(priority, tag, message);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.nukie.app.lynx;
+
+import java.util.Map;
+
+/**
+ * An OAuth access token with the refresh token and expiry that came with it.
+ */
+public final class AuthToken {
+    /** Expiry used for tokens that do not advertise one. */
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+    
+    private final String accessToken;
+    private final String refreshToken;
+    private final long expiresAtMillis;
+    
+    public AuthToken(String accessToken, String refreshToken, long expiresAtMillis) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+    
+    /**
+     * Builds a token from the authentication data passed to {@link LynxAggregator#authenticatePlatform},
+     * using the standard OAuth field names.
+     * 
+     * @return The token, or null if the data carries no access token
+     */
+    static AuthToken fromAuthData(Map<String, String> authData, long nowMillis) {
+        String accessToken = authData.get("access_token");
+        if (accessToken == null || accessToken.isEmpty()) {
+            return null;
+        }
+        
+        long expiresAtMillis = NO_EXPIRY;
+        String expiresIn = authData.get("expires_in");
+        if (expiresIn != null) {
+            try {
+                expiresAtMillis = nowMillis + Long.parseLong(expiresIn) * 1000;
+            } catch (NumberFormatException e) {
+                // Keep the token usable; a 401 will trigger a refresh if it did expire
+            }
+        }
+        return new AuthToken(accessToken, authData.get("refresh_token"), expiresAtMillis);
+    }
+    
+    public String getAccessToken() {
+        return accessToken;
+    }
+    
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+    
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+    
+    /**
+     * True if the token expires within the given margin and should be refreshed ahead of time.
+     */
+    public boolean expiresWithin(long marginMillis, long nowMillis) {
+        return expiresAtMillis != NO_EXPIRY && expiresAtMillis - nowMillis <= marginMillis;
+    }
+}
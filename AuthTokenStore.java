@@ -0,0 +1,196 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory cache of decrypted platform access tokens in front of secure storage.
+ * 
+ * Tokens are read from storage once and then served from memory until they approach their
+ * expiry, at which point they are refreshed ahead of time. Refreshes are single-flight per
+ * platform: when many in-flight requests hit a 401 (or an expiring token) at once, exactly one
+ * of them refreshes and the others pick up the new token. A failed refresh is shared the same
+ * way: the token that could not be refreshed is not tried again for {@link #REFRESH_RETRY_MS},
+ * so requests waiting on the refresh fail over to the old token instead of each retrying it.
+ */
+public final class AuthTokenStore {
+    private static final String TAG = "AuthTokenStore";
+    
+    /** Tokens expiring within this margin are refreshed before they are used. */
+    private static final long REFRESH_MARGIN_MS = 60_000;
+    
+    /** How long a token whose refresh failed is used as is before it is refreshed again. */
+    static final long REFRESH_RETRY_MS = 30_000;
+    
+    private final TokenStorage storage;
+    private final TokenRefresher refresher;
+    private final Map<PlatformType, AuthToken> tokens = new ConcurrentHashMap<>();
+    private final Map<PlatformType, Boolean> loaded = new ConcurrentHashMap<>();
+    private final Map<PlatformType, Object> refreshLocks = new EnumMap<>(PlatformType.class);
+    /** Last failed refresh per platform; guarded by the platform's refresh lock. */
+    private final Map<PlatformType, FailedRefresh> failedRefreshes = new EnumMap<>(PlatformType.class);
+    
+    public AuthTokenStore(TokenStorage storage, TokenRefresher refresher) {
+        this.storage = storage;
+        this.refresher = refresher;
+        for (PlatformType platform : PlatformType.values()) {
+            refreshLocks.put(platform, new Object());
+        }
+    }
+    
+    /**
+     * Returns the access token to use for a request, refreshing it first if it is about to
+     * expire.
+     * 
+     * @return The access token, or null if the user is not signed in to the platform
+     */
+    public String getAccessToken(PlatformType platform) {
+        AuthToken token = getCachedToken(platform);
+        if (token == null) {
+            return null;
+        }
+        
+        long now = System.currentTimeMillis();
+        if (token.expiresWithin(REFRESH_MARGIN_MS, now)) {
+            AuthToken refreshed = refresh(platform, token);
+            if (refreshed != null) {
+                return refreshed.getAccessToken();
+            }
+            // Refresh failed; an expiring token is still better than none until it expires
+            return token.isExpired(now) ? null : token.getAccessToken();
+        }
+        return token.getAccessToken();
+    }
+    
+    /**
+     * Called after the platform rejected a request made with {@code rejectedAccessToken}.
+     * 
+     * @return The access token to retry with, or null if no newer token could be obtained
+     */
+    public String onUnauthorized(PlatformType platform, String rejectedAccessToken) {
+        AuthToken token = getCachedToken(platform);
+        if (token == null) {
+            return null;
+        }
+        
+        AuthToken refreshed = token.getAccessToken().equals(rejectedAccessToken)
+                ? refresh(platform, token)
+                : token;
+        if (refreshed == null || refreshed.getAccessToken().equals(rejectedAccessToken)) {
+            return null;
+        }
+        return refreshed.getAccessToken();
+    }
+    
+    /**
+     * Replaces the platform's token, e.g. after the user signed in again.
+     */
+    public void update(PlatformType platform, AuthToken token) {
+        synchronized (refreshLocks.get(platform)) {
+            tokens.put(platform, token);
+            failedRefreshes.remove(platform);
+            loaded.put(platform, Boolean.TRUE);
+            storage.save(platform, token);
+        }
+    }
+    
+    /**
+     * Forgets the platform's token in memory and in storage.
+     */
+    public void clear(PlatformType platform) {
+        synchronized (refreshLocks.get(platform)) {
+            tokens.remove(platform);
+            failedRefreshes.remove(platform);
+            loaded.put(platform, Boolean.TRUE);
+            storage.delete(platform);
+        }
+    }
+    
+    private AuthToken getCachedToken(PlatformType platform) {
+        AuthToken token = tokens.get(platform);
+        if (token != null || loaded.containsKey(platform)) {
+            return token;
+        }
+        
+        synchronized (refreshLocks.get(platform)) {
+            if (!loaded.containsKey(platform)) {
+                AuthToken stored = storage.load(platform);
+                if (stored != null) {
+                    tokens.put(platform, stored);
+                }
+                loaded.put(platform, Boolean.TRUE);
+            }
+            return tokens.get(platform);
+        }
+    }
+    
+    /**
+     * Refreshes {@code stale} unless another thread already replaced it while this one was
+     * waiting for the lock, in which case the replacement is returned, or unless refreshing
+     * it failed less than {@link #REFRESH_RETRY_MS} ago, in which case null is returned.
+     */
+    private AuthToken refresh(PlatformType platform, AuthToken stale) {
+        synchronized (refreshLocks.get(platform)) {
+            AuthToken current = tokens.get(platform);
+            if (current != null && current != stale) {
+                return current;
+            }
+            
+            long now = System.currentTimeMillis();
+            FailedRefresh failed = failedRefreshes.get(platform);
+            if (failed != null && failed.token == stale && now < failed.retryAtMillis) {
+                return null;
+            }
+            
+            AuthToken refreshed;
+            try {
+                refreshed = refresher.refresh(platform, stale);
+            } catch (IOException e) {
+                LynxLog.e(TAG, "Error refreshing access token for " + platform, e);
+                refreshed = null;
+            }
+            if (refreshed == null) {
+                failedRefreshes.put(platform, new FailedRefresh(stale, now + REFRESH_RETRY_MS));
+                return null;
+            }
+            tokens.put(platform, refreshed);
+            failedRefreshes.remove(platform);
+            storage.save(platform, refreshed);
+            LynxLog.d(TAG, "Refreshed access token for " + platform);
+            return refreshed;
+        }
+    }
+    
+    private static class FailedRefresh {
+        final AuthToken token;
+        final long retryAtMillis;
+        
+        FailedRefresh(AuthToken token, long retryAtMillis) {
+            this.token = token;
+            this.retryAtMillis = retryAtMillis;
+        }
+    }
+    
+    /**
+     * Secure storage holding the encrypted tokens.
+     */
+    public interface TokenStorage {
+        AuthToken load(PlatformType platform);
+        void save(PlatformType platform, AuthToken token);
+        void delete(PlatformType platform);
+    }
+    
+    /**
+     * Exchanges a refresh token for a new access token with the platform.
+     */
+    public interface TokenRefresher {
+        /**
+         * @return The new token, or null if the platform does not support refreshing
+         */
+        AuthToken refresh(PlatformType platform, AuthToken current) throws IOException;
+    }
+}
@@ -0,0 +1,236 @@
+package com.nukie.app.lynx;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules background sync: replaying the outbox and pulling new posts for every account
+ * that is due (see {@link DeltaSyncEngine}).
+ * 
+ * Every account has its own sync interval, but instead of one timer per account the scheduler
+ * keeps a single wake-up, so the radio is woken once for all of them:
+ * <ul>
+ *   <li>Wake-ups are aligned to a fixed grid of windows ({@link #WINDOW_MS}). A wake-up at
+ *   the start of a window syncs every account due within it, a little early for some, so
+ *   accounts that fall due close to each other share it.</li>
+ *   <li>A random jitter of up to {@link #MAX_JITTER_MS} is added to each wake-up so that
+ *   devices do not all hit the platforms at the top of the window.</li>
+ *   <li>Without a network nothing runs; on a metered network or when power is constrained the
+ *   grid is coarsened to {@link #CONSTRAINED_WINDOW_MS}.</li>
+ *   <li>Failed passes are retried with exponential backoff rather than on the next window.</li>
+ * </ul>
+ * 
+ * Passes and all scheduling decisions run on one scheduler thread. The clock and the device
+ * conditions are injectable, and {@link #runPass()} runs a single pass on the calling thread,
+ * so the schedule can be exercised without an Android device.
+ */
+public final class BackgroundSyncScheduler {
+    private static final String TAG = "BackgroundSyncScheduler";
+    
+    /** Wake-up grid under normal conditions. */
+    static final long WINDOW_MS = 30 * 60_000;
+    
+    /** Wake-up grid on metered networks and when power is constrained. */
+    static final long CONSTRAINED_WINDOW_MS = 2 * 60 * 60_000;
+    
+    /** Largest random delay added to a wake-up. */
+    static final long MAX_JITTER_MS = 60_000;
+    
+    private static final long INITIAL_BACKOFF_MS = 30_000;
+    private static final long MAX_BACKOFF_MS = 30 * 60_000;
+    
+    private final Outbox outbox;
+    private final DeltaSyncEngine deltaSync;
+    private final DeviceConditions conditions;
+    private final Clock clock;
+    private final Random random;
+    private final ScheduledExecutorService timer;
+    private ScheduledFuture<?> nextWakeUp;
+    // Only touched on the scheduler thread
+    private int consecutiveFailures;
+    private boolean networkWasAvailable;
+    private boolean stopped;
+    
+    public BackgroundSyncScheduler(Outbox outbox, DeltaSyncEngine deltaSync, DeviceConditions conditions) {
+        this(outbox, deltaSync, conditions, Clock.SYSTEM, new Random(), Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lynx-sync");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+    
+    BackgroundSyncScheduler(
+            Outbox outbox,
+            DeltaSyncEngine deltaSync,
+            DeviceConditions conditions,
+            Clock clock,
+            Random random,
+            ScheduledExecutorService timer) {
+        this.outbox = outbox;
+        this.deltaSync = deltaSync;
+        this.conditions = conditions;
+        this.clock = clock;
+        this.random = random;
+        this.timer = timer;
+    }
+    
+    /**
+     * Schedules the first wake-up.
+     */
+    public void start() {
+        synchronized (this) {
+            stopped = false;
+        }
+        reschedule();
+    }
+    
+    /**
+     * Recomputes the next wake-up, e.g. after an account was added or its interval changed,
+     * or after the device conditions changed. A pending wake-up is replaced, never duplicated.
+     * Safe to call from the main thread; the work happens on the scheduler's own thread.
+     */
+    public void reschedule() {
+        timer.execute(this::recomputeWakeUp);
+    }
+    
+    /**
+     * Stops background sync; a pass that is already running completes.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        if (nextWakeUp != null) {
+            nextWakeUp.cancel(false);
+            nextWakeUp = null;
+        }
+    }
+    
+    /**
+     * Runs one sync pass on the calling thread: replays the outbox and syncs every account due
+     * within the current window, unless there is no network.
+     * 
+     * @return When the next pass should run, in epoch milliseconds, or {@link Long#MAX_VALUE}
+     *         to wait for {@link #reschedule()}
+     */
+    long runPass() {
+        long now = clock.currentTimeMillis();
+        networkWasAvailable = conditions.isNetworkAvailable();
+        if (!networkWasAvailable) {
+            // Waking up is pointless until connectivity returns and reschedule() is called
+            LynxLog.d(TAG, "No network, deferring sync");
+            return Long.MAX_VALUE;
+        }
+        
+        boolean succeeded;
+        try {
+            boolean pushed = outbox.replay();
+            boolean pulled = deltaSync.syncDue(now, windowMs() - 1);
+            succeeded = pushed && pulled;
+        } catch (RuntimeException e) {
+            LynxLog.e(TAG, "Error during background sync", e);
+            succeeded = false;
+        }
+        
+        if (succeeded) {
+            consecutiveFailures = 0;
+            return nextWakeUpTime(now);
+        }
+        consecutiveFailures++;
+        long backoffMs = Math.min(INITIAL_BACKOFF_MS << Math.min(consecutiveFailures - 1, 10), MAX_BACKOFF_MS);
+        LynxLog.d(TAG, "Background sync failed " + consecutiveFailures + " times, retrying in " + backoffMs + " ms");
+        return now + backoffMs + jitter();
+    }
+    
+    /**
+     * @return The last window boundary before the earliest due account, plus jitter; the pass
+     *         there syncs everything due within that window
+     */
+    long nextWakeUpTime(long now) {
+        long nextSync = deltaSync.nextSyncTime();
+        if (nextSync == Long.MAX_VALUE) {
+            // No accounts to sync; the outbox schedules its own replays
+            return Long.MAX_VALUE;
+        }
+        long window = windowMs();
+        if (nextSync <= now) {
+            // Overdue, e.g. a newly added account
+            return now + jitter();
+        }
+        // Waking at the start of the window rather than the end keeps intervals from drifting
+        // longer by up to a window every time
+        long boundary = nextSync / window * window;
+        if (boundary <= now) {
+            // Due within the window of the pass that just ran
+            boundary += window;
+        }
+        return boundary + jitter();
+    }
+    
+    private long windowMs() {
+        return conditions.isNetworkMetered() || conditions.isPowerConstrained() ? CONSTRAINED_WINDOW_MS : WINDOW_MS;
+    }
+    
+    private long jitter() {
+        return (long) (random.nextDouble() * MAX_JITTER_MS);
+    }
+    
+    private void recomputeWakeUp() {
+        boolean networkAvailable = conditions.isNetworkAvailable();
+        boolean reconnected = networkAvailable && !networkWasAvailable;
+        networkWasAvailable = networkAvailable;
+        // While backing off the pending retry stands, unless the network just came back; other
+        // changes, e.g. the battery level, must not cut the backoff short
+        if (consecutiveFailures > 0 && !reconnected) {
+            return;
+        }
+        consecutiveFailures = 0;
+        long now = clock.currentTimeMillis();
+        scheduleAt(nextWakeUpTime(now), now);
+    }
+    
+    private void wakeUp() {
+        long wakeUpAt = runPass();
+        scheduleAt(wakeUpAt, clock.currentTimeMillis());
+    }
+    
+    private synchronized void scheduleAt(long wakeUpAt, long now) {
+        if (nextWakeUp != null) {
+            nextWakeUp.cancel(false);
+            nextWakeUp = null;
+        }
+        if (stopped || wakeUpAt == Long.MAX_VALUE) {
+            return;
+        }
+        long delayMs = Math.max(0, wakeUpAt - now);
+        nextWakeUp = timer.schedule(this::wakeUp, delayMs, TimeUnit.MILLISECONDS);
+        LynxLog.d(TAG, "Next background sync in " + delayMs + " ms");
+    }
+    
+    /**
+     * Source of the current time.
+     */
+    public interface Clock {
+        Clock SYSTEM = System::currentTimeMillis;
+        
+        long currentTimeMillis();
+    }
+    
+    /**
+     * Power and network state the schedule adapts to.
+     */
+    public interface DeviceConditions {
+        boolean isNetworkAvailable();
+        
+        /**
+         * @return True on networks the user may pay for by volume, such as mobile data
+         */
+        boolean isNetworkMetered();
+        
+        /**
+         * @return True in battery saver mode, or when the battery is low and not charging
+         */
+        boolean isPowerConstrained();
+    }
+}
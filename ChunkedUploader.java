@@ -0,0 +1,338 @@
+package com.nukie.app.lynx;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+
+/**
+ * Resumable, chunked media uploads using the resumable upload protocol of YouTube and TikTok:
+ * each chunk is a PUT with a {@code Content-Range} header, the server acknowledges it with
+ * 308 and a {@code Range} header, and the final chunk is answered with 200 or 201.
+ * 
+ * Chunks are streamed from a {@link FileChannel} straight into the request body, so no part of
+ * the file is copied onto the heap. The acknowledged offset is persisted after every chunk;
+ * an upload interrupted by a network error, or by process death, continues from the last
+ * acknowledged chunk instead of from zero.
+ */
+final class ChunkedUploader {
+    private static final String TAG = "ChunkedUploader";
+    
+    /** Chunk size; YouTube requires a multiple of 256 KB. */
+    static final long DEFAULT_CHUNK_SIZE = 8L * 1024 * 1024;
+    
+    /** Times a failed chunk is retried in place before the upload gives up until next time. */
+    private static final int MAX_CHUNK_RETRIES = 3;
+    
+    private static final int RESUME_INCOMPLETE = 308;
+    
+    private final OkHttpClient httpClient;
+    private final StateStore stateStore;
+    private final long chunkSize;
+    
+    ChunkedUploader(OkHttpClient httpClient, StateStore stateStore) {
+        this(httpClient, stateStore, DEFAULT_CHUNK_SIZE);
+    }
+    
+    ChunkedUploader(OkHttpClient httpClient, StateStore stateStore, long chunkSize) {
+        this.httpClient = httpClient;
+        this.stateStore = stateStore;
+        this.chunkSize = chunkSize;
+    }
+    
+    /**
+     * Uploads a file, resuming a stored session for {@code uploadKey} if there is one.
+     * 
+     * @param uploadKey Stable key of the upload, e.g. the content hash and the platform
+     * @param file The file to upload
+     * @param contentType Media type of the file
+     * @param sessionFactory Opens a new upload session when there is none to resume
+     * @param listener Receives the acknowledged byte count after each chunk, or null
+     * @return Body of the platform's final response, typically carrying the media id
+     */
+    String upload(
+            String uploadKey,
+            File file,
+            MediaType contentType,
+            SessionFactory sessionFactory,
+            ProgressListener listener) throws IOException {
+        
+        long totalBytes = file.length();
+        if (totalBytes == 0) {
+            throw new IOException("Nothing to upload in " + file);
+        }
+        UploadState state = stateStore.load(uploadKey);
+        if (state != null && state.getTotalBytes() != totalBytes) {
+            // The file changed since the upload started
+            stateStore.delete(uploadKey);
+            state = null;
+        }
+        
+        long offset = 0;
+        if (state != null) {
+            // The server is the authority on what it received; the stored offset may lag one chunk
+            UploadStatus status = queryStatus(state);
+            if (status.completedBody != null) {
+                stateStore.delete(uploadKey);
+                return status.completedBody;
+            }
+            if (status.acknowledgedBytes < 0) {
+                LynxLog.d(TAG, "Upload session for " + uploadKey + " expired, starting over");
+                state = null;
+            } else {
+                offset = status.acknowledgedBytes;
+                LynxLog.d(TAG, "Resuming upload of " + uploadKey + " at " + offset + "/" + totalBytes);
+            }
+        }
+        if (state == null) {
+            state = new UploadState(uploadKey, sessionFactory.openSession(totalBytes), totalBytes, 0);
+            stateStore.save(state);
+        }
+        
+        try (FileInputStream in = new FileInputStream(file)) {
+            FileChannel channel = in.getChannel();
+            int retries = 0;
+            while (true) {
+                long end = Math.min(offset + chunkSize, totalBytes);
+                Request request = new Request.Builder()
+                        .url(state.getUploadUrl())
+                        .put(new FileChunkBody(channel, offset, end - offset, contentType))
+                        .header("Content-Range", "bytes " + offset + "-" + (end - 1) + "/" + totalBytes)
+                        .build();
+                
+                String completedBody = null;
+                IOException failure = null;
+                Call call = httpClient.newCall(request);
+                try (Response response = call.execute()) {
+                    if (response.isSuccessful()) {
+                        completedBody = response.body() != null ? response.body().string() : "";
+                    } else if (response.code() == RESUME_INCOMPLETE) {
+                        long acknowledged = acknowledgedBytes(response);
+                        if (acknowledged > offset) {
+                            offset = acknowledged;
+                        } else {
+                            // The server kept none of the chunk; retrying is bounded like any failure
+                            failure = new IOException("Upload of " + uploadKey + " made no progress at " + offset);
+                        }
+                    } else if (response.code() >= 500) {
+                        failure = new IOException("Upload of " + uploadKey + " failed: HTTP " + response.code());
+                    } else {
+                        throw new UploadRejectedException("Upload of " + uploadKey + " rejected: HTTP " + response.code());
+                    }
+                } catch (UploadRejectedException e) {
+                    throw e;
+                } catch (IOException e) {
+                    if (call.isCanceled()) {
+                        // The publish was cancelled; the session stays resumable
+                        throw e;
+                    }
+                    failure = e;
+                }
+                
+                if (completedBody != null) {
+                    stateStore.delete(uploadKey);
+                    notifyProgress(listener, totalBytes, totalBytes);
+                    return completedBody;
+                }
+                if (failure != null) {
+                    // Network error or server error: ask the server where to continue
+                    if (++retries > MAX_CHUNK_RETRIES) {
+                        throw failure;
+                    }
+                    LynxLog.w(TAG, "Retrying chunk of " + uploadKey + " after: " + failure.getMessage());
+                    UploadStatus status = queryStatus(state);
+                    if (status.completedBody != null) {
+                        stateStore.delete(uploadKey);
+                        return status.completedBody;
+                    }
+                    if (status.acknowledgedBytes < 0) {
+                        throw failure;
+                    }
+                    offset = status.acknowledgedBytes;
+                    continue;
+                }
+                
+                retries = 0;
+                state = state.withAcknowledgedBytes(offset);
+                stateStore.save(state);
+                notifyProgress(listener, offset, totalBytes);
+            }
+        }
+    }
+    
+    /**
+     * Asks the server how much of the upload it has, with an empty PUT.
+     */
+    private UploadStatus queryStatus(UploadState state) throws IOException {
+        Request request = new Request.Builder()
+                .url(state.getUploadUrl())
+                .put(RequestBody.create(new byte[0], null))
+                .header("Content-Range", "bytes */" + state.getTotalBytes())
+                .build();
+        try (Response response = httpClient.newCall(request).execute()) {
+            if (response.isSuccessful()) {
+                return new UploadStatus(-1, response.body() != null ? response.body().string() : "");
+            }
+            if (response.code() == RESUME_INCOMPLETE) {
+                return new UploadStatus(acknowledgedBytes(response), null);
+            }
+            if (response.code() == 404 || response.code() == 410) {
+                return new UploadStatus(-1, null);
+            }
+            throw new IOException("Upload status query failed: HTTP " + response.code());
+        }
+    }
+    
+    /**
+     * Parses {@code Range: bytes=0-N}; without the header the server has nothing yet.
+     */
+    private static long acknowledgedBytes(Response response) throws IOException {
+        String range = response.header("Range");
+        if (range == null) {
+            return 0;
+        }
+        int dash = range.lastIndexOf('-');
+        try {
+            return Long.parseLong(range.substring(dash + 1).trim()) + 1;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IOException("Malformed Range header: " + range);
+        }
+    }
+    
+    private static void notifyProgress(ProgressListener listener, long sentBytes, long totalBytes) {
+        if (listener != null) {
+            listener.onProgress(sentBytes, totalBytes);
+        }
+    }
+    
+    /**
+     * The platform refused a chunk (e.g. 400 or 403); retrying the same bytes will not help.
+     */
+    static final class UploadRejectedException extends IOException {
+        UploadRejectedException(String message) {
+            super(message);
+        }
+    }
+    
+    private static final class UploadStatus {
+        final long acknowledgedBytes;
+        final String completedBody;
+        
+        UploadStatus(long acknowledgedBytes, String completedBody) {
+            this.acknowledgedBytes = acknowledgedBytes;
+            this.completedBody = completedBody;
+        }
+    }
+    
+    /**
+     * Request body streaming one range of a file. It can be written more than once, which
+     * lets OkHttp retry it on a new connection.
+     */
+    private static final class FileChunkBody extends RequestBody {
+        private final FileChannel channel;
+        private final long offset;
+        private final long length;
+        private final MediaType contentType;
+        
+        FileChunkBody(FileChannel channel, long offset, long length, MediaType contentType) {
+            this.channel = channel;
+            this.offset = offset;
+            this.length = length;
+            this.contentType = contentType;
+        }
+        
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+        
+        @Override
+        public long contentLength() {
+            return length;
+        }
+        
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            long position = offset;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, sink);
+                if (transferred <= 0) {
+                    throw new EOFException("File shorter than expected at " + position);
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+    
+    /**
+     * A resumable upload session and the bytes the server acknowledged so far.
+     */
+    static final class UploadState {
+        private final String uploadKey;
+        private final String uploadUrl;
+        private final long totalBytes;
+        private final long acknowledgedBytes;
+        
+        UploadState(String uploadKey, String uploadUrl, long totalBytes, long acknowledgedBytes) {
+            this.uploadKey = uploadKey;
+            this.uploadUrl = uploadUrl;
+            this.totalBytes = totalBytes;
+            this.acknowledgedBytes = acknowledgedBytes;
+        }
+        
+        UploadState withAcknowledgedBytes(long bytes) {
+            return new UploadState(uploadKey, uploadUrl, totalBytes, bytes);
+        }
+        
+        String getUploadKey() {
+            return uploadKey;
+        }
+        
+        String getUploadUrl() {
+            return uploadUrl;
+        }
+        
+        long getTotalBytes() {
+            return totalBytes;
+        }
+        
+        long getAcknowledgedBytes() {
+            return acknowledgedBytes;
+        }
+    }
+    
+    /**
+     * Persists upload sessions across process death.
+     */
+    interface StateStore {
+        UploadState load(String uploadKey);
+        void save(UploadState state) throws IOException;
+        void delete(String uploadKey);
+    }
+    
+    /**
+     * Starts an upload session with the platform (e.g. YouTube's videos.insert with
+     * uploadType=resumable, or TikTok's publish init).
+     */
+    interface SessionFactory {
+        /**
+         * @return The URL the chunks are PUT to
+         */
+        String openSession(long totalBytes) throws IOException;
+    }
+    
+    interface ProgressListener {
+        void onProgress(long sentBytes, long totalBytes);
+    }
+}
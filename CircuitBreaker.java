@@ -0,0 +1,167 @@
+package com.nukie.app.lynx;
+
+/**
+ * Circuit breaker tracking the health of one platform.
+ * 
+ * In the CLOSED state every call goes through and its outcome is recorded in a sliding window
+ * of the last {@code windowSize} calls. Once the window holds at least {@code minimumCalls}
+ * calls and either the error rate or the slow-call rate reaches its threshold, the circuit
+ * OPENs and calls are rejected immediately for {@code openDurationMs}. After that the circuit
+ * is HALF_OPEN and lets a single trial call through: success closes it again, failure re-opens
+ * it for another period.
+ */
+public final class CircuitBreaker {
+    
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+    
+    private static final int DEFAULT_WINDOW_SIZE = 20;
+    private static final int DEFAULT_MINIMUM_CALLS = 5;
+    private static final float DEFAULT_FAILURE_RATE_THRESHOLD = 0.5f;
+    private static final float DEFAULT_SLOW_CALL_RATE_THRESHOLD = 0.5f;
+    private static final long DEFAULT_SLOW_CALL_MS = 5000;
+    private static final long DEFAULT_OPEN_DURATION_MS = 30000;
+    
+    private final int minimumCalls;
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openDurationNanos;
+    
+    // Ring buffer of call outcomes: bit 0 = failed, bit 1 = slow
+    private final byte[] outcomes;
+    private int recordedCalls;
+    private int nextSlot;
+    private int failedCalls;
+    private int slowCalls;
+    
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    
+    public CircuitBreaker() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_MINIMUM_CALLS, DEFAULT_FAILURE_RATE_THRESHOLD,
+                DEFAULT_SLOW_CALL_RATE_THRESHOLD, DEFAULT_SLOW_CALL_MS, DEFAULT_OPEN_DURATION_MS);
+    }
+    
+    public CircuitBreaker(
+            int windowSize,
+            int minimumCalls,
+            float failureRateThreshold,
+            float slowCallRateThreshold,
+            long slowCallMs,
+            long openDurationMs) {
+        
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Invalid circuit breaker window");
+        }
+        this.outcomes = new byte[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = slowCallMs * 1_000_000L;
+        this.openDurationNanos = openDurationMs * 1_000_000L;
+    }
+    
+    /**
+     * Asks for permission to make a call. Every permitted call must be followed by
+     * {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+     * 
+     * @return False if the circuit is open and the call must fail fast
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+    
+    public synchronized void onSuccess(long durationNanos) {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            if (durationNanos >= slowCallNanos) {
+                open();
+            } else {
+                close();
+            }
+            return;
+        }
+        record(false, durationNanos >= slowCallNanos);
+    }
+    
+    public synchronized void onFailure(long durationNanos) {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            open();
+            return;
+        }
+        record(true, durationNanos >= slowCallNanos);
+    }
+    
+    /**
+     * Ends a permitted call whose outcome says nothing about the platform's health, such as one
+     * the rate limiter held back. It is not recorded, and a trial call may be made again.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+    
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+    
+    private void record(boolean failed, boolean slow) {
+        if (state != State.CLOSED) {
+            // Late results of calls permitted before the circuit opened
+            return;
+        }
+        
+        if (recordedCalls == outcomes.length) {
+            byte evicted = outcomes[nextSlot];
+            failedCalls -= evicted & 1;
+            slowCalls -= (evicted >> 1) & 1;
+        } else {
+            recordedCalls++;
+        }
+        outcomes[nextSlot] = (byte) ((failed ? 1 : 0) | (slow ? 2 : 0));
+        failedCalls += failed ? 1 : 0;
+        slowCalls += slow ? 1 : 0;
+        nextSlot = (nextSlot + 1) % outcomes.length;
+        
+        if (recordedCalls >= minimumCalls
+                && ((float) failedCalls / recordedCalls >= failureRateThreshold
+                        || (float) slowCalls / recordedCalls >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+    
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+    
+    private void close() {
+        state = State.CLOSED;
+        recordedCalls = 0;
+        nextSlot = 0;
+        failedCalls = 0;
+        slowCalls = 0;
+    }
+}
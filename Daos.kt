@@ -52,6 +52,14 @@ interface SocialPostsDao {
     
     @Query("SELECT * FROM social_posts ORDER BY published_at DESC LIMIT :limit")
     fun getPostsPaged(limit: Int): Flow<PagingData<SocialPostWithMedia>>
+    
+    // Blocking upserts for the delta sync engine, which runs them in its own transaction
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun upsertPostsSync(posts: List<SocialPost>)
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun upsertMediaSync(media: List<PostMedia>)
 }
 
 @Dao
@@ -95,15 +103,26 @@ interface TokensDao {
 }
 
 @Dao
-interface UserInteractionsDao {
-    @Query("SELECT * FROM user_interactions WHERE status = :status")
-    fun getInteractionsByStatus(status: String): Flow<List<UserInteraction>>
+interface OutboxDao {
+    // Blocking queries; the outbox replays on its own background threads
     
     @Insert(onConflict = OnConflictStrategy.REPLACE)
-    suspend fun insertInteraction(interaction: UserInteraction)
+    fun insertOperation(operation: OutboxEntry)
+    
+    @Query("SELECT * FROM outbox_operations WHERE status = 'pending' ORDER BY created_at LIMIT :limit")
+    fun getPendingOperations(limit: Int): List<OutboxEntry>
+    
+    @Query("DELETE FROM outbox_operations WHERE id IN (:operationIds)")
+    fun deleteOperations(operationIds: List<String>)
+    
+    @Query("UPDATE outbox_operations SET status = 'failed' WHERE id IN (:operationIds)")
+    fun markOperationsFailed(operationIds: List<String>)
     
-    @Query("UPDATE user_interactions SET status = :newStatus WHERE id = :interactionId")
-    suspend fun updateInteractionStatus(interactionId: String, newStatus: String)
+    @Query("UPDATE outbox_operations SET attempt_count = attempt_count + 1 WHERE id IN (:operationIds)")
+    fun incrementAttemptCount(operationIds: List<String>)
+    
+    @Query("SELECT * FROM outbox_operations WHERE status = 'failed' ORDER BY created_at")
+    fun getFailedOperations(): Flow<List<OutboxEntry>>
 }
 
 @Dao
@@ -130,8 +149,22 @@ interface SyncStatusDao {
     fun getAllSyncStatus(): Flow<List<SyncStatus>>
     
     @Query("SELECT * FROM sync_status WHERE platform = :platform")
-    fun getSyncStatusForPlatform(platform: String): Flow<SyncStatus?>
+    fun getSyncStatusForPlatform(platform: String): Flow<List<SyncStatus>>
     
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     suspend fun updateSyncStatus(syncStatus: SyncStatus)
+    
+    // Blocking queries for the delta sync engine
+    
+    @Query("SELECT * FROM sync_status WHERE platform = :platform AND account_id = :accountId")
+    fun getSyncStatusSync(platform: String, accountId: String): SyncStatus?
+    
+    @Query("SELECT * FROM sync_status WHERE is_auto_sync = 1 AND (next_sync_time IS NULL OR next_sync_time <= :now)")
+    fun getDueSyncStatusSync(now: Long): List<SyncStatus>
+    
+    @Query("SELECT MIN(COALESCE(next_sync_time, 0)) FROM sync_status WHERE is_auto_sync = 1")
+    fun getEarliestNextSyncTimeSync(): Long?
+    
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    fun updateSyncStatusSync(syncStatus: SyncStatus)
 }
@@ -0,0 +1,147 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+import com.nukie.app.data.model.UnifiedPost;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Incremental sync of platform timelines into the local database.
+ * 
+ * Each account's sync_status row keeps a watermark, the newest item synced so far. A sync
+ * asks the platform only for items newer than the watermark, stores them and advances the
+ * watermark in one transaction, so background traffic scales with new content rather than
+ * with page size, and a sync interrupted halfway is simply repeated.
+ */
+public final class DeltaSyncEngine {
+    private static final String TAG = "DeltaSyncEngine";
+    
+    /** Items fetched per request; the first sync of an account stores one batch of this size. */
+    static final int MAX_ITEMS_PER_SYNC = 100;
+    
+    private final SyncStore store;
+    private final DeltaSource source;
+    
+    public DeltaSyncEngine(SyncStore store, DeltaSource source) {
+        this.store = store;
+        this.source = source;
+    }
+    
+    /**
+     * Starts tracking an account, e.g. after the user connected it. Accounts already tracked
+     * keep their watermark.
+     */
+    public void track(PlatformType platform, String accountId) {
+        if (store.load(platform, accountId) == null) {
+            store.commit(SyncState.initial(platform, accountId), Collections.<UnifiedPost>emptyList());
+        }
+    }
+    
+    /**
+     * Syncs every auto-sync account whose next sync time has come.
+     * 
+     * @return True if all due accounts synced
+     */
+    public boolean syncDue(long now) {
+        return syncDue(now, 0);
+    }
+    
+    /**
+     * Syncs every auto-sync account whose next sync time has come or comes within
+     * {@code lookaheadMs}, so accounts due shortly after each other share one sync.
+     * 
+     * @return True if all due accounts synced
+     */
+    public boolean syncDue(long now, long lookaheadMs) {
+        boolean allSynced = true;
+        for (SyncState state : store.loadDue(now + lookaheadMs)) {
+            try {
+                sync(state, now);
+            } catch (Exception e) {
+                LynxLog.e(TAG, "Error syncing " + state.getPlatform() + " account " + state.getAccountId(), e);
+                allSynced = false;
+            }
+        }
+        return allSynced;
+    }
+    
+    /**
+     * @return Earliest next sync time of the auto-sync accounts, or {@link Long#MAX_VALUE} if none
+     */
+    public long nextSyncTime() {
+        return store.earliestNextSyncTime();
+    }
+    
+    /**
+     * Fetches and stores the account's new items and advances its watermark.
+     * 
+     * @return Number of new items stored
+     */
+    public int sync(SyncState state, long now) throws Exception {
+        // Without a watermark yet this is the newest batch of the timeline
+        FeedPage delta = source.fetchSince(
+                state.getPlatform(), state.getNewestItemId(), state.getNewestItemTimestamp(), null, MAX_ITEMS_PER_SYNC);
+        List<UnifiedPost> posts = new ArrayList<>(delta.getPosts());
+        // With one, page down to it: the watermark jumps to the newest item, so any new item
+        // not stored now would never be synced
+        while (delta.hasMore() && state.getNewestItemId() != null) {
+            delta = source.fetchSince(state.getPlatform(), state.getNewestItemId(), state.getNewestItemTimestamp(),
+                    delta.getNextCursor(), MAX_ITEMS_PER_SYNC);
+            posts.addAll(delta.getPosts());
+        }
+        
+        UnifiedPost newest = null;
+        for (UnifiedPost post : posts) {
+            if (newest == null || post.getPublishedAt() > newest.getPublishedAt()) {
+                newest = post;
+            }
+        }
+        SyncState advanced = newest != null
+                ? state.advancedTo(newest.getPlatformId(), newest.getPublishedAt(), now)
+                : state.advancedTo(state.getNewestItemId(), state.getNewestItemTimestamp(), now);
+        
+        store.commit(advanced, posts);
+        LynxLog.d(TAG, "Synced " + posts.size() + " new items from " + state.getPlatform());
+        return posts.size();
+    }
+    
+    /**
+     * The sync_status and social_posts tables.
+     */
+    public interface SyncStore {
+        SyncState load(PlatformType platform, String accountId);
+        
+        /**
+         * @return Auto-sync accounts whose next sync time is at or before {@code now}
+         */
+        List<SyncState> loadDue(long now);
+        
+        /**
+         * @return Earliest next sync time of the auto-sync accounts, or {@link Long#MAX_VALUE} if none
+         */
+        long earliestNextSyncTime();
+        
+        /**
+         * Upserts the posts and replaces the account's sync state in a single transaction.
+         */
+        void commit(SyncState state, List<UnifiedPost> newPosts);
+    }
+    
+    /**
+     * Fetches timeline items from the platforms.
+     */
+    public interface DeltaSource {
+        /**
+         * @param sinceId Platform id of the newest item synced so far, or null for none
+         * @param sinceTimestamp Publication time of that item, or 0 for none
+         * @param cursor Cursor of the previous result to continue below it, or null to start at the top
+         * @param limit Number of items after which to stop at the end of a page
+         * @return Items newer than the watermark, newest first; if {@link FeedPage#hasMore()},
+         *         its cursor continues with the older ones
+         */
+        FeedPage fetchSince(PlatformType platform, String sinceId, long sinceTimestamp, String cursor, int limit)
+                throws Exception;
+    }
+}
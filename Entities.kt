@@ -107,15 +107,19 @@ data class TokenTransaction(
     val relatedEntityId: String?
 )
 
-@Entity(tableName = "user_interactions")
-data class UserInteraction(
+@Entity(tableName = "outbox_operations")
+data class OutboxEntry(
     @PrimaryKey
     val id: String,
     val postId: String,
-    val interactionType: String, // 'like', 'comment', 'share', 'save'
-    val content: String?, // for comments
+    val platform: String,
+    val platformPostId: String?, // null for new posts
+    val operationType: String, // 'post', 'like', 'unlike', 'comment', 'share', 'save', 'unsave'
+    val payload: String?, // JSON object of operation data (comment text, post content)
+    val mediaFiles: String?, // JSON array of local file paths, for new posts
     val createdAt: Long,
-    val status: String = "pending" // 'pending', 'synced', 'failed'
+    val status: String = "pending", // 'pending', 'failed'
+    val attemptCount: Int = 0
 )
 
 @Entity(tableName = "feed_positions")
@@ -135,12 +139,14 @@ data class AppSetting(
     val updatedAt: Long
 )
 
-@Entity(tableName = "sync_status")
+@Entity(tableName = "sync_status", primaryKeys = ["platform", "accountId"])
 data class SyncStatus(
-    @PrimaryKey
     val platform: String,
+    val accountId: String,
     val lastSyncTime: Long,
     val nextSyncTime: Long?,
     val syncInterval: Long = 3600000, // milliseconds
-    val isAutoSync: Boolean = true
+    val isAutoSync: Boolean = true,
+    val newestItemId: String? = null, // platform id of the newest item synced so far
+    val newestItemTimestamp: Long? = null
 )
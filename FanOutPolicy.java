@@ -0,0 +1,69 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Deadlines applied when LynxAggregator fans a feed request out to all platforms concurrently.
+ * 
+ * The overall timeout bounds the whole aggregated request. Each platform additionally gets its
+ * own timeout (the default one, unless overridden), which can never exceed the overall timeout.
+ * Platforms that have not answered when their deadline passes are reported as timed out and
+ * the posts of every platform that did answer are returned.
+ */
+public final class FanOutPolicy {
+    private static final long DEFAULT_OVERALL_TIMEOUT_MS = 8000;
+    private static final long DEFAULT_PLATFORM_TIMEOUT_MS = 5000;
+    
+    private final long overallTimeoutMs;
+    private final long defaultPlatformTimeoutMs;
+    private final Map<PlatformType, Long> platformTimeoutsMs;
+    
+    public FanOutPolicy(long overallTimeoutMs, long defaultPlatformTimeoutMs) {
+        this(overallTimeoutMs, defaultPlatformTimeoutMs, new EnumMap<>(PlatformType.class));
+    }
+    
+    private FanOutPolicy(long overallTimeoutMs, long defaultPlatformTimeoutMs, Map<PlatformType, Long> platformTimeoutsMs) {
+        if (overallTimeoutMs <= 0 || defaultPlatformTimeoutMs <= 0) {
+            throw new IllegalArgumentException("Timeouts must be positive");
+        }
+        this.overallTimeoutMs = overallTimeoutMs;
+        this.defaultPlatformTimeoutMs = defaultPlatformTimeoutMs;
+        this.platformTimeoutsMs = platformTimeoutsMs;
+    }
+    
+    /**
+     * The policy used by {@link LynxAggregator#fetchAggregatedFeed(int)}.
+     */
+    public static FanOutPolicy defaults() {
+        return new FanOutPolicy(DEFAULT_OVERALL_TIMEOUT_MS, DEFAULT_PLATFORM_TIMEOUT_MS);
+    }
+    
+    /**
+     * Returns a copy of this policy with a dedicated timeout for one platform.
+     */
+    public FanOutPolicy withPlatformTimeout(PlatformType platform, long timeoutMs) {
+        if (timeoutMs <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        Map<PlatformType, Long> timeouts = new EnumMap<>(PlatformType.class);
+        timeouts.putAll(platformTimeoutsMs);
+        timeouts.put(platform, timeoutMs);
+        return new FanOutPolicy(overallTimeoutMs, defaultPlatformTimeoutMs, timeouts);
+    }
+    
+    public long getOverallTimeoutMs() {
+        return overallTimeoutMs;
+    }
+    
+    /**
+     * Effective timeout for a platform, capped by the overall timeout.
+     */
+    public long getPlatformTimeoutMs(PlatformType platform) {
+        Long timeout = platformTimeoutsMs.get(platform);
+        long platformTimeout = timeout != null ? timeout : defaultPlatformTimeoutMs;
+        return Math.min(platformTimeout, overallTimeoutMs);
+    }
+}
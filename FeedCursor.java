@@ -0,0 +1,113 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+import com.nukie.app.data.model.UnifiedPost;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Composite continuation token for the aggregated feed, holding one platform cursor per
+ * platform that still has posts to load.
+ * 
+ * Platforms that reached the end of their timeline are dropped from the cursor, so the next
+ * aggregated page only asks the platforms that can still return something. A platform mapped
+ * to a null cursor has not been fetched yet and starts from the top of its timeline.
+ * 
+ * Posts a platform returned beyond what fit in the merged page are carried in the cursor and
+ * served first on the next page, since the platform cursor already points past them.
+ */
+public final class FeedCursor {
+    private final Map<PlatformType, String> platformCursors;
+    private final Map<PlatformType, List<UnifiedPost>> carriedPosts;
+    
+    FeedCursor(Map<PlatformType, String> platformCursors) {
+        this(platformCursors, Collections.<PlatformType, List<UnifiedPost>>emptyMap());
+    }
+    
+    FeedCursor(Map<PlatformType, String> platformCursors, Map<PlatformType, List<UnifiedPost>> carriedPosts) {
+        this.platformCursors = Collections.unmodifiableMap(new EnumMap<>(platformCursors));
+        Map<PlatformType, List<UnifiedPost>> carried = new EnumMap<>(PlatformType.class);
+        for (Map.Entry<PlatformType, List<UnifiedPost>> entry : carriedPosts.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                carried.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+            }
+        }
+        this.carriedPosts = Collections.unmodifiableMap(carried);
+    }
+    
+    /**
+     * A cursor for the first page of the aggregated feed across all platforms.
+     */
+    public static FeedCursor start() {
+        Map<PlatformType, String> cursors = new EnumMap<>(PlatformType.class);
+        for (PlatformType platform : PlatformType.values()) {
+            cursors.put(platform, null);
+        }
+        return new FeedCursor(cursors);
+    }
+    
+    /**
+     * True if the platform still has posts to load.
+     */
+    public boolean includes(PlatformType platform) {
+        return platformCursors.containsKey(platform) || carriedPosts.containsKey(platform);
+    }
+    
+    /**
+     * True if the platform's timeline has pages left to fetch.
+     */
+    public boolean hasPlatformPages(PlatformType platform) {
+        return platformCursors.containsKey(platform);
+    }
+    
+    /**
+     * The platform's own cursor, or null for the first page of its timeline.
+     */
+    public String getPlatformCursor(PlatformType platform) {
+        return platformCursors.get(platform);
+    }
+    
+    /**
+     * Posts the platform already returned that did not fit in the previous page, newest first.
+     */
+    public List<UnifiedPost> getCarriedPosts(PlatformType platform) {
+        List<UnifiedPost> posts = carriedPosts.get(platform);
+        return posts != null ? posts : Collections.<UnifiedPost>emptyList();
+    }
+    
+    public Set<PlatformType> getPlatforms() {
+        Set<PlatformType> platforms = EnumSet.noneOf(PlatformType.class);
+        platforms.addAll(platformCursors.keySet());
+        platforms.addAll(carriedPosts.keySet());
+        return Collections.unmodifiableSet(platforms);
+    }
+    
+    /**
+     * True if at least one platform has more posts.
+     */
+    public boolean hasMore() {
+        return !platformCursors.isEmpty() || !carriedPosts.isEmpty();
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FeedCursor)) {
+            return false;
+        }
+        FeedCursor other = (FeedCursor) o;
+        return platformCursors.equals(other.platformCursors) && carriedPosts.equals(other.carriedPosts);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * platformCursors.hashCode() + carriedPosts.hashCode();
+    }
+}
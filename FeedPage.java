@@ -0,0 +1,66 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.UnifiedPost;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a platform timeline together with the continuation token for the next page.
+ * 
+ * The cursor is opaque to callers: each platform client encodes whatever its API uses to
+ * continue a timeline (an after cursor, a page token, a max id, ...).
+ */
+public final class FeedPage {
+    private final List<UnifiedPost> posts;
+    private final String nextCursor;
+    private final boolean hasMore;
+    private final boolean stale;
+    
+    public FeedPage(List<UnifiedPost> posts, String nextCursor, boolean hasMore) {
+        this(posts, nextCursor, hasMore, false);
+    }
+    
+    private FeedPage(List<UnifiedPost> posts, String nextCursor, boolean hasMore, boolean stale) {
+        this.posts = Collections.unmodifiableList(posts);
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore && nextCursor != null;
+        this.stale = stale;
+    }
+    
+    /**
+     * A page with no posts and nothing after it.
+     */
+    public static FeedPage empty() {
+        return new FeedPage(Collections.emptyList(), null, false);
+    }
+    
+    public List<UnifiedPost> getPosts() {
+        return posts;
+    }
+    
+    /**
+     * Token to pass to the next page request, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasMore() {
+        return hasMore;
+    }
+    
+    /**
+     * True if the page was served from cache because the platform is currently unavailable.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+    
+    /**
+     * A copy of this page marked as served from cache.
+     */
+    FeedPage asStale() {
+        return new FeedPage(posts, nextCursor, hasMore, true);
+    }
+}
@@ -0,0 +1,40 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.util.Objects;
+
+/**
+ * Identity of a feed request for coalescing: the platform (null for the aggregated feed), the
+ * cursor it continues from and the page size.
+ */
+final class FeedRequestKey {
+    private final PlatformType platform;
+    private final Object cursor;
+    private final int limit;
+    
+    FeedRequestKey(PlatformType platform, Object cursor, int limit) {
+        this.platform = platform;
+        this.cursor = cursor;
+        this.limit = limit;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FeedRequestKey)) {
+            return false;
+        }
+        FeedRequestKey other = (FeedRequestKey) o;
+        return limit == other.limit
+                && platform == other.platform
+                && Objects.equals(cursor, other.cursor);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(platform, cursor, limit);
+    }
+}
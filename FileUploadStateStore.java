@@ -0,0 +1,75 @@
+package com.nukie.app.lynx;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Stores each resumable upload session in a small properties file, replaced atomically on
+ * every update so a crash mid-write never leaves a corrupt session behind.
+ */
+final class FileUploadStateStore implements ChunkedUploader.StateStore {
+    private static final String TAG = "FileUploadStateStore";
+    
+    private final File directory;
+    
+    FileUploadStateStore(File directory) {
+        this.directory = directory;
+    }
+    
+    @Override
+    public synchronized ChunkedUploader.UploadState load(String uploadKey) {
+        File file = fileFor(uploadKey);
+        if (!file.isFile()) {
+            return null;
+        }
+        
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+            return new ChunkedUploader.UploadState(
+                    uploadKey,
+                    properties.getProperty("url"),
+                    Long.parseLong(properties.getProperty("total")),
+                    Long.parseLong(properties.getProperty("acknowledged")));
+        } catch (IOException | RuntimeException e) {
+            LynxLog.w(TAG, "Discarding unreadable upload state for " + uploadKey, e);
+            file.delete();
+            return null;
+        }
+    }
+    
+    @Override
+    public synchronized void save(ChunkedUploader.UploadState state) throws IOException {
+        if (!directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Could not create " + directory);
+        }
+        
+        Properties properties = new Properties();
+        properties.setProperty("url", state.getUploadUrl());
+        properties.setProperty("total", String.valueOf(state.getTotalBytes()));
+        properties.setProperty("acknowledged", String.valueOf(state.getAcknowledgedBytes()));
+        
+        File file = fileFor(state.getUploadKey());
+        File temp = new File(directory, file.getName() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            properties.store(out, null);
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Could not store upload state " + file);
+        }
+    }
+    
+    @Override
+    public synchronized void delete(String uploadKey) {
+        fileFor(uploadKey).delete();
+    }
+    
+    private File fileFor(String uploadKey) {
+        return new File(directory, uploadKey.replaceAll("[^A-Za-z0-9._-]", "_") + ".upload");
+    }
+}
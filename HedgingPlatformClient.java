@@ -0,0 +1,204 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator recording per-platform fetch latency and, when enabled, hedging slow fetches.
+ * 
+ * Only {@link #fetchPage} is hedged: timeline reads are idempotent GETs, whereas posting and
+ * interactions must never be sent twice. A hedge takes its own permit from the platform's
+ * bulkhead, and is skipped if none is free, so the bulkhead caps every request in flight.
+ */
+class HedgingPlatformClient implements LynxPlatformClient {
+    private static final String TAG = "HedgingPlatformClient";
+    
+    private final PlatformType platform;
+    private final LynxPlatformClient delegate;
+    private final ExecutorService executor;
+    private final Semaphore bulkhead;
+    private final LatencyTracker latencyTracker = new LatencyTracker();
+    private final AtomicLong fetchCount = new AtomicLong();
+    private final AtomicLong hedgeCount = new AtomicLong();
+    private volatile HedgingPolicy policy = HedgingPolicy.disabled();
+    
+    /**
+     * @param bulkhead Permits of the {@link ResilientPlatformClient} around this client; the
+     *                 caller's permit covers the first attempt and a hedge takes another one
+     */
+    HedgingPlatformClient(PlatformType platform, LynxPlatformClient delegate, ExecutorService executor, Semaphore bulkhead) {
+        this.platform = platform;
+        this.delegate = delegate;
+        this.executor = executor;
+        this.bulkhead = bulkhead;
+    }
+    
+    void setPolicy(HedgingPolicy policy) {
+        this.policy = policy;
+    }
+    
+    LatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+    
+    @Override
+    public FeedPage fetchPage(String cursor, int limit) throws Exception {
+        fetchCount.incrementAndGet();
+        HedgingPolicy currentPolicy = policy;
+        if (!currentPolicy.isEnabled() || latencyTracker.getSampleCount() < currentPolicy.getMinSamples()) {
+            return timedFetch(cursor, limit);
+        }
+        
+        long hedgeDelayMs = latencyTracker.getPercentileMs(currentPolicy.getLatencyPercentile());
+        long startNanos = System.nanoTime();
+        CompletionService<FeedPage> attempts = new ExecutorCompletionService<>(executor);
+        // Each attempt is its own operation so the loser's HTTP call can be cancelled
+        LynxOperation primaryAttempt = LynxOperation.child();
+        HedgePermit permit = new HedgePermit();
+        attempts.submit(primaryAttempt.bind(() -> permittedFetch(cursor, limit, startNanos, permit)));
+        LynxOperation hedgeAttempt = null;
+        
+        try {
+            Future<FeedPage> first = attempts.poll(hedgeDelayMs, TimeUnit.MILLISECONDS);
+            if (first == null && tryAcquireHedge(currentPolicy, permit)) {
+                LynxLog.d(TAG, "Hedging " + platform + " fetch after " + hedgeDelayMs + "ms");
+                hedgeAttempt = LynxOperation.child();
+                attempts.submit(hedgeAttempt.bind(() -> permittedFetch(cursor, limit, startNanos, permit)));
+            }
+            if (first == null) {
+                first = attempts.take();
+            }
+            
+            try {
+                return first.get();
+            } catch (ExecutionException e) {
+                // The first attempt failed; the other one, if any, may still succeed
+                if (hedgeAttempt == null) {
+                    throw unwrap(e);
+                }
+                try {
+                    return attempts.take().get();
+                } catch (ExecutionException second) {
+                    throw unwrap(second);
+                }
+            }
+        } finally {
+            primaryAttempt.cancel();
+            if (hedgeAttempt != null) {
+                hedgeAttempt.cancel();
+            }
+        }
+    }
+    
+    private boolean tryAcquireHedge(HedgingPolicy currentPolicy, HedgePermit permit) {
+        while (true) {
+            long hedges = hedgeCount.get();
+            if (hedges + 1 > currentPolicy.getMaxExtraTrafficRatio() * fetchCount.get()) {
+                return false;
+            }
+            if (hedgeCount.compareAndSet(hedges, hedges + 1)) {
+                break;
+            }
+        }
+        if (!permit.acquireForHedge()) {
+            // The bulkhead is full: no hedge, and it does not count against the extra traffic
+            hedgeCount.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+    
+    private FeedPage permittedFetch(String cursor, int limit, long startNanos, HedgePermit permit) throws Exception {
+        try {
+            return timedFetch(cursor, limit, startNanos);
+        } finally {
+            permit.onAttemptFinished();
+        }
+    }
+    
+    private FeedPage timedFetch(String cursor, int limit) throws Exception {
+        return timedFetch(cursor, limit, System.nanoTime());
+    }
+    
+    /**
+     * Fetches a page and records how long the caller had been waiting when the attempt ended.
+     * Failed and cancelled attempts are recorded too, so a platform whose requests time out or
+     * lose to their hedge still raises the hedge delay instead of only its fast fetches counting.
+     * 
+     * @param startNanos When the caller's fetch started, which for a hedge is before the attempt
+     */
+    private FeedPage timedFetch(String cursor, int limit, long startNanos) throws Exception {
+        try {
+            return delegate.fetchPage(cursor, limit);
+        } finally {
+            latencyTracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+    
+    /**
+     * Bulkhead permit taken for a hedge. The caller's permit is released as soon as the fetch
+     * returns, while the losing attempt may still be winding down, so the hedge's permit is held
+     * until the last attempt of the fetch has finished.
+     */
+    private final class HedgePermit {
+        private int runningAttempts = 1;
+        private boolean held;
+        
+        synchronized boolean acquireForHedge() {
+            if (!bulkhead.tryAcquire()) {
+                return false;
+            }
+            held = true;
+            runningAttempts++;
+            return true;
+        }
+        
+        synchronized void onAttemptFinished() {
+            runningAttempts--;
+            if (runningAttempts == 0 && held) {
+                held = false;
+                bulkhead.release();
+            }
+        }
+    }
+    
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof Exception ? (Exception) cause : e;
+    }
+    
+    @Override
+    public FeedPage fetchSince(String sinceId, long sinceTimestamp, String cursor, int limit) throws Exception {
+        return delegate.fetchSince(sinceId, sinceTimestamp, cursor, limit);
+    }
+    
+    @Override
+    public boolean createPost(String content, List<String> mediaFiles) throws Exception {
+        return delegate.createPost(content, mediaFiles);
+    }
+    
+    @Override
+    public boolean authenticate(Map<String, String> authData) throws Exception {
+        return delegate.authenticate(authData);
+    }
+    
+    @Override
+    public boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) throws Exception {
+        return delegate.performInteraction(postId, interactionType, interactionData);
+    }
+    
+    @Override
+    public Outbox.BatchResult performInteractions(List<OutboxOperation> batch) throws Exception {
+        return delegate.performInteractions(batch);
+    }
+}
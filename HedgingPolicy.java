@@ -0,0 +1,64 @@
+package com.nukie.app.lynx;
+
+/**
+ * Configuration of hedged timeline fetches.
+ * 
+ * When enabled, a feed fetch that has not answered within the platform's observed latency
+ * percentile is duplicated once; whichever attempt finishes first wins and the other is
+ * cancelled. Hedges are capped at {@code maxExtraTrafficRatio} of all fetches, so a platform
+ * that is slow across the board cannot double its traffic.
+ */
+public final class HedgingPolicy {
+    private static final HedgingPolicy DISABLED = new HedgingPolicy(false, 0.95, 0.1, 20);
+    
+    private final boolean enabled;
+    private final double latencyPercentile;
+    private final double maxExtraTrafficRatio;
+    private final int minSamples;
+    
+    /**
+     * @param enabled Whether fetches are hedged at all
+     * @param latencyPercentile Percentile of recent latencies after which a hedge is sent (0-1)
+     * @param maxExtraTrafficRatio Maximum hedges as a fraction of all fetches (e.g. 0.1 = +10%)
+     * @param minSamples Latency samples required before hedging starts for a platform
+     */
+    public HedgingPolicy(boolean enabled, double latencyPercentile, double maxExtraTrafficRatio, int minSamples) {
+        if (latencyPercentile <= 0 || latencyPercentile > 1 || maxExtraTrafficRatio < 0 || minSamples < 1) {
+            throw new IllegalArgumentException("Invalid hedging policy");
+        }
+        this.enabled = enabled;
+        this.latencyPercentile = latencyPercentile;
+        this.maxExtraTrafficRatio = maxExtraTrafficRatio;
+        this.minSamples = minSamples;
+    }
+    
+    /**
+     * Hedging is opt-in; this is the default.
+     */
+    public static HedgingPolicy disabled() {
+        return DISABLED;
+    }
+    
+    /**
+     * Hedge at p95 with at most 10% extra traffic.
+     */
+    public static HedgingPolicy defaults() {
+        return new HedgingPolicy(true, 0.95, 0.1, 20);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public double getLatencyPercentile() {
+        return latencyPercentile;
+    }
+    
+    public double getMaxExtraTrafficRatio() {
+        return maxExtraTrafficRatio;
+    }
+    
+    public int getMinSamples() {
+        return minSamples;
+    }
+}
@@ -0,0 +1,72 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-platform counters of how platform API responses were served by the HTTP cache.
+ */
+public final class HttpCacheStats {
+    
+    /**
+     * How a single response was served.
+     */
+    public enum Outcome {
+        /** Served from the disk cache without touching the network. */
+        HIT,
+        
+        /** Fetched from the network because nothing usable was cached. */
+        MISS,
+        
+        /** Confirmed unchanged by the server with a 304 Not Modified. */
+        REVALIDATED
+    }
+    
+    private final Map<PlatformType, AtomicLong[]> counters = new EnumMap<>(PlatformType.class);
+    
+    HttpCacheStats() {
+        for (PlatformType platform : PlatformType.values()) {
+            AtomicLong[] platformCounters = new AtomicLong[Outcome.values().length];
+            for (int i = 0; i < platformCounters.length; i++) {
+                platformCounters[i] = new AtomicLong();
+            }
+            counters.put(platform, platformCounters);
+        }
+    }
+    
+    void record(PlatformType platform, Outcome outcome) {
+        counters.get(platform)[outcome.ordinal()].incrementAndGet();
+    }
+    
+    public long getCount(PlatformType platform, Outcome outcome) {
+        return counters.get(platform)[outcome.ordinal()].get();
+    }
+    
+    public long getHitCount(PlatformType platform) {
+        return getCount(platform, Outcome.HIT);
+    }
+    
+    public long getMissCount(PlatformType platform) {
+        return getCount(platform, Outcome.MISS);
+    }
+    
+    public long getRevalidatedCount(PlatformType platform) {
+        return getCount(platform, Outcome.REVALIDATED);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("HttpCacheStats{");
+        for (PlatformType platform : PlatformType.values()) {
+            builder.append(platform)
+                    .append("=[hit=").append(getHitCount(platform))
+                    .append(", miss=").append(getMissCount(platform))
+                    .append(", revalidated=").append(getRevalidatedCount(platform))
+                    .append("] ");
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,68 @@
+package com.nukie.app.lynx;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Outbox.Journal} kept in memory, for JVM hosts and tests. Operations still pending
+ * when the process dies are lost; the app journals to its database with RoomOutboxJournal.
+ */
+public final class InMemoryOutboxJournal implements Outbox.Journal {
+    private final Map<String, OutboxOperation> pending = new LinkedHashMap<>();
+    private final Map<String, OutboxOperation> failed = new LinkedHashMap<>();
+    
+    @Override
+    public synchronized void append(OutboxOperation operation) {
+        failed.remove(operation.getId());
+        pending.put(operation.getId(), operation);
+    }
+    
+    @Override
+    public synchronized List<OutboxOperation> loadPending(int limit) {
+        List<OutboxOperation> result = new ArrayList<>();
+        for (OutboxOperation operation : pending.values()) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(operation);
+        }
+        return result;
+    }
+    
+    @Override
+    public synchronized void remove(Collection<String> ids) {
+        pending.keySet().removeAll(ids);
+        failed.keySet().removeAll(ids);
+    }
+    
+    @Override
+    public synchronized void markFailed(Collection<String> ids) {
+        // Kept, like a failed row in the database, but no longer replayed
+        for (String id : ids) {
+            OutboxOperation operation = pending.remove(id);
+            if (operation != null) {
+                failed.put(id, operation);
+            }
+        }
+    }
+    
+    @Override
+    public synchronized void recordAttempt(Collection<String> ids) {
+        for (String id : ids) {
+            OutboxOperation operation = pending.get(id);
+            if (operation != null) {
+                pending.put(id, operation.withAttemptCount(operation.getAttemptCount() + 1));
+            }
+        }
+    }
+    
+    /**
+     * @return The operations that gave up, oldest first
+     */
+    public synchronized List<OutboxOperation> getFailed() {
+        return new ArrayList<>(failed.values());
+    }
+}
@@ -0,0 +1,179 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Enforces the per-lane and per-host concurrency budgets of a {@link NetworkPolicy}.
+ *
+ * Platform calls are made with {@code execute()} on the caller's thread, which OkHttp's
+ * dispatcher limits do not apply to, so the budgets are enforced here instead: a call waits
+ * until its lane and its host both have a free slot, and holds the slot until its response
+ * body is closed. A burst of thumbnail downloads can therefore never take the slots that the
+ * next feed page needs.
+ */
+final class LaneBudgetInterceptor implements Interceptor {
+    /** How often a waiting call checks whether it was cancelled. */
+    private static final long CANCEL_CHECK_MS = 100;
+    
+    private final Map<RequestLane, Budget> budgets = new EnumMap<>(RequestLane.class);
+    
+    LaneBudgetInterceptor(NetworkPolicy policy) {
+        budgets.put(RequestLane.FEED, new Budget(policy.getMaxFeedRequests(), policy.getMaxFeedRequestsPerHost()));
+        budgets.put(RequestLane.MEDIA, new Budget(policy.getMaxMediaRequests(), policy.getMaxMediaRequestsPerHost()));
+    }
+    
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Budget budget = budgets.get(RequestLane.of(request));
+        String host = request.url().host();
+        budget.acquire(host, chain.call());
+        
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            budget.release(host);
+            throw e;
+        }
+        ResponseBody body = response.body();
+        if (body == null) {
+            budget.release(host);
+            return response;
+        }
+        return response.newBuilder().body(new ReleasingBody(body, () -> budget.release(host))).build();
+    }
+    
+    /**
+     * Adds the calls waiting for and holding a slot in the lane to {@code activity}.
+     */
+    void record(NetworkActivity activity, RequestLane lane) {
+        budgets.get(lane).record(activity, lane);
+    }
+    
+    private static final class Budget {
+        private final int maxRequests;
+        private final int maxRequestsPerHost;
+        private int running;
+        /** Waiting and running calls per host; hosts without calls are removed. */
+        private final Map<String, int[]> hosts = new HashMap<>();
+        
+        Budget(int maxRequests, int maxRequestsPerHost) {
+            this.maxRequests = maxRequests;
+            this.maxRequestsPerHost = maxRequestsPerHost;
+        }
+        
+        synchronized void acquire(String host, Call call) throws IOException {
+            int[] counts = hosts.get(host);
+            if (counts == null) {
+                counts = new int[2];
+                hosts.put(host, counts);
+            }
+            counts[0]++;
+            try {
+                while (running >= maxRequests || counts[1] >= maxRequestsPerHost) {
+                    if (call.isCanceled()) {
+                        throw new IOException("Canceled");
+                    }
+                    try {
+                        wait(CANCEL_CHECK_MS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while waiting for a request slot");
+                    }
+                }
+            } catch (IOException e) {
+                counts[0]--;
+                removeIfIdle(host, counts);
+                throw e;
+            }
+            counts[0]--;
+            counts[1]++;
+            running++;
+        }
+        
+        synchronized void release(String host) {
+            int[] counts = hosts.get(host);
+            counts[1]--;
+            running--;
+            removeIfIdle(host, counts);
+            notifyAll();
+        }
+        
+        private void removeIfIdle(String host, int[] counts) {
+            if (counts[0] == 0 && counts[1] == 0) {
+                hosts.remove(host);
+            }
+        }
+        
+        synchronized void record(NetworkActivity activity, RequestLane lane) {
+            for (Map.Entry<String, int[]> entry : hosts.entrySet()) {
+                PlatformType platform = PlatformHosts.forHost(entry.getKey());
+                for (int i = 0; i < entry.getValue()[0]; i++) {
+                    activity.record(platform, lane, false);
+                }
+                for (int i = 0; i < entry.getValue()[1]; i++) {
+                    activity.record(platform, lane, true);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Response body that gives the call's slot back once, when it is closed.
+     */
+    private static final class ReleasingBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+        
+        ReleasingBody(ResponseBody delegate, Runnable release) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                private boolean released;
+                
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (!released) {
+                            released = true;
+                            release.run();
+                        }
+                    }
+                }
+            });
+        }
+        
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+        
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+        
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
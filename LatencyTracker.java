@@ -0,0 +1,49 @@
+package com.nukie.app.lynx;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of the most recent call latencies of one platform, used to derive
+ * percentiles such as the hedging delay.
+ */
+final class LatencyTracker {
+    private static final int DEFAULT_WINDOW_SIZE = 128;
+    
+    private final long[] samplesMs;
+    private int count;
+    private int next;
+    
+    LatencyTracker() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+    
+    LatencyTracker(int windowSize) {
+        this.samplesMs = new long[windowSize];
+    }
+    
+    synchronized void record(long latencyMs) {
+        samplesMs[next] = latencyMs;
+        next = (next + 1) % samplesMs.length;
+        count = Math.min(count + 1, samplesMs.length);
+    }
+    
+    synchronized int getSampleCount() {
+        return count;
+    }
+    
+    /**
+     * Latency at the given percentile of the window (e.g. 0.95 for p95), or -1 without samples.
+     */
+    long getPercentileMs(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count == 0) {
+                return -1;
+            }
+            sorted = Arrays.copyOf(samplesMs, count);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -1,30 +1,37 @@
 package com.nukie.app.lynx;
 
-import android.content.Context;
-import android.util.Log;
-
 import com.nukie.app.data.model.PlatformType;
 import com.nukie.app.data.model.UnifiedAuthor;
 import com.nukie.app.data.model.UnifiedMedia;
 import com.nukie.app.data.model.UnifiedPost;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -36,68 +43,432 @@ import retrofit2.converter.gson.GsonConverterFactory;
  */
 public class LynxAggregator {
     private static final String TAG = "LynxAggregator";
+    private static final String HTTP_CACHE_DIRECTORY = "lynx_http_cache";
+    private static final String MEDIA_RENDITION_DIRECTORY = "lynx_media_renditions";
+    private static final String UPLOAD_STATE_DIRECTORY = "lynx_uploads";
     
-    private final Context context;
-    private final Map<PlatformType, LynxPlatformClient> platformClients;
+    private final LynxEnvironment environment;
     private final OkHttpClient httpClient;
+    private final LynxNetwork network;
+    private final LynxHttpCache httpCache;
+    private final AuthTokenStore tokenStore;
+    private final PlatformApi platformApi;
+    private final PlatformRateLimiter rateLimiter;
+    private final ExecutorService fanOutExecutor;
+    private final ExecutorService hedgeExecutor;
+    private final ExecutorService publishExecutor;
+    private final MediaPreparer mediaPreparer;
     
-    public LynxAggregator(Context context) {
-        this.context = context;
-        this.platformClients = new HashMap<>();
-        
-        // Set up HTTP client with logging and authentication interceptors
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+    /** Clients created so far; a platform's client is created when it is first used. */
+    private final Map<PlatformType, LynxPlatformClient> platformClients = new EnumMap<>(PlatformType.class);
+    private final Map<PlatformType, HedgingPlatformClient> hedgingClients = new EnumMap<>(PlatformType.class);
+    private HedgingPolicy hedgingPolicy = HedgingPolicy.disabled();
+    
+    public LynxAggregator(LynxEnvironment environment) {
+        this(environment, LynxHttpCache.DEFAULT_MAX_SIZE_BYTES, NetworkPolicy.defaults());
+    }
+    
+    /**
+     * @param environment Storage directories, build type and thread pools of the core
+     * @param httpCacheSizeBytes Maximum size of the on-disk HTTP response cache
+     * @param networkPolicy Concurrency budgets and connection settings for the HTTP stack
+     */
+    public LynxAggregator(LynxEnvironment environment, long httpCacheSizeBytes, NetworkPolicy networkPolicy) {
+        this.environment = environment;
+        this.hedgeExecutor = environment.getExecutorFactory().newElasticPool("lynx-hedge-");
+        // In a real implementation, the refresher would call each platform's OAuth token endpoint
+        this.tokenStore = new AuthTokenStore(new InMemoryTokenStorage(), (platform, token) -> null);
+        this.rateLimiter = new PlatformRateLimiter();
+        this.httpCache = new LynxHttpCache(new File(environment.getCacheDir(), HTTP_CACHE_DIRECTORY), httpCacheSizeBytes);
+        // In a real implementation, the transcoder would re-encode media to each platform's limits
+        this.mediaPreparer = new MediaPreparer(
+                new File(environment.getCacheDir(), MEDIA_RENDITION_DIRECTORY), MediaPreparer.PASS_THROUGH);
         
-        httpClient = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor)
+        // Set up HTTP client with logging and authentication interceptors; debuggable builds
+        // log sampled, size-capped bodies and release builds log nothing. The logger runs on
+        // the network side so it sees the (redacted) credentials and the real wire exchange.
+        // Calls are registered with the operation they are made for, so cancelling an
+        // operation cancels its calls
+        OkHttpClient.Builder httpClientBuilder = new OkHttpClient.Builder()
+                .addInterceptor(LynxOperation.callInterceptor())
+                .addInterceptor(rateLimiter.retryInterceptor())
                 .addInterceptor(new AuthenticationInterceptor())
+                // Behind the cache, so cache hits neither spend rate limit tokens nor wait
+                .addNetworkInterceptor(rateLimiter.networkInterceptor())
+                .addNetworkInterceptor(LynxNetworkLogger.forBuild(environment.isDebuggable()))
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
+                .writeTimeout(30, TimeUnit.SECONDS);
+        
+        // Revalidate platform responses against the disk cache instead of re-downloading them
+        httpCache.install(httpClientBuilder);
         
-        // Initialize platform clients
-        initializePlatformClients();
+        // Feed calls and media transfers get separate concurrency budgets over one connection pool
+        network = new LynxNetwork(networkPolicy, httpClientBuilder);
+        httpClient = network.getFeedClient();
+        // Video uploads go in resumable chunks over the media lane; session progress lives in app
+        // storage so an upload survives process death
+        platformApi = new PlatformApi(httpClient, httpCache, tokenStore, new ChunkedUploader(
+                network.getMediaClient(),
+                new FileUploadStateStore(new File(environment.getFilesDir(), UPLOAD_STATE_DIRECTORY))));
+        
+        // One thread per platform so a slow platform never queues behind another one; pool
+        // threads are only started when work is submitted
+        fanOutExecutor = environment.getExecutorFactory().newPool("lynx-fanout-", PlatformType.values().length);
+        publishExecutor = environment.getExecutorFactory().newPool("lynx-publish-", PlatformType.values().length);
+    }
+    
+    /**
+     * Returns the platform's client, creating it on first use so that startup does not pay
+     * for platforms the user never opens.
+     * 
+     * @return The client, or null if the platform is not supported
+     */
+    private LynxPlatformClient client(PlatformType platform) {
+        synchronized (platformClients) {
+            LynxPlatformClient client = platformClients.get(platform);
+            if (client == null) {
+                client = createPlatformClient(platform);
+                if (client != null) {
+                    platformClients.put(platform, client);
+                }
+            }
+            return client;
+        }
+    }
+    
+    /**
+     * Each client sits behind its own circuit breaker and bulkhead, so one degraded platform
+     * fails fast instead of tying up threads; below those, fetch latency is recorded for
+     * opt-in hedging.
+     */
+    private LynxPlatformClient createPlatformClient(PlatformType platform) {
+        LynxPlatformClient client;
+        switch (platform) {
+            case INSTAGRAM:
+                client = new InstagramClient(platformApi);
+                break;
+            case TIKTOK:
+                client = new TikTokClient(platformApi);
+                break;
+            case YOUTUBE:
+                client = new YouTubeClient(platformApi);
+                break;
+            case BLUESKY:
+                client = new BlueskyClient(platformApi);
+                break;
+            case MASTODON:
+                client = new MastodonClient(platformApi);
+                break;
+            default:
+                // Callers report the platform as failed instead of failing the whole request
+                return null;
+        }
+        // Hedges take permits from the same bulkhead, so it caps every request in flight
+        Semaphore bulkhead = new Semaphore(ResilientPlatformClient.DEFAULT_MAX_CONCURRENT_CALLS);
+        HedgingPlatformClient hedgingClient = new HedgingPlatformClient(platform, client, hedgeExecutor, bulkhead);
+        hedgingClient.setPolicy(hedgingPolicy);
+        hedgingClients.put(platform, hedgingClient);
+        return new ResilientPlatformClient(platform, hedgingClient, new CircuitBreaker(), bulkhead);
+    }
+    
+    /**
+     * Enables or disables hedged timeline fetches for all platforms.
+     * 
+     * Hedging is off by default. When on, a fetch still pending after the platform's observed
+     * latency percentile is sent a second time and the first answer wins.
+     */
+    public void setHedgingPolicy(HedgingPolicy policy) {
+        synchronized (platformClients) {
+            hedgingPolicy = policy;
+            for (HedgingPlatformClient client : hedgingClients.values()) {
+                client.setPolicy(policy);
+            }
+        }
     }
     
-    private void initializePlatformClients() {
-        // Initialize clients for each supported platform
-        platformClients.put(PlatformType.INSTAGRAM, new InstagramClient(httpClient));
-        platformClients.put(PlatformType.TIKTOK, new TikTokClient(httpClient));
-        platformClients.put(PlatformType.YOUTUBE, new YouTubeClient(httpClient));
-        platformClients.put(PlatformType.BLUESKY, new BlueskyClient(httpClient));
-        platformClients.put(PlatformType.MASTODON, new MastodonClient(httpClient));
+    /**
+     * Recent timeline fetch latency of a platform at the given percentile (e.g. 0.95).
+     * 
+     * @return Latency in milliseconds, or -1 if the platform has not been fetched yet
+     */
+    public long getFetchLatencyMs(PlatformType platform, double percentile) {
+        HedgingPlatformClient client;
+        synchronized (platformClients) {
+            client = hedgingClients.get(platform);
+        }
+        return client != null ? client.getLatencyTracker().getPercentileMs(percentile) : -1;
     }
     
     /**
      * Fetches content from all connected social media platforms and aggregates it
-     * into a unified feed.
+     * into a unified feed, using the default {@link FanOutPolicy}.
      * 
      * @param limit Maximum number of posts to fetch from each platform
-     * @return List of unified posts from all platforms
+     * @return List of unified posts from all platforms that answered in time
      */
     public List<UnifiedPost> fetchAggregatedFeed(int limit) {
-        List<UnifiedPost> aggregatedPosts = new ArrayList<>();
+        return fetchAggregatedFeed(limit, FanOutPolicy.defaults()).getPosts();
+    }
+    
+    /**
+     * Fetches content from all connected social media platforms concurrently and aggregates
+     * it into a unified feed, keeping every post that was fetched.
+     * 
+     * @param limit Maximum number of posts to fetch from each platform
+     * @param policy Overall and per-platform deadlines
+     * @return Posts from all platforms that answered in time, with per-platform status
+     */
+    public AggregatedFeedResult fetchAggregatedFeed(int limit, FanOutPolicy policy) {
+        return fetchAggregatedFeed(limit, Integer.MAX_VALUE, policy);
+    }
+    
+    /**
+     * Fetches content from all connected social media platforms concurrently and aggregates
+     * it into a unified feed.
+     * 
+     * Every platform is queried at the same time. The call returns as soon as all platforms
+     * have answered or their deadlines have passed, whichever comes first; platforms that
+     * missed their deadline are cancelled and reported as timed out in the result.
+     * 
+     * The per-platform timelines are k-way merged rather than concatenated and sorted, and
+     * the merge stops after {@code maxPosts} posts.
+     * 
+     * @param limit Maximum number of posts to fetch from each platform
+     * @param maxPosts Maximum number of posts in the aggregated feed
+     * @param policy Overall and per-platform deadlines
+     * @return Posts from all platforms that answered in time, with per-platform status
+     */
+    public AggregatedFeedResult fetchAggregatedFeed(int limit, int maxPosts, FanOutPolicy policy) {
+        return fetchAggregatedFeed(limit, maxPosts, policy, null);
+    }
+    
+    /**
+     * Fetches content from all connected social media platforms concurrently, reporting
+     * the merged feed to the listener each time another platform answers.
+     * 
+     * @param limit Maximum number of posts to fetch from each platform
+     * @param maxPosts Maximum number of posts in the aggregated feed
+     * @param policy Overall and per-platform deadlines
+     * @param listener Receives the merged feed after every platform batch, may be null
+     * @return Posts from all platforms that answered in time, with per-platform status
+     */
+    public AggregatedFeedResult fetchAggregatedFeed(
+            int limit,
+            int maxPosts,
+            FanOutPolicy policy,
+            FeedProgressListener listener) {
         
-        // Fetch from each platform in parallel using Lynx's multithreaded capabilities
-        for (Map.Entry<PlatformType, LynxPlatformClient> entry : platformClients.entrySet()) {
-            PlatformType platform = entry.getKey();
-            LynxPlatformClient client = entry.getValue();
+        return fetchAggregatedPage(FeedCursor.start(), limit, maxPosts, policy, listener);
+    }
+    
+    /**
+     * Fetches the next page of the aggregated feed. Only platforms that still have posts are
+     * asked, each from its own position in its timeline, so loading more costs one incremental
+     * request per platform.
+     * 
+     * @param cursor {@link FeedCursor#start()} for the first page, or the cursor of the previous result
+     * @param limit Maximum number of posts to fetch from each platform
+     * @param policy Overall and per-platform deadlines
+     * @return The merged page, with the cursor for the page after it
+     */
+    public AggregatedFeedResult fetchAggregatedPage(FeedCursor cursor, int limit, FanOutPolicy policy) {
+        return fetchAggregatedPage(cursor, limit, Integer.MAX_VALUE, policy, null);
+    }
+    
+    private AggregatedFeedResult fetchAggregatedPage(
+            FeedCursor cursor,
+            int limit,
+            int maxPosts,
+            FanOutPolicy policy,
+            FeedProgressListener listener) {
+        
+        long startNanos = System.nanoTime();
+        CompletionService<FeedPage> completionService = new ExecutorCompletionService<>(fanOutExecutor);
+        Map<Future<FeedPage>, PlatformType> pending = new HashMap<>();
+        Map<PlatformType, Long> deadlines = new EnumMap<>(PlatformType.class);
+        Map<PlatformType, PlatformFetchStatus> statuses = new EnumMap<>(PlatformType.class);
+        Map<PlatformType, List<UnifiedPost>> timelines = new EnumMap<>(PlatformType.class);
+        
+        // Platforms that fail or time out keep their cursor and carried posts so the next page
+        // retries them
+        Map<PlatformType, String> nextCursors = new EnumMap<>(PlatformType.class);
+        Map<PlatformType, List<UnifiedPost>> carriedPosts = new EnumMap<>(PlatformType.class);
+        
+        for (PlatformType platform : PlatformType.values()) {
+            if (!cursor.includes(platform)) {
+                continue;
+            }
+            List<UnifiedPost> carried = cursor.getCarriedPosts(platform);
+            carriedPosts.put(platform, carried);
+            if (!cursor.hasPlatformPages(platform)) {
+                // Only posts that did not fit in the previous page are left
+                timelines.put(platform, carried);
+                statuses.put(platform, PlatformFetchStatus.SUCCESS);
+                continue;
+            }
+            LynxPlatformClient client = client(platform);
+            if (client == null) {
+                // Never retried: the platform is dropped from the next cursor
+                LynxLog.e(TAG, "No client available for platform: " + platform);
+                statuses.put(platform, PlatformFetchStatus.FAILED);
+                continue;
+            }
             
-            try {
-                List<UnifiedPost> platformPosts = client.fetchPosts(limit);
-                aggregatedPosts.addAll(platformPosts);
-                Log.d(TAG, "Fetched " + platformPosts.size() + " posts from " + platform);
-            } catch (Exception e) {
-                Log.e(TAG, "Error fetching posts from " + platform, e);
+            String platformCursor = cursor.getPlatformCursor(platform);
+            nextCursors.put(platform, platformCursor);
+            pending.put(completionService.submit(
+                    LynxOperation.propagate(() -> client.fetchPage(platformCursor, limit))), platform);
+            deadlines.put(platform, startNanos + TimeUnit.MILLISECONDS.toNanos(policy.getPlatformTimeoutMs(platform)));
+        }
+        
+        try {
+            while (!pending.isEmpty()) {
+                long nextDeadline = expireOverdue(pending, deadlines, statuses, System.nanoTime());
+                if (pending.isEmpty()) {
+                    break;
+                }
+                
+                Future<FeedPage> done = completionService.poll(nextDeadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    continue;
+                }
+                
+                // Cancelled futures are queued as well; they were already reported as timed out
+                PlatformType platform = pending.remove(done);
+                if (platform == null) {
+                    continue;
+                }
+                // Do not merge for a caller who is gone
+                LynxOperation.throwIfCancelled();
+                
+                try {
+                    FeedPage page = done.get();
+                    List<UnifiedPost> platformPosts = page.getPosts();
+                    List<UnifiedPost> carried = carriedPosts.get(platform);
+                    if (!carried.isEmpty()) {
+                        // Carried posts are newer than anything below the platform cursor
+                        List<UnifiedPost> timeline = new ArrayList<>(carried);
+                        timeline.addAll(platformPosts);
+                        timelines.put(platform, timeline);
+                    } else {
+                        timelines.put(platform, platformPosts);
+                    }
+                    if (page.hasMore()) {
+                        nextCursors.put(platform, page.getNextCursor());
+                    } else {
+                        nextCursors.remove(platform);
+                    }
+                    statuses.put(platform, page.isStale() ? PlatformFetchStatus.STALE : PlatformFetchStatus.SUCCESS);
+                    LynxLog.d(TAG, "Fetched " + platformPosts.size() + " posts from " + platform);
+                    
+                    if (listener != null) {
+                        listener.onPlatformBatch(platform, TimelineMerger.merge(timelines.values(), maxPosts));
+                    }
+                } catch (ExecutionException e) {
+                    statuses.put(platform, PlatformFetchStatus.FAILED);
+                    LynxLog.e(TAG, "Error fetching posts from " + platform, e.getCause());
+                } catch (CancellationException e) {
+                    statuses.put(platform, PlatformFetchStatus.TIMED_OUT);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Map.Entry<Future<FeedPage>, PlatformType> entry : pending.entrySet()) {
+                entry.getKey().cancel(true);
+                statuses.put(entry.getValue(), PlatformFetchStatus.TIMED_OUT);
+            }
+        }
+        
+        // Each platform returns its posts newest first, so a k-way merge gives the global order
+        LynxOperation.throwIfCancelled();
+        List<UnifiedPost> aggregatedPosts = TimelineMerger.merge(timelines.values(), maxPosts);
+        
+        // Platform cursors already point past everything fetched, so posts the merge cut off
+        // are carried to the next page
+        Set<UnifiedPost> returned = Collections.newSetFromMap(new IdentityHashMap<UnifiedPost, Boolean>());
+        returned.addAll(aggregatedPosts);
+        for (Map.Entry<PlatformType, List<UnifiedPost>> timeline : timelines.entrySet()) {
+            List<UnifiedPost> surplus = new ArrayList<>();
+            for (UnifiedPost post : timeline.getValue()) {
+                if (!returned.contains(post)) {
+                    surplus.add(post);
+                }
             }
+            carriedPosts.put(timeline.getKey(), surplus);
         }
         
-        // Sort aggregated posts by timestamp (newest first)
-        aggregatedPosts.sort((p1, p2) -> Long.compare(p2.getPublishedAt(), p1.getPublishedAt()));
+        return new AggregatedFeedResult(aggregatedPosts, statuses, new FeedCursor(nextCursors, carriedPosts));
+    }
+    
+    /**
+     * Cancels every pending platform fetch whose deadline has passed and marks it as timed out.
+     * 
+     * @return The earliest deadline among the fetches that are still pending
+     */
+    private long expireOverdue(
+            Map<Future<FeedPage>, PlatformType> pending,
+            Map<PlatformType, Long> deadlines,
+            Map<PlatformType, PlatformFetchStatus> statuses,
+            long nowNanos) {
         
-        return aggregatedPosts;
+        long nextDeadline = Long.MAX_VALUE;
+        Iterator<Map.Entry<Future<FeedPage>, PlatformType>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Future<FeedPage>, PlatformType> entry = iterator.next();
+            long deadline = deadlines.get(entry.getValue());
+            if (deadline - nowNanos <= 0) {
+                entry.getKey().cancel(true);
+                statuses.put(entry.getValue(), PlatformFetchStatus.TIMED_OUT);
+                LynxLog.w(TAG, "Timed out fetching posts from " + entry.getValue());
+                iterator.remove();
+            } else {
+                nextDeadline = Math.min(nextDeadline, deadline);
+            }
+        }
+        return nextDeadline;
+    }
+    
+    /**
+     * HTTP client for media downloads and uploads (e.g. for the image loader). It shares the
+     * connection pool with the platform clients but queues in its own, smaller lane.
+     */
+    public OkHttpClient getMediaHttpClient() {
+        return network.getMediaClient();
+    }
+    
+    /**
+     * Live view of the calls queued and running per platform and lane.
+     */
+    public NetworkActivity getNetworkActivity() {
+        return network.snapshotActivity();
+    }
+    
+    /**
+     * State of the platform's circuit breaker; OPEN means calls currently fail fast.
+     */
+    public CircuitBreaker.State getCircuitState(PlatformType platform) {
+        LynxPlatformClient client;
+        synchronized (platformClients) {
+            client = platformClients.get(platform);
+        }
+        return client instanceof ResilientPlatformClient
+                ? ((ResilientPlatformClient) client).getCircuitState()
+                : CircuitBreaker.State.CLOSED;
+    }
+    
+    /**
+     * Per-platform request budgets, learned from the platforms' rate limit responses.
+     */
+    public PlatformRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+    
+    /**
+     * Hit, miss and revalidation counters of the HTTP cache, per platform.
+     */
+    public HttpCacheStats getHttpCacheStats() {
+        return httpCache.getStats();
     }
     
     /**
@@ -108,20 +479,64 @@ public class LynxAggregator {
      * @return List of unified posts from the specified platform
      */
     public List<UnifiedPost> fetchPlatformFeed(PlatformType platform, int limit) {
-        LynxPlatformClient client = platformClients.get(platform);
+        LynxPlatformClient client = client(platform);
         if (client == null) {
-            Log.e(TAG, "No client available for platform: " + platform);
+            LynxLog.e(TAG, "No client available for platform: " + platform);
             return new ArrayList<>();
         }
         
         try {
             return client.fetchPosts(limit);
         } catch (Exception e) {
-            Log.e(TAG, "Error fetching posts from " + platform, e);
+            LynxLog.e(TAG, "Error fetching posts from " + platform, e);
             return new ArrayList<>();
         }
     }
     
+    /**
+     * Fetches one page of a specific social media platform's timeline.
+     * 
+     * @param platform The platform to fetch from
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of posts to fetch
+     * @return The page, or an empty last page if the platform could not be fetched
+     */
+    public FeedPage fetchPlatformPage(PlatformType platform, String cursor, int limit) {
+        LynxPlatformClient client = client(platform);
+        if (client == null) {
+            LynxLog.e(TAG, "No client available for platform: " + platform);
+            return FeedPage.empty();
+        }
+        
+        try {
+            return client.fetchPage(cursor, limit);
+        } catch (Exception e) {
+            LynxLog.e(TAG, "Error fetching posts from " + platform, e);
+            return FeedPage.empty();
+        }
+    }
+    
+    /**
+     * Fetches the posts of a platform newer than a sync watermark, for the
+     * {@link DeltaSyncEngine}.
+     * 
+     * @param platform The platform to fetch from
+     * @param sinceId Platform id of the newest post already synced, or null to get the newest posts
+     * @param sinceTimestamp Publication time of that post, or 0
+     * @param cursor Cursor of the previous result to continue below it, or null to start at the top
+     * @param limit Number of posts after which to stop at the end of a page
+     * @return The new posts, newest first
+     * @throws Exception If the platform could not be fetched; nothing may be assumed synced
+     */
+    public FeedPage fetchPlatformDelta(PlatformType platform, String sinceId, long sinceTimestamp, String cursor,
+                                       int limit) throws Exception {
+        LynxPlatformClient client = client(platform);
+        if (client == null) {
+            throw new IllegalStateException("No client available for platform: " + platform);
+        }
+        return client.fetchSince(sinceId, sinceTimestamp, cursor, limit);
+    }
+    
     /**
      * Posts content to multiple social media platforms simultaneously.
      * 
@@ -134,28 +549,123 @@ public class LynxAggregator {
             String content, 
             List<String> mediaFiles, 
             List<PlatformType> platforms) {
+        return postToMultiplePlatforms(content, mediaFiles, platforms, null);
+    }
+    
+    /**
+     * Posts content to multiple social media platforms simultaneously.
+     * 
+     * Attachments are read and hashed once, however many platforms they go to. Each platform
+     * then gets its renditions (cached by content hash) and uploads on its own thread, so the
+     * whole publish takes about as long as the slowest platform.
+     * 
+     * @param content Text content to post
+     * @param mediaFiles List of media file paths to attach
+     * @param platforms List of platforms to post to
+     * @param progressListener Receives each platform's progress, or null
+     * @return Map of platforms to success/failure results
+     */
+    public Map<PlatformType, Boolean> postToMultiplePlatforms(
+            String content,
+            List<String> mediaFiles,
+            List<PlatformType> platforms,
+            PublishProgressListener progressListener) {
         
         Map<PlatformType, Boolean> results = new HashMap<>();
         
+        // Stage 1: read and hash every attachment once
+        List<MediaPreparer.PreparedMedia> media = new ArrayList<>();
+        try {
+            if (mediaFiles != null) {
+                for (String path : mediaFiles) {
+                    media.add(mediaPreparer.prepare(path));
+                }
+            }
+        } catch (IOException e) {
+            LynxLog.e(TAG, "Error preparing media for posting", e);
+            for (PlatformType platform : platforms) {
+                results.put(platform, false);
+                notifyPublishProgress(progressListener, platform, PublishState.FAILED);
+            }
+            return results;
+        }
+        
+        // Stage 2: renditions and uploads run concurrently for all platforms
+        Map<PlatformType, Future<Boolean>> uploads = new EnumMap<>(PlatformType.class);
         for (PlatformType platform : platforms) {
-            LynxPlatformClient client = platformClients.get(platform);
+            LynxPlatformClient client = client(platform);
             if (client == null) {
                 results.put(platform, false);
+                notifyPublishProgress(progressListener, platform, PublishState.FAILED);
                 continue;
             }
-            
+            uploads.put(platform, publishExecutor.submit(LynxOperation.propagate(
+                    () -> publish(platform, client, content, media, progressListener))));
+        }
+        
+        for (Map.Entry<PlatformType, Future<Boolean>> upload : uploads.entrySet()) {
             try {
-                boolean success = client.createPost(content, mediaFiles);
-                results.put(platform, success);
-            } catch (Exception e) {
-                Log.e(TAG, "Error posting to " + platform, e);
-                results.put(platform, false);
+                results.put(upload.getKey(), upload.getValue().get());
+            } catch (ExecutionException | CancellationException e) {
+                results.put(upload.getKey(), false);
+            } catch (InterruptedException e) {
+                // Cancelled: stop the uploads that have not finished
+                Thread.currentThread().interrupt();
+                upload.getValue().cancel(true);
+                results.put(upload.getKey(), false);
             }
         }
         
         return results;
     }
     
+    private boolean publish(
+            PlatformType platform,
+            LynxPlatformClient client,
+            String content,
+            List<MediaPreparer.PreparedMedia> media,
+            PublishProgressListener progressListener) {
+        
+        List<String> renditions;
+        try {
+            notifyPublishProgress(progressListener, platform, PublishState.PREPARING_MEDIA);
+            renditions = renditionPaths(media, platform);
+        } catch (IOException e) {
+            LynxLog.e(TAG, "Error preparing media for " + platform, e);
+            notifyPublishProgress(progressListener, platform, PublishState.FAILED);
+            return false;
+        }
+        
+        try {
+            notifyPublishProgress(progressListener, platform, PublishState.UPLOADING);
+            boolean success = client.createPost(content, renditions);
+            notifyPublishProgress(progressListener, platform, success ? PublishState.PUBLISHED : PublishState.FAILED);
+            return success;
+        } catch (IOException | PlatformUnavailableException e) {
+            LynxLog.w(TAG, "Could not reach " + platform + " to post: " + e.getMessage());
+            notifyPublishProgress(progressListener, platform, PublishState.UNREACHABLE);
+            return false;
+        } catch (Exception e) {
+            LynxLog.e(TAG, "Error posting to " + platform, e);
+            notifyPublishProgress(progressListener, platform, PublishState.FAILED);
+            return false;
+        }
+    }
+    
+    private List<String> renditionPaths(List<MediaPreparer.PreparedMedia> media, PlatformType platform) throws IOException {
+        List<String> renditions = new ArrayList<>();
+        for (MediaPreparer.PreparedMedia attachment : media) {
+            renditions.add(mediaPreparer.renditionFor(attachment, platform).getPath());
+        }
+        return renditions;
+    }
+    
+    private static void notifyPublishProgress(PublishProgressListener listener, PlatformType platform, PublishState state) {
+        if (listener != null) {
+            listener.onPlatformProgress(platform, state);
+        }
+    }
+    
     /**
      * Authenticates with a social media platform.
      * 
@@ -164,16 +674,21 @@ public class LynxAggregator {
      * @return True if authentication was successful
      */
     public boolean authenticatePlatform(PlatformType platform, Map<String, String> authData) {
-        LynxPlatformClient client = platformClients.get(platform);
+        LynxPlatformClient client = client(platform);
         if (client == null) {
-            Log.e(TAG, "No client available for platform: " + platform);
+            LynxLog.e(TAG, "No client available for platform: " + platform);
             return false;
         }
         
         try {
-            return client.authenticate(authData);
+            boolean success = client.authenticate(authData);
+            AuthToken token = AuthToken.fromAuthData(authData, System.currentTimeMillis());
+            if (success && token != null) {
+                tokenStore.update(platform, token);
+            }
+            return success;
         } catch (Exception e) {
-            Log.e(TAG, "Error authenticating with " + platform, e);
+            LynxLog.e(TAG, "Error authenticating with " + platform, e);
             return false;
         }
     }
@@ -192,61 +707,137 @@ public class LynxAggregator {
             Map<String, String> interactionData) {
         
         PlatformType platform = post.getPlatformType();
-        LynxPlatformClient client = platformClients.get(platform);
+        LynxPlatformClient client = client(platform);
         if (client == null) {
-            Log.e(TAG, "No client available for platform: " + platform);
+            LynxLog.e(TAG, "No client available for platform: " + platform);
             return false;
         }
         
         try {
             return client.performInteraction(post.getPlatformId(), interactionType, interactionData);
         } catch (Exception e) {
-            Log.e(TAG, "Error performing interaction on " + platform, e);
+            LynxLog.e(TAG, "Error performing interaction on " + platform, e);
             return false;
         }
     }
     
+    /**
+     * Sends a batch of outbox operations to one platform: a single new post, or a run of
+     * interactions sent in bulk where the platform supports it. Used by the {@link Outbox}.
+     * 
+     * @return The operations the platform accepted and rejected; the others were not tried
+     * @throws Exception If the batch could not be sent; nothing in it was accepted
+     */
+    public Outbox.BatchResult sendOutboxOperations(PlatformType platform, List<OutboxOperation> batch) throws Exception {
+        LynxPlatformClient client = client(platform);
+        if (client == null) {
+            throw new IllegalStateException("No client available for platform: " + platform);
+        }
+        
+        if (batch.size() == 1 && batch.get(0).isCreatePost()) {
+            OutboxOperation post = batch.get(0);
+            List<MediaPreparer.PreparedMedia> media = new ArrayList<>();
+            try {
+                for (String path : post.getMediaFiles()) {
+                    media.add(mediaPreparer.prepare(path));
+                }
+            } catch (FileNotFoundException e) {
+                // The attachment was deleted while the post waited; it can never be published
+                LynxLog.e(TAG, "Media of queued post " + post.getPostId() + " is gone", e);
+                return Outbox.BatchResult.rejectedAll(batch);
+            }
+            boolean success = client.createPost(post.getData().get("content"), renditionPaths(media, platform));
+            return success ? Outbox.BatchResult.acceptedAll(batch) : Outbox.BatchResult.rejectedAll(batch);
+        }
+        return client.performInteractions(batch);
+    }
+    
+    /**
+     * Receives partial aggregated feeds while a concurrent fetch is still running.
+     */
+    public interface FeedProgressListener {
+        /**
+         * Called on the fetching thread each time a platform answers.
+         * 
+         * @param platform The platform whose posts just arrived
+         * @param mergedPosts The feed merged from every platform that has answered so far
+         */
+        void onPlatformBatch(PlatformType platform, List<UnifiedPost> mergedPosts);
+    }
+    
+    /**
+     * Receives per-platform progress of a multi-platform publish.
+     */
+    public interface PublishProgressListener {
+        /**
+         * Called on the publishing threads, concurrently for different platforms.
+         */
+        void onPlatformProgress(PlatformType platform, PublishState state);
+    }
+    
     /**
      * Authentication interceptor for adding auth tokens to requests.
+     * 
+     * The platform is resolved from the request host through {@link PlatformHosts} and the
+     * token comes from the in-memory {@link AuthTokenStore}, so no URL strings are built and
+     * no storage is read per request. A 401 is retried once with a refreshed token.
      */
     private class AuthenticationInterceptor implements Interceptor {
         @Override
         public Response intercept(Chain chain) throws IOException {
             Request originalRequest = chain.request();
             
-            // Get the platform from the request URL
-            String url = originalRequest.url().toString();
-            PlatformType platform = getPlatformFromUrl(url);
+            // Get the platform from the request host
+            PlatformType platform = PlatformHosts.forUrl(originalRequest.url());
+            if (platform == null) {
+                return chain.proceed(originalRequest);
+            }
             
-            if (platform != null) {
-                // Get auth token for the platform
-                String authToken = getAuthTokenForPlatform(platform);
-                
-                if (authToken != null && !authToken.isEmpty()) {
-                    // Add auth token to request header
-                    Request.Builder builder = originalRequest.newBuilder()
-                            .header("Authorization", "Bearer " + authToken);
-                    
-                    return chain.proceed(builder.build());
-                }
+            String authToken = tokenStore.getAccessToken(platform);
+            if (authToken == null || authToken.isEmpty()) {
+                return chain.proceed(originalRequest);
+            }
+            
+            Response response = chain.proceed(withAuthToken(originalRequest, authToken));
+            if (response.code() != HttpURLConnection.HTTP_UNAUTHORIZED) {
+                return response;
+            }
+            
+            // Concurrent 401s share a single refresh; see AuthTokenStore#onUnauthorized
+            String refreshedToken = tokenStore.onUnauthorized(platform, authToken);
+            if (refreshedToken == null) {
+                return response;
             }
             
-            return chain.proceed(originalRequest);
+            response.close();
+            return chain.proceed(withAuthToken(originalRequest, refreshedToken));
         }
         
-        private PlatformType getPlatformFromUrl(String url) {
-            if (url.contains("instagram")) return PlatformType.INSTAGRAM;
-            if (url.contains("tiktok")) return PlatformType.TIKTOK;
-            if (url.contains("youtube")) return PlatformType.YOUTUBE;
-            if (url.contains("bsky")) return PlatformType.BLUESKY;
-            if (url.contains("mastodon")) return PlatformType.MASTODON;
+        private Request withAuthToken(Request request, String authToken) {
+            return request.newBuilder()
+                    .header("Authorization", "Bearer " + authToken)
+                    .build();
+        }
+    }
+    
+    /**
+     * Placeholder secure storage until the Keystore-backed implementation lands; it holds no
+     * tokens, so requests go out unauthenticated unless the user signs in during this session.
+     */
+    private static class InMemoryTokenStorage implements AuthTokenStore.TokenStorage {
+        @Override
+        public AuthToken load(PlatformType platform) {
+            // In a real implementation, this would decrypt the token from secure storage
             return null;
         }
         
-        private String getAuthTokenForPlatform(PlatformType platform) {
-            // In a real implementation, this would retrieve tokens from secure storage
-            // For now, we'll return null to indicate no authentication
-            return null;
+        @Override
+        public void save(PlatformType platform, AuthToken token) {
+            // In a real implementation, this would encrypt the token into secure storage
+        }
+        
+        @Override
+        public void delete(PlatformType platform) {
         }
     }
 }
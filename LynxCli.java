@@ -0,0 +1,196 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+import com.nukie.app.data.model.UnifiedPost;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Command-line entry point running the Lynx core on a plain JVM, for load tests and as a
+ * desktop companion.
+ * 
+ * <pre>
+ * lynx [--data-dir DIR] [-v] feed [LIMIT]
+ * lynx [--data-dir DIR] [-v] bench REQUESTS CONCURRENCY [LIMIT]
+ * lynx [--data-dir DIR] [-v] daemon INTERVAL_SECONDS [LIMIT]
+ * </pre>
+ * 
+ * Platforms are signed in from {@code LYNX_TOKEN_<PLATFORM>} environment variables, e.g.
+ * {@code LYNX_TOKEN_MASTODON}. The HTTP cache and upload sessions are kept under the data
+ * directory ({@code ~/.lynx} by default). Fan-out runs on virtual threads where the JVM has them.
+ * 
+ * Built by the {@code :lynx-core} module: {@code ./gradlew :lynx-core:installDist} puts a
+ * {@code lynx} launcher under {@code lynx-core/build/install/lynx/bin}.
+ */
+public final class LynxCli {
+    private static final String TAG = "LynxCli";
+    private static final int DEFAULT_LIMIT = 20;
+    
+    private LynxCli() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        File dataDir = new File(System.getProperty("user.home"), ".lynx");
+        int logPriority = LynxLog.INFO;
+        List<String> command = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--data-dir".equals(args[i]) && i + 1 < args.length) {
+                dataDir = new File(args[++i]);
+            } else if ("-v".equals(args[i])) {
+                logPriority = LynxLog.DEBUG;
+            } else {
+                command.add(args[i]);
+            }
+        }
+        if (command.isEmpty()) {
+            usage();
+            return;
+        }
+        LynxLog.setSink(new LynxLog.StandardErrorSink(logPriority));
+        
+        LynxEnvironment environment = new LynxEnvironment(
+                new File(dataDir, "cache"), new File(dataDir, "files"), logPriority == LynxLog.DEBUG)
+                .withExecutors(LynxEnvironment.virtualThreadsIfAvailable());
+        LynxAggregator aggregator = new LynxAggregator(environment);
+        signIn(aggregator);
+        
+        List<String> params = command.subList(1, command.size());
+        switch (command.get(0)) {
+            case "feed":
+                printFeed(aggregator.fetchAggregatedFeed(intArg(params, 0, DEFAULT_LIMIT), FanOutPolicy.defaults()));
+                break;
+            case "bench":
+                if (params.size() < 2) {
+                    usage();
+                    return;
+                }
+                bench(aggregator, environment, intArg(params, 0, 0), intArg(params, 1, 0), intArg(params, 2, DEFAULT_LIMIT));
+                break;
+            case "daemon":
+                if (params.isEmpty()) {
+                    usage();
+                    return;
+                }
+                daemon(aggregator, intArg(params, 0, 0), intArg(params, 1, DEFAULT_LIMIT));
+                break;
+            default:
+                usage();
+        }
+        // Worker pools use daemon threads, so nothing keeps the JVM alive after this
+    }
+    
+    private static void usage() {
+        System.err.println("Usage: lynx [--data-dir DIR] [-v] feed [LIMIT]");
+        System.err.println("       lynx [--data-dir DIR] [-v] bench REQUESTS CONCURRENCY [LIMIT]");
+        System.err.println("       lynx [--data-dir DIR] [-v] daemon INTERVAL_SECONDS [LIMIT]");
+    }
+    
+    private static int intArg(List<String> params, int index, int defaultValue) {
+        if (index >= params.size()) {
+            return defaultValue;
+        }
+        int value = Integer.parseInt(params.get(index));
+        if (value < 1) {
+            throw new IllegalArgumentException("Expected a positive number, got " + value);
+        }
+        return value;
+    }
+    
+    private static void signIn(LynxAggregator aggregator) {
+        for (PlatformType platform : PlatformType.values()) {
+            String token = System.getenv("LYNX_TOKEN_" + platform.name());
+            if (token == null || token.isEmpty()) {
+                continue;
+            }
+            Map<String, String> authData = new HashMap<>();
+            authData.put("access_token", token);
+            if (!aggregator.authenticatePlatform(platform, authData)) {
+                LynxLog.w(TAG, "Could not sign in to " + platform);
+            }
+        }
+    }
+    
+    private static void printFeed(AggregatedFeedResult result) {
+        for (UnifiedPost post : result.getPosts()) {
+            String content = post.getContent() != null ? post.getContent().replace('\n', ' ') : "";
+            System.out.println(post.getPlatformType() + "\t@" + post.getAuthor().getUsername() + "\t" + content);
+        }
+        System.out.println(result.getPosts().size() + " posts " + result.getPlatformStatuses());
+    }
+    
+    /**
+     * Runs {@code requests} aggregated feed fetches, at most {@code concurrency} at a time, and
+     * prints throughput and latency percentiles.
+     */
+    private static void bench(LynxAggregator aggregator, LynxEnvironment environment,
+                              int requests, int concurrency, int limit) throws Exception {
+        ExecutorService clients = environment.getExecutorFactory().newPool("lynx-bench-", concurrency);
+        Semaphore permits = new Semaphore(concurrency);
+        AtomicInteger failures = new AtomicInteger();
+        long[] latenciesNanos = new long[requests];
+        List<Future<?>> futures = new ArrayList<>(requests);
+        
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int request = i;
+            permits.acquire();
+            futures.add(clients.submit(() -> {
+                long requestStart = System.nanoTime();
+                try {
+                    aggregator.fetchAggregatedFeed(limit, FanOutPolicy.defaults());
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    LynxLog.d(TAG, "Request " + request + " failed: " + e);
+                } finally {
+                    latenciesNanos[request] = System.nanoTime() - requestStart;
+                    permits.release();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        clients.shutdown();
+        
+        Arrays.sort(latenciesNanos);
+        System.out.printf("%d requests, concurrency %d, %d failed, %.1f req/s%n",
+                requests, concurrency, failures.get(), requests / (elapsedNanos / 1e9));
+        System.out.printf("latency p50 %d ms, p95 %d ms, p99 %d ms, max %d ms%n",
+                percentileMs(latenciesNanos, 0.50), percentileMs(latenciesNanos, 0.95),
+                percentileMs(latenciesNanos, 0.99), percentileMs(latenciesNanos, 1.0));
+    }
+    
+    private static long percentileMs(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sortedNanos[Math.max(0, index)]);
+    }
+    
+    /**
+     * Fetches the aggregated feed every {@code intervalSeconds} until the process is stopped.
+     */
+    private static void daemon(LynxAggregator aggregator, int intervalSeconds, int limit) throws InterruptedException {
+        while (true) {
+            long startNanos = System.nanoTime();
+            try {
+                AggregatedFeedResult result = aggregator.fetchAggregatedFeed(limit, FanOutPolicy.defaults());
+                LynxLog.i(TAG, "Fetched " + result.getPosts().size() + " posts in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + " ms "
+                        + result.getPlatformStatuses());
+            } catch (RuntimeException e) {
+                LynxLog.e(TAG, "Feed fetch failed", e);
+            }
+            Thread.sleep(TimeUnit.SECONDS.toMillis(intervalSeconds));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.nukie.app.lynx
+
+import com.nukie.app.data.model.PlatformType
+import com.nukie.app.data.model.UnifiedPost
+import kotlinx.coroutines.CancellableContinuation
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.awaitClose
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.callbackFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Coroutine and Flow API over [LynxIntegrationManager] for the Kotlin side of the app.
+ * 
+ * The work runs on the manager's shared [PriorityTaskScheduler]. The callback resumes the
+ * calling coroutine directly, so no thread is blocked waiting for a result. Cancelling the
+ * coroutine (e.g. when the ViewModel is cleared or the filter changes) cancels the underlying
+ * [LynxOperation] and its in-flight HTTP calls.
+ */
+class LynxCoroutineClient(private val manager: LynxIntegrationManager) {
+    
+    /**
+     * Dispatcher over the manager's user-visible workers, for work that belongs with a feed
+     * load (e.g. mapping posts to UI models) without spinning up another pool.
+     */
+    val dispatcher: CoroutineDispatcher =
+        manager.taskScheduler.executor(TaskPriority.USER_VISIBLE).asCoroutineDispatcher()
+    
+    suspend fun fetchFeed(limit: Int): List<UnifiedPost> = awaitOperation { continuation ->
+        manager.fetchAggregatedFeed(object : LynxIntegrationManager.FeedCallback {
+            override fun onFeedFetched(posts: List<UnifiedPost>) = continuation.resume(posts)
+            override fun onError(e: Exception) = continuation.resumeWithException(e)
+        }, limit)
+    }
+    
+    suspend fun fetchPlatformFeed(platform: PlatformType, limit: Int): List<UnifiedPost> = awaitOperation { continuation ->
+        manager.fetchPlatformFeed(platform, object : LynxIntegrationManager.FeedCallback {
+            override fun onFeedFetched(posts: List<UnifiedPost>) = continuation.resume(posts)
+            override fun onError(e: Exception) = continuation.resumeWithException(e)
+        }, limit)
+    }
+    
+    suspend fun fetchFeedPage(cursor: FeedCursor, limit: Int): FeedPageResult = awaitOperation { continuation ->
+        manager.fetchAggregatedFeedPage(cursor, object : LynxIntegrationManager.FeedPageCallback {
+            override fun onPageFetched(posts: List<UnifiedPost>, nextCursor: FeedCursor) =
+                continuation.resume(FeedPageResult(posts, nextCursor))
+            override fun onError(e: Exception) = continuation.resumeWithException(e)
+        }, limit)
+    }
+    
+    /**
+     * Pages of the aggregated feed, from the top until every platform is exhausted.
+     * 
+     * The flow is cold and pull-driven: the next page is fetched only once the collector has
+     * taken the previous one, so a collector that stops (or `take`s a few pages) never causes
+     * requests it does not consume.
+     */
+    fun feedPages(limit: Int): Flow<FeedPageResult> = flow {
+        var cursor = FeedCursor.start()
+        do {
+            val page = fetchFeedPage(cursor, limit)
+            emit(page)
+            cursor = page.nextCursor
+        } while (cursor.hasMore())
+    }
+    
+    /**
+     * The aggregated feed as it fills in: one [FeedUpdate.Partial] per platform that answered,
+     * then a single [FeedUpdate.Complete].
+     * 
+     * Every update carries the whole feed merged so far, so a slow collector only sees the
+     * latest one; the final update is never dropped.
+     */
+    fun feedUpdates(limit: Int): Flow<FeedUpdate> = callbackFlow {
+        val operation = manager.fetchAggregatedFeedProgressively(object : LynxIntegrationManager.ProgressiveFeedCallback {
+            override fun onPlatformBatch(platform: PlatformType, posts: List<UnifiedPost>) {
+                trySend(FeedUpdate.Partial(platform, posts))
+            }
+            
+            override fun onFeedComplete(posts: List<UnifiedPost>, platformStatuses: Map<PlatformType, PlatformFetchStatus>) {
+                trySend(FeedUpdate.Complete(posts, platformStatuses))
+                close()
+            }
+            
+            override fun onError(e: Exception) {
+                close(e)
+            }
+        }, limit)
+        awaitClose { operation.cancel() }
+    }.buffer(Channel.CONFLATED)
+    
+    /**
+     * Posts to several platforms at once; see [LynxIntegrationManager.postToMultiplePlatforms].
+     */
+    suspend fun post(
+        content: String,
+        mediaFiles: List<String>,
+        platforms: List<PlatformType>
+    ): Map<PlatformType, Boolean> = awaitOperation { continuation ->
+        manager.postToMultiplePlatforms(content, mediaFiles, platforms, object : LynxIntegrationManager.PostCallback {
+            override fun onPostComplete(results: Map<PlatformType, Boolean>) = continuation.resume(results)
+            override fun onError(e: Exception) = continuation.resumeWithException(e)
+        })
+    }
+    
+    suspend fun interact(
+        post: UnifiedPost,
+        interactionType: String,
+        interactionData: Map<String, String>
+    ): Boolean = awaitOperation { continuation ->
+        manager.performSocialInteraction(post, interactionType, interactionData, object : LynxIntegrationManager.InteractionCallback {
+            override fun onInteractionComplete(post: UnifiedPost, interactionType: String, success: Boolean) =
+                continuation.resume(success)
+            override fun onError(post: UnifiedPost, interactionType: String, e: Exception) =
+                continuation.resumeWithException(e)
+        })
+    }
+    
+    suspend fun authenticate(platform: PlatformType, authData: Map<String, String>): Boolean = awaitOperation { continuation ->
+        manager.authenticatePlatform(platform, authData, object : LynxIntegrationManager.AuthCallback {
+            override fun onAuthComplete(platform: PlatformType, success: Boolean) = continuation.resume(success)
+            override fun onError(platform: PlatformType, e: Exception) = continuation.resumeWithException(e)
+        })
+    }
+    
+    /**
+     * Replays the outbox and syncs every due account; see [LynxIntegrationManager.synchronizeWithPlatforms].
+     */
+    suspend fun sync(): Boolean = awaitOperation { continuation ->
+        manager.synchronizeWithPlatforms(object : LynxIntegrationManager.SyncCallback {
+            override fun onSyncComplete(success: Boolean) = continuation.resume(success)
+            override fun onError(e: Exception) = continuation.resumeWithException(e)
+        })
+    }
+    
+    /**
+     * Starts a manager call and suspends until its callback fires, cancelling the call if the
+     * coroutine is cancelled first.
+     */
+    private suspend inline fun <T> awaitOperation(
+        crossinline start: (CancellableContinuation<T>) -> LynxOperation
+    ): T = suspendCancellableCoroutine { continuation ->
+        val operation = start(continuation)
+        continuation.invokeOnCancellation { operation.cancel() }
+    }
+}
+
+/**
+ * One page of the aggregated feed and the cursor for the page after it.
+ */
+data class FeedPageResult(
+    val posts: List<UnifiedPost>,
+    val nextCursor: FeedCursor
+)
+
+/**
+ * Progress of a progressive aggregated feed load.
+ */
+sealed class FeedUpdate {
+    abstract val posts: List<UnifiedPost>
+    
+    /** The feed merged so far, after [platform] answered. */
+    data class Partial(
+        val platform: PlatformType,
+        override val posts: List<UnifiedPost>
+    ) : FeedUpdate()
+    
+    /** The final feed and the outcome of every platform. */
+    data class Complete(
+        override val posts: List<UnifiedPost>,
+        val platformStatuses: Map<PlatformType, PlatformFetchStatus>
+    ) : FeedUpdate()
+}
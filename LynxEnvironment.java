@@ -0,0 +1,136 @@
+package com.nukie.app.lynx;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Where and how the Lynx core runs: its storage directories, build type and threads.
+ * 
+ * This is everything {@link LynxAggregator} used to take from an Android Context, so the
+ * same core runs in the app, in a server JVM and in tests.
+ */
+public final class LynxEnvironment {
+    private final File cacheDir;
+    private final File filesDir;
+    private final boolean debuggable;
+    private final ExecutorFactory executorFactory;
+    
+    /**
+     * @param cacheDir Directory for data that may be dropped, e.g. the HTTP cache and media renditions
+     * @param filesDir Directory for data that must survive, e.g. upload sessions
+     * @param debuggable True to log sampled HTTP bodies; false logs no traffic at all
+     */
+    public LynxEnvironment(File cacheDir, File filesDir, boolean debuggable) {
+        this(cacheDir, filesDir, debuggable, PLATFORM_THREADS);
+    }
+    
+    private LynxEnvironment(File cacheDir, File filesDir, boolean debuggable, ExecutorFactory executorFactory) {
+        this.cacheDir = cacheDir;
+        this.filesDir = filesDir;
+        this.debuggable = debuggable;
+        this.executorFactory = executorFactory;
+    }
+    
+    /**
+     * @return A copy of this environment whose worker pools come from the given factory
+     */
+    public LynxEnvironment withExecutors(ExecutorFactory factory) {
+        return new LynxEnvironment(cacheDir, filesDir, debuggable, factory);
+    }
+    
+    public File getCacheDir() {
+        return cacheDir;
+    }
+    
+    public File getFilesDir() {
+        return filesDir;
+    }
+    
+    public boolean isDebuggable() {
+        return debuggable;
+    }
+    
+    public ExecutorFactory getExecutorFactory() {
+        return executorFactory;
+    }
+    
+    /**
+     * Creates the worker pools of the core: fan-out, hedging and publishing.
+     */
+    public interface ExecutorFactory {
+        /**
+         * @param namePrefix Thread name prefix, e.g. "lynx-fanout-"
+         * @param threads Threads needed so no task ever waits for another one, e.g. one per platform
+         */
+        ExecutorService newPool(String namePrefix, int threads);
+        
+        /**
+         * A pool that grows with demand, for short bursts such as hedged requests.
+         */
+        ExecutorService newElasticPool(String namePrefix);
+    }
+    
+    /**
+     * Pools of daemon platform threads; the only option on Android.
+     */
+    public static final ExecutorFactory PLATFORM_THREADS = new ExecutorFactory() {
+        @Override
+        public ExecutorService newPool(String namePrefix, int threads) {
+            return Executors.newFixedThreadPool(threads, new LynxThreadFactory(namePrefix));
+        }
+        
+        @Override
+        public ExecutorService newElasticPool(String namePrefix) {
+            return Executors.newCachedThreadPool(new LynxThreadFactory(namePrefix));
+        }
+    };
+    
+    /**
+     * One virtual thread per task on JVMs that have them (Java 21 and later), so a server
+     * fanning out many feeds at once is not bounded by platform threads; platform threads
+     * elsewhere. Looked up reflectively because the core is compiled for Java 11.
+     */
+    public static ExecutorFactory virtualThreadsIfAvailable() {
+        Method newVirtualThreadExecutor;
+        try {
+            newVirtualThreadExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return PLATFORM_THREADS;
+        }
+        return new ExecutorFactory() {
+            @Override
+            public ExecutorService newPool(String namePrefix, int threads) {
+                return newElasticPool(namePrefix);
+            }
+            
+            @Override
+            public ExecutorService newElasticPool(String namePrefix) {
+                try {
+                    return (ExecutorService) newVirtualThreadExecutor.invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create a virtual thread executor", e);
+                }
+            }
+        };
+    }
+    
+    private static class LynxThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger threadCount = new AtomicInteger();
+        
+        LynxThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Disk-backed HTTP cache for platform API calls, with conditional revalidation.
+ * 
+ * GET requests to platform API hosts are sent with {@code Cache-Control: max-age=0}, so a
+ * cached response is always revalidated with its ETag / Last-Modified validator instead of
+ * being re-downloaded. {@link #fetch} additionally remembers the parsed result per URL, so a
+ * 304 Not Modified skips parsing altogether and a pull-to-refresh with no new content costs
+ * one empty round trip.
+ */
+public final class LynxHttpCache {
+    private static final String TAG = "LynxHttpCache";
+    
+    public static final long DEFAULT_MAX_SIZE_BYTES = 20L * 1024 * 1024;
+    private static final int MAX_PARSED_RESPONSES = 64;
+    // max-age=0 makes any stored response stale, so OkHttp sends it back with its validators
+    private static final CacheControl REVALIDATE = new CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build();
+    
+    private final Cache cache;
+    private final HttpCacheStats stats = new HttpCacheStats();
+    private final Map<String, ParsedResponse> parsedResponses = Collections.synchronizedMap(
+            new LinkedHashMap<String, ParsedResponse>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ParsedResponse> eldest) {
+                    return size() > MAX_PARSED_RESPONSES;
+                }
+            });
+    
+    public LynxHttpCache(File directory, long maxSizeBytes) {
+        this.cache = new Cache(directory, maxSizeBytes);
+    }
+    
+    /**
+     * Installs the cache and the revalidation policy on an OkHttpClient being built.
+     */
+    void install(OkHttpClient.Builder builder) {
+        builder.cache(cache).addInterceptor(new RevalidationInterceptor());
+    }
+    
+    public HttpCacheStats getStats() {
+        return stats;
+    }
+    
+    /**
+     * Drops every cached response, e.g. when the user signs out of a platform.
+     */
+    public void evictAll() throws IOException {
+        parsedResponses.clear();
+        cache.evictAll();
+    }
+    
+    /**
+     * Executes a request and parses its body, reusing the previously parsed result if the
+     * server confirms with a 304 that nothing changed.
+     * 
+     * @param client Client the cache is installed on
+     * @param request The request to execute
+     * @param parser Turns the response body into the result
+     * @return The parsed (or remembered) result
+     */
+    public <T> T fetch(OkHttpClient client, Request request, ResponseParser<T> parser) throws IOException {
+        String key = request.url().toString();
+        
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("HTTP " + response.code() + " for " + request.url());
+            }
+            
+            String validator = getValidator(response);
+            ParsedResponse previous = parsedResponses.get(key);
+            if (isNotModified(response) && previous != null && previous.validator.equals(validator)) {
+                @SuppressWarnings("unchecked")
+                T value = (T) previous.value;
+                return value;
+            }
+            
+            T value = parser.parse(response.body());
+            if (validator != null) {
+                parsedResponses.put(key, new ParsedResponse(validator, value));
+            } else {
+                parsedResponses.remove(key);
+            }
+            return value;
+        }
+    }
+    
+    private static boolean isNotModified(Response response) {
+        Response networkResponse = response.networkResponse();
+        return response.cacheResponse() != null
+                && (networkResponse == null || networkResponse.code() == HttpURLConnection.HTTP_NOT_MODIFIED);
+    }
+    
+    private static String getValidator(Response response) {
+        String etag = response.header("ETag");
+        return etag != null ? etag : response.header("Last-Modified");
+    }
+    
+    /**
+     * Turns a response body into a parsed result.
+     */
+    public interface ResponseParser<T> {
+        T parse(ResponseBody body) throws IOException;
+    }
+    
+    private static final class ParsedResponse {
+        private final String validator;
+        private final Object value;
+        
+        ParsedResponse(String validator, Object value) {
+            this.validator = validator;
+            this.value = value;
+        }
+    }
+    
+    /**
+     * Forces revalidation of platform GETs and records how each response was served.
+     */
+    private class RevalidationInterceptor implements Interceptor {
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            PlatformType platform = PlatformHosts.forUrl(request.url());
+            if (platform == null || !"GET".equals(request.method())) {
+                return chain.proceed(request);
+            }
+            
+            // Media is immutable and follows its own cache headers; only API calls are revalidated
+            if (request.header("Cache-Control") == null && RequestLane.of(request) == RequestLane.FEED) {
+                request = request.newBuilder().cacheControl(REVALIDATE).build();
+            }
+            
+            Response response = chain.proceed(request);
+            stats.record(platform, classify(response));
+            return response;
+        }
+        
+        private HttpCacheStats.Outcome classify(Response response) {
+            Response networkResponse = response.networkResponse();
+            if (networkResponse == null) {
+                return response.cacheResponse() != null ? HttpCacheStats.Outcome.HIT : HttpCacheStats.Outcome.MISS;
+            }
+            if (networkResponse.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                LynxLog.d(TAG, "Revalidated " + response.request().url().encodedPath());
+                return HttpCacheStats.Outcome.REVALIDATED;
+            }
+            return HttpCacheStats.Outcome.MISS;
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package com.nukie.app.lynx;
 
 import android.content.Context;
+import android.content.pm.ApplicationInfo;
 import android.util.Log;
 
+import com.nukie.app.data.db.NukieDatabase;
 import com.nukie.app.data.model.PlatformType;
 import com.nukie.app.data.model.UnifiedPost;
 import com.nukie.app.data.repository.SocialRepository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * LynxIntegrationManager serves as the bridge between the Nukie app's Android components
@@ -22,43 +26,229 @@ import java.util.concurrent.Executors;
 public class LynxIntegrationManager {
     private static final String TAG = "LynxIntegrationManager";
     
-    private static LynxIntegrationManager instance;
+    /** How long a finished feed fetch is shared with identical requests. */
+    private static final long FEED_COALESCING_WINDOW_MS = 1000;
+    
+    /** Account id used when the sign-in data does not name the account. */
+    private static final String DEFAULT_ACCOUNT_ID = "default";
+    
+    private static final AtomicReference<LynxIntegrationManager> INSTANCE = new AtomicReference<>();
     
     private final Context context;
-    private final LynxAggregator aggregator;
-    private final Executor backgroundExecutor;
+    private final PriorityTaskScheduler taskScheduler;
     private final SocialRepository repository;
+    private final Outbox outbox;
+    private final DeltaSyncEngine deltaSync;
+    private final AndroidDeviceConditions deviceConditions;
+    private final BackgroundSyncScheduler syncScheduler;
+    private final MainThreadDispatcher mainThreadDispatcher = new MainThreadDispatcher();
+    private final RequestCoalescer<FeedRequestKey, List<UnifiedPost>> feedCoalescer =
+            new RequestCoalescer<>(FEED_COALESCING_WINDOW_MS);
+    private final RequestCoalescer<FeedRequestKey, AggregatedFeedResult> pageCoalescer =
+            new RequestCoalescer<>(FEED_COALESCING_WINDOW_MS);
+    
+    /** Set by {@link #initializeLynx()} on a worker thread. */
+    private volatile LynxAggregator aggregator;
+    private volatile RuntimeException initializationError;
     
-    private LynxIntegrationManager(Context context, SocialRepository repository) {
+    /** Tasks submitted before the runtime was initialized, in order; null once it is. */
+    private volatile List<StartupTask> startupQueue = new ArrayList<>();
+    private final Object startupLock = new Object();
+    
+    /**
+     * Only creates objects; no threads are started and no I/O is done, so a manager that
+     * loses the race in {@link #getInstance} can simply be dropped.
+     */
+    private LynxIntegrationManager(Context context, SocialRepository repository, NukieDatabase database) {
         this.context = context.getApplicationContext();
         this.repository = repository;
-        this.aggregator = new LynxAggregator(this.context);
-        this.backgroundExecutor = Executors.newFixedThreadPool(4);
-        
-        initializeLynx();
+        // Feed reads the user waits on go ahead of interactions and sign-in, which go ahead of
+        // posting and sync
+        this.taskScheduler = PriorityTaskScheduler.defaults("lynx-task-");
+        // Posts that cannot be sent right away, and all likes, comments and shares, are journaled
+        // to the database and replayed in the background, also after process death
+        this.outbox = new Outbox(new RoomOutboxJournal(database.outboxDao()),
+                (platform, batch) -> aggregator().sendOutboxOperations(platform, batch));
+        // Timelines are pulled incrementally from each account's newest synced item; new posts
+        // and the advanced watermark are stored together
+        this.deltaSync = new DeltaSyncEngine(new RoomSyncStore(database),
+                (platform, sinceId, sinceTimestamp, cursor, limit) ->
+                        aggregator().fetchPlatformDelta(platform, sinceId, sinceTimestamp, cursor, limit));
+        // Both run in the background in shared wake-ups that follow power and network state
+        this.deviceConditions = new AndroidDeviceConditions(this.context);
+        this.syncScheduler = new BackgroundSyncScheduler(outbox, deltaSync, deviceConditions);
     }
     
     /**
      * Get the singleton instance of LynxIntegrationManager.
+     * 
+     * Returns right away: the first call only starts initializing the Lynx runtime on a
+     * worker thread. Operations requested before it is ready are queued and run as soon as it
+     * is, so this is safe to call from the main thread during startup.
+     * 
+     * @param database App database for the outbox and synced timelines; only used on worker threads
      */
-    public static synchronized LynxIntegrationManager getInstance(Context context, SocialRepository repository) {
-        if (instance == null) {
-            instance = new LynxIntegrationManager(context, repository);
+    public static LynxIntegrationManager getInstance(Context context, SocialRepository repository, NukieDatabase database) {
+        LynxIntegrationManager manager = INSTANCE.get();
+        if (manager != null) {
+            return manager;
         }
-        return instance;
+        manager = new LynxIntegrationManager(context, repository, database);
+        if (INSTANCE.compareAndSet(null, manager)) {
+            manager.start();
+            return manager;
+        }
+        // Another thread got there first
+        return INSTANCE.get();
+    }
+    
+    private void start() {
+        // The core has no Android dependencies; it logs to logcat
+        LynxLog.setSink(new AndroidLogSink());
+        taskScheduler.execute(TaskPriority.USER_VISIBLE, this::initializeLynx);
+    }
+    
+    /**
+     * Scheduler running the manager's work, e.g. to read its queue depths.
+     */
+    public PriorityTaskScheduler getTaskScheduler() {
+        return taskScheduler;
     }
     
     /**
-     * Initialize the Lynx runtime and prepare for social media integration.
+     * Dispatcher delivering results to the main thread once per frame, shared by all screens so
+     * that completions from different operations land in the same frame.
+     */
+    public MainThreadDispatcher getMainThreadDispatcher() {
+        return mainThreadDispatcher;
+    }
+    
+    /**
+     * Wraps a feed callback so that it runs on the main thread. Of the results for the same
+     * {@code filterKey} that arrive within one frame only the latest is delivered.
+     * 
+     * @param filterKey Identifies the feed being shown, e.g. the selected platform filter
+     */
+    public FeedCallback onMainThread(Object filterKey, FeedCallback callback) {
+        return new FeedCallback() {
+            @Override
+            public void onFeedFetched(List<UnifiedPost> posts) {
+                mainThreadDispatcher.dispatch(filterKey, () -> callback.onFeedFetched(posts));
+            }
+            
+            @Override
+            public void onError(Exception e) {
+                mainThreadDispatcher.dispatch(filterKey, () -> callback.onError(e));
+            }
+        };
+    }
+    
+    /**
+     * Wraps a progressive feed callback so that it runs on the main thread. Each batch carries
+     * the whole feed merged so far, so of the batches arriving within one frame only the
+     * latest is delivered, and the final feed replaces any batch still waiting.
+     * 
+     * @param filterKey Identifies the feed being shown, e.g. the selected platform filter
+     */
+    public ProgressiveFeedCallback onMainThread(Object filterKey, ProgressiveFeedCallback callback) {
+        return new ProgressiveFeedCallback() {
+            @Override
+            public void onPlatformBatch(PlatformType platform, List<UnifiedPost> posts) {
+                mainThreadDispatcher.dispatch(filterKey, () -> callback.onPlatformBatch(platform, posts));
+            }
+            
+            @Override
+            public void onFeedComplete(List<UnifiedPost> posts, Map<PlatformType, PlatformFetchStatus> platformStatuses) {
+                mainThreadDispatcher.dispatch(filterKey, () -> callback.onFeedComplete(posts, platformStatuses));
+            }
+            
+            @Override
+            public void onError(Exception e) {
+                // Not keyed: the posts of a batch still waiting are worth showing with the error
+                mainThreadDispatcher.dispatch(() -> callback.onError(e));
+            }
+        };
+    }
+    
+    /**
+     * Wraps an interaction callback so that it runs on the main thread. Every result is
+     * delivered; results arriving within one frame are delivered together.
+     */
+    public InteractionCallback onMainThread(InteractionCallback callback) {
+        return new InteractionCallback() {
+            @Override
+            public void onInteractionComplete(UnifiedPost post, String interactionType, boolean success) {
+                mainThreadDispatcher.dispatch(() -> callback.onInteractionComplete(post, interactionType, success));
+            }
+            
+            @Override
+            public void onError(UnifiedPost post, String interactionType, Exception e) {
+                mainThreadDispatcher.dispatch(() -> callback.onError(post, interactionType, e));
+            }
+        };
+    }
+    
+    /**
+     * Initialize the Lynx runtime and prepare for social media integration: builds the network
+     * stack, starts background sync and runs the operations queued in the meantime.
      */
     private void initializeLynx() {
         Log.d(TAG, "Initializing Lynx runtime for social media aggregation");
         
-        // In a real implementation, this would initialize the Lynx runtime
-        // and set up any necessary configurations
+        try {
+            // The aggregator stores its data in the app's directories; platform clients are
+            // only created when a platform is first used
+            boolean debuggable = (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+            aggregator = new LynxAggregator(
+                    new LynxEnvironment(context.getCacheDir(), context.getFilesDir(), debuggable));
+            outbox.start();
+            syncScheduler.start();
+            deviceConditions.register(syncScheduler::reschedule);
+            Log.d(TAG, "Lynx runtime initialized successfully");
+        } catch (RuntimeException e) {
+            // Queued and later operations fail through their callbacks instead of waiting forever
+            Log.e(TAG, "Failed to initialize Lynx runtime", e);
+            initializationError = e;
+        }
         
-        // For now, we'll just log that initialization is complete
-        Log.d(TAG, "Lynx runtime initialized successfully");
+        List<StartupTask> queued;
+        synchronized (startupLock) {
+            queued = startupQueue;
+            startupQueue = null;
+        }
+        for (StartupTask task : queued) {
+            taskScheduler.execute(task.priority, task.runnable);
+        }
+    }
+    
+    /**
+     * @throws IllegalStateException If the runtime failed to initialize
+     */
+    private LynxAggregator aggregator() {
+        LynxAggregator current = aggregator;
+        if (current == null) {
+            throw new IllegalStateException("Lynx runtime is not available", initializationError);
+        }
+        return current;
+    }
+    
+    /**
+     * Runs a task on the scheduler, or queues it until the runtime is initialized.
+     */
+    private void execute(TaskPriority priority, Runnable task) {
+        if (startupQueue != null) {
+            synchronized (startupLock) {
+                if (startupQueue != null) {
+                    startupQueue.add(new StartupTask(priority, task));
+                    return;
+                }
+            }
+        }
+        taskScheduler.execute(priority, task);
+    }
+    
+    private Executor executor(TaskPriority priority) {
+        return task -> execute(priority, task);
     }
     
     /**
@@ -66,17 +256,103 @@ public class LynxIntegrationManager {
      * 
      * @param callback Callback to receive the fetched posts
      * @param limit Maximum number of posts to fetch from each platform
+     * @return Handle to cancel the fetch, e.g. when the user switches filters
      */
-    public void fetchAggregatedFeed(FeedCallback callback, int limit) {
-        backgroundExecutor.execute(() -> {
+    public LynxOperation fetchAggregatedFeed(FeedCallback callback, int limit) {
+        // Identical concurrent requests share one fetch
+        LynxOperation operation = new LynxOperation();
+        feedCoalescer.execute(
+                new FeedRequestKey(null, null, limit),
+                executor(TaskPriority.USER_VISIBLE),
+                () -> aggregator().fetchAggregatedFeed(limit),
+                new RequestCoalescer.Listener<List<UnifiedPost>>() {
+                    @Override
+                    public void onResult(List<UnifiedPost> posts) {
+                        if (operation.complete()) {
+                            // Coalesced callers share the result; each gets a list of its own
+                            callback.onFeedFetched(new ArrayList<>(posts));
+                        }
+                    }
+                    
+                    @Override
+                    public void onError(Exception e) {
+                        if (operation.fail()) {
+                            Log.e(TAG, "Error fetching aggregated feed", e);
+                            callback.onError(e);
+                        }
+                    }
+                },
+                operation);
+        return operation;
+    }
+    
+    /**
+     * Fetch the aggregated feed, delivering partial results as each platform answers.
+     * 
+     * The callback first receives one {@link ProgressiveFeedCallback#onPlatformBatch} call per
+     * platform that answered, each carrying the feed merged so far, and then a single
+     * {@link ProgressiveFeedCallback#onFeedComplete} call with the final feed and the
+     * outcome of every platform.
+     * 
+     * @param callback Callback to receive the partial and final feeds
+     * @param limit Maximum number of posts to fetch from each platform
+     * @return Handle to cancel the fetch
+     */
+    public LynxOperation fetchAggregatedFeedProgressively(ProgressiveFeedCallback callback, int limit) {
+        LynxOperation operation = new LynxOperation();
+        execute(TaskPriority.USER_VISIBLE, operation.wrap(() -> {
             try {
-                List<UnifiedPost> posts = aggregator.fetchAggregatedFeed(limit);
-                callback.onFeedFetched(posts);
+                AggregatedFeedResult result = aggregator().fetchAggregatedFeed(
+                        limit, Integer.MAX_VALUE, FanOutPolicy.defaults(), (platform, postsSoFar) -> {
+                            if (!operation.isCancelled()) {
+                                callback.onPlatformBatch(platform, postsSoFar);
+                            }
+                        });
+                if (operation.complete()) {
+                    callback.onFeedComplete(result.getPosts(), result.getPlatformStatuses());
+                }
             } catch (Exception e) {
-                Log.e(TAG, "Error fetching aggregated feed", e);
-                callback.onError(e);
+                if (operation.fail()) {
+                    Log.e(TAG, "Error fetching aggregated feed progressively", e);
+                    callback.onError(e);
+                }
             }
-        });
+        }));
+        return operation;
+    }
+    
+    /**
+     * Fetch the next page of the aggregated feed ("load more").
+     * 
+     * @param cursor {@link FeedCursor#start()} for the first page, or the cursor passed to the previous callback
+     * @param callback Callback to receive the page and the cursor for the page after it
+     * @param limit Maximum number of posts to fetch from each platform
+     * @return Handle to cancel the fetch
+     */
+    public LynxOperation fetchAggregatedFeedPage(FeedCursor cursor, FeedPageCallback callback, int limit) {
+        LynxOperation operation = new LynxOperation();
+        pageCoalescer.execute(
+                new FeedRequestKey(null, cursor, limit),
+                executor(TaskPriority.USER_VISIBLE),
+                () -> aggregator().fetchAggregatedPage(cursor, limit, FanOutPolicy.defaults()),
+                new RequestCoalescer.Listener<AggregatedFeedResult>() {
+                    @Override
+                    public void onResult(AggregatedFeedResult result) {
+                        if (operation.complete()) {
+                            callback.onPageFetched(result.getPosts(), result.getNextCursor());
+                        }
+                    }
+                    
+                    @Override
+                    public void onError(Exception e) {
+                        if (operation.fail()) {
+                            Log.e(TAG, "Error fetching aggregated feed page", e);
+                            callback.onError(e);
+                        }
+                    }
+                },
+                operation);
+        return operation;
     }
     
     /**
@@ -85,40 +361,135 @@ public class LynxIntegrationManager {
      * @param platform The platform to fetch from
      * @param callback Callback to receive the fetched posts
      * @param limit Maximum number of posts to fetch
+     * @return Handle to cancel the fetch
      */
-    public void fetchPlatformFeed(PlatformType platform, FeedCallback callback, int limit) {
-        backgroundExecutor.execute(() -> {
-            try {
-                List<UnifiedPost> posts = aggregator.fetchPlatformFeed(platform, limit);
-                callback.onFeedFetched(posts);
-            } catch (Exception e) {
-                Log.e(TAG, "Error fetching feed for platform: " + platform, e);
-                callback.onError(e);
-            }
-        });
+    public LynxOperation fetchPlatformFeed(PlatformType platform, FeedCallback callback, int limit) {
+        // Identical concurrent requests share one fetch
+        LynxOperation operation = new LynxOperation();
+        feedCoalescer.execute(
+                new FeedRequestKey(platform, null, limit),
+                executor(TaskPriority.USER_VISIBLE),
+                () -> aggregator().fetchPlatformFeed(platform, limit),
+                new RequestCoalescer.Listener<List<UnifiedPost>>() {
+                    @Override
+                    public void onResult(List<UnifiedPost> posts) {
+                        if (operation.complete()) {
+                            // Coalesced callers share the result; each gets a list of its own
+                            callback.onFeedFetched(new ArrayList<>(posts));
+                        }
+                    }
+                    
+                    @Override
+                    public void onError(Exception e) {
+                        if (operation.fail()) {
+                            Log.e(TAG, "Error fetching feed for platform: " + platform, e);
+                            callback.onError(e);
+                        }
+                    }
+                },
+                operation);
+        return operation;
+    }
+    
+    /**
+     * Drop coalesced feed results so the next fetch goes to the network, e.g. on pull-to-refresh.
+     * Callers already waiting on an in-flight fetch still receive its result.
+     */
+    public void invalidateFeeds() {
+        feedCoalescer.invalidateAll();
+        pageCoalescer.invalidateAll();
     }
     
     /**
      * Post content to multiple social media platforms simultaneously.
      * 
+     * Platforms that cannot be reached get the post through the outbox once they can; their
+     * result is false until then.
+     * 
      * @param content Text content to post
      * @param mediaFiles List of media file paths to attach
      * @param platforms List of platforms to post to
      * @param callback Callback to receive the results
+     * @return Handle to cancel the post; platforms that already published keep the post
      */
-    public void postToMultiplePlatforms(
+    public LynxOperation postToMultiplePlatforms(
             String content,
             List<String> mediaFiles,
             List<PlatformType> platforms,
             PostCallback callback) {
         
-        backgroundExecutor.execute(() -> {
+        // Media preparation and uploads run long; as background work they never hold more than
+        // one worker, and aging keeps them moving while the user scrolls
+        LynxOperation operation = new LynxOperation();
+        execute(TaskPriority.BACKGROUND, operation.wrap(() -> {
             try {
-                Map<PlatformType, Boolean> results = aggregator.postToMultiplePlatforms(content, mediaFiles, platforms);
-                callback.onPostComplete(results);
+                Map<PlatformType, Boolean> results = publishOrQueue(content, mediaFiles, platforms, null, operation);
+                if (operation.complete()) {
+                    callback.onPostComplete(results);
+                }
             } catch (Exception e) {
-                Log.e(TAG, "Error posting to platforms", e);
-                callback.onError(e);
+                if (operation.fail()) {
+                    Log.e(TAG, "Error posting to platforms", e);
+                    callback.onError(e);
+                }
+            }
+        }));
+        return operation;
+    }
+    
+    /**
+     * Post content to multiple social media platforms simultaneously, reporting each
+     * platform's progress as its media is prepared and uploaded.
+     * 
+     * @param content Text content to post
+     * @param mediaFiles List of media file paths to attach
+     * @param platforms List of platforms to post to
+     * @param callback Callback to receive the progress and the results
+     * @return Handle to cancel the post; platforms that already published keep the post
+     */
+    public LynxOperation postToMultiplePlatforms(
+            String content,
+            List<String> mediaFiles,
+            List<PlatformType> platforms,
+            PublishProgressCallback callback) {
+        
+        LynxOperation operation = new LynxOperation();
+        execute(TaskPriority.BACKGROUND, operation.wrap(() -> {
+            try {
+                Map<PlatformType, Boolean> results = publishOrQueue(content, mediaFiles, platforms, callback, operation);
+                if (operation.complete()) {
+                    callback.onPostComplete(results);
+                }
+            } catch (Exception e) {
+                if (operation.fail()) {
+                    Log.e(TAG, "Error posting to platforms", e);
+                    callback.onError(e);
+                }
+            }
+        }));
+        return operation;
+    }
+    
+    private Map<PlatformType, Boolean> publishOrQueue(
+            String content,
+            List<String> mediaFiles,
+            List<PlatformType> platforms,
+            PublishProgressCallback progressCallback,
+            LynxOperation operation) {
+        
+        String postId = UUID.randomUUID().toString();
+        return aggregator().postToMultiplePlatforms(content, mediaFiles, platforms, (platform, state) -> {
+            if (operation.isCancelled()) {
+                // Uploads cut off by the cancellation look unreachable; they must not be queued
+                return;
+            }
+            PublishState reportedState = state;
+            if (state == PublishState.UNREACHABLE) {
+                outbox.enqueuePost(postId, platform, content, mediaFiles);
+                reportedState = PublishState.QUEUED;
+            }
+            if (progressCallback != null) {
+                progressCallback.onPlatformProgress(platform, reportedState);
             }
         });
     }
@@ -129,46 +500,69 @@ public class LynxIntegrationManager {
      * @param platform The platform to authenticate with
      * @param authData Authentication data (tokens, credentials, etc.)
      * @param callback Callback to receive the result
+     * @return Handle to follow or cancel the sign-in
      */
-    public void authenticatePlatform(
+    public LynxOperation authenticatePlatform(
             PlatformType platform,
             Map<String, String> authData,
             AuthCallback callback) {
         
-        backgroundExecutor.execute(() -> {
+        LynxOperation operation = new LynxOperation();
+        execute(TaskPriority.INTERACTIVE, operation.wrap(() -> {
             try {
-                boolean success = aggregator.authenticatePlatform(platform, authData);
-                callback.onAuthComplete(platform, success);
+                boolean success = aggregator().authenticatePlatform(platform, authData);
+                if (success) {
+                    String accountId = authData.get("account_id");
+                    deltaSync.track(platform, accountId != null ? accountId : DEFAULT_ACCOUNT_ID);
+                    syncScheduler.reschedule();
+                }
+                if (operation.complete()) {
+                    callback.onAuthComplete(platform, success);
+                }
             } catch (Exception e) {
-                Log.e(TAG, "Error authenticating with platform: " + platform, e);
-                callback.onError(platform, e);
+                if (operation.fail()) {
+                    Log.e(TAG, "Error authenticating with platform: " + platform, e);
+                    callback.onError(platform, e);
+                }
             }
-        });
+        }));
+        return operation;
     }
     
     /**
      * Perform a social interaction (like, comment, share) on a post.
      * 
+     * The interaction is committed to the local journal and the callback is invoked as soon
+     * as that is done; it is sent to the platform shortly after, batched with other pending
+     * interactions, and retried until the platform accepts or rejects it.
+     * 
      * @param post The post to interact with
      * @param interactionType The type of interaction
      * @param interactionData Additional data for the interaction (e.g., comment text)
      * @param callback Callback to receive the result
+     * @return Handle to follow the interaction; once it is journaled, cancelling has no effect
      */
-    public void performSocialInteraction(
+    public LynxOperation performSocialInteraction(
             UnifiedPost post,
             String interactionType,
             Map<String, String> interactionData,
             InteractionCallback callback) {
         
-        backgroundExecutor.execute(() -> {
+        LynxOperation operation = new LynxOperation();
+        execute(TaskPriority.INTERACTIVE, operation.wrap(() -> {
             try {
-                boolean success = aggregator.performSocialInteraction(post, interactionType, interactionData);
-                callback.onInteractionComplete(post, interactionType, success);
+                outbox.enqueueInteraction(post, interactionType, interactionData);
+                if (operation.complete()) {
+                    callback.onInteractionComplete(post, interactionType, true);
+                }
             } catch (Exception e) {
-                Log.e(TAG, "Error performing interaction: " + interactionType + " on post: " + post.getId(), e);
-                callback.onError(post, interactionType, e);
+                if (operation.fail()) {
+                    Log.e(TAG, "Error performing interaction: " + interactionType + " on post: " + post.getId(), e);
+                    callback.onError(post, interactionType, e);
+                }
             }
-        });
+        }));
+        return operation;
     }
     
     /**
@@ -176,20 +570,32 @@ public class LynxIntegrationManager {
      * This ensures that any changes made while offline are pushed to platforms
      * when connectivity is restored.
      * 
-     * @param callback Callback to receive the result
+     * New posts are pulled incrementally for every account that is due for a sync.
+     * 
+     * @param callback Callback to receive the result; true if nothing is left to send and every due account synced
+     * @return Handle to cancel the sync; accounts already synced keep their new posts
      */
-    public void synchronizeWithPlatforms(SyncCallback callback) {
-        backgroundExecutor.execute(() -> {
+    public LynxOperation synchronizeWithPlatforms(SyncCallback callback) {
+        LynxOperation operation = new LynxOperation();
+        execute(TaskPriority.BACKGROUND, operation.wrap(() -> {
             try {
-                // In a real implementation, this would sync local changes with remote platforms
-                // For now, we'll just simulate success
+                // Push first: replay the outbox, i.e. posts and interactions made while offline
                 Log.d(TAG, "Synchronizing with platforms");
-                callback.onSyncComplete(true);
+                boolean pushed = outbox.replay();
+                
+                // Then pull what is new on every account that is due
+                boolean pulled = deltaSync.syncDue(System.currentTimeMillis());
+                if (operation.complete()) {
+                    callback.onSyncComplete(pushed && pulled);
+                }
             } catch (Exception e) {
-                Log.e(TAG, "Error synchronizing with platforms", e);
-                callback.onError(e);
+                if (operation.fail()) {
+                    Log.e(TAG, "Error synchronizing with platforms", e);
+                    callback.onError(e);
+                }
             }
-        });
+        }));
+        return operation;
     }
     
     /**
@@ -200,6 +606,23 @@ public class LynxIntegrationManager {
         void onError(Exception e);
     }
     
+    /**
+     * Callback interface for paged feed fetching operations.
+     */
+    public interface FeedPageCallback {
+        void onPageFetched(List<UnifiedPost> posts, FeedCursor nextCursor);
+        void onError(Exception e);
+    }
+    
+    /**
+     * Callback interface for progressive feed fetching operations.
+     */
+    public interface ProgressiveFeedCallback {
+        void onPlatformBatch(PlatformType platform, List<UnifiedPost> posts);
+        void onFeedComplete(List<UnifiedPost> posts, Map<PlatformType, PlatformFetchStatus> platformStatuses);
+        void onError(Exception e);
+    }
+    
     /**
      * Callback interface for post creation operations.
      */
@@ -208,6 +631,15 @@ public class LynxIntegrationManager {
         void onError(Exception e);
     }
     
+    /**
+     * Callback interface for post creation operations with per-platform progress.
+     */
+    public interface PublishProgressCallback {
+        void onPlatformProgress(PlatformType platform, PublishState state);
+        void onPostComplete(Map<PlatformType, Boolean> results);
+        void onError(Exception e);
+    }
+    
     /**
      * Callback interface for authentication operations.
      */
@@ -231,4 +663,14 @@ public class LynxIntegrationManager {
         void onSyncComplete(boolean success);
         void onError(Exception e);
     }
+    
+    private static class StartupTask {
+        final TaskPriority priority;
+        final Runnable runnable;
+        
+        StartupTask(TaskPriority priority, Runnable runnable) {
+            this.priority = priority;
+            this.runnable = runnable;
+        }
+    }
 }
@@ -0,0 +1,86 @@
+package com.nukie.app.lynx;
+
+/**
+ * Logging facade of the Lynx core, so the aggregation engine runs on any JVM.
+ * 
+ * Messages go to the installed {@link Sink}: logcat in the app (see {@link AndroidLogSink}),
+ * standard error on a plain JVM until another sink is installed.
+ */
+public final class LynxLog {
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+    
+    private static volatile Sink sink = new StandardErrorSink(INFO);
+    
+    private LynxLog() {
+    }
+    
+    /**
+     * Routes all Lynx logging to the given sink.
+     */
+    public static void setSink(Sink newSink) {
+        sink = newSink;
+    }
+    
+    public static void d(String tag, String message) {
+        sink.log(DEBUG, tag, message, null);
+    }
+    
+    public static void i(String tag, String message) {
+        sink.log(INFO, tag, message, null);
+    }
+    
+    public static void w(String tag, String message) {
+        sink.log(WARN, tag, message, null);
+    }
+    
+    public static void w(String tag, String message, Throwable error) {
+        sink.log(WARN, tag, message, error);
+    }
+    
+    public static void e(String tag, String message) {
+        sink.log(ERROR, tag, message, null);
+    }
+    
+    public static void e(String tag, String message, Throwable error) {
+        sink.log(ERROR, tag, message, error);
+    }
+    
+    /**
+     * Destination of log messages.
+     */
+    public interface Sink {
+        /**
+         * @param priority One of {@link #DEBUG}, {@link #INFO}, {@link #WARN} and {@link #ERROR}
+         * @param error The error being reported, or null
+         */
+        void log(int priority, String tag, String message, Throwable error);
+    }
+    
+    /**
+     * Writes messages at or above a minimum priority to standard error.
+     */
+    public static final class StandardErrorSink implements Sink {
+        private final int minPriority;
+        
+        public StandardErrorSink(int minPriority) {
+            this.minPriority = minPriority;
+        }
+        
+        @Override
+        public void log(int priority, String tag, String message, Throwable error) {
+            if (priority < minPriority) {
+                return;
+            }
+            char level = priority >= ERROR ? 'E' : priority == WARN ? 'W' : priority == INFO ? 'I' : 'D';
+            synchronized (System.err) {
+                System.err.println(level + "/" + tag + ": " + message);
+                if (error != null) {
+                    error.printStackTrace(System.err);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.nukie.app.lynx;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * The shared platform HTTP stack built from a {@link NetworkPolicy}.
+ * 
+ * It provides one client per {@link RequestLane}. Both clients share the connection pool,
+ * cache and interceptors. Each lane has its own concurrency budget, enforced by a
+ * {@link LaneBudgetInterceptor} because platform calls run synchronously with
+ * {@code execute()}, which OkHttp's dispatcher limits do not cover.
+ */
+final class LynxNetwork {
+    private final LaneBudgetInterceptor budgets;
+    private final OkHttpClient feedClient;
+    private final OkHttpClient mediaClient;
+    
+    /**
+     * @param policy Budgets and connection settings
+     * @param builder Builder already carrying the interceptors, timeouts and cache
+     */
+    LynxNetwork(NetworkPolicy policy, OkHttpClient.Builder builder) {
+        budgets = new LaneBudgetInterceptor(policy);
+        
+        // Added last so token refreshes happen before a slot is taken
+        builder.addInterceptor(budgets)
+                .connectionPool(new ConnectionPool(
+                        policy.getMaxIdleConnections(), policy.getKeepAliveMs(), TimeUnit.MILLISECONDS))
+                .protocols(policy.isPreferHttp2()
+                        ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : Collections.singletonList(Protocol.HTTP_1_1));
+        
+        feedClient = builder.build();
+        
+        // Tag media requests first so the budget, cache and stats interceptors can tell the lanes apart
+        OkHttpClient.Builder mediaBuilder = feedClient.newBuilder();
+        mediaBuilder.interceptors().add(0, chain -> chain.proceed(chain.request().newBuilder()
+                .tag(RequestLane.class, RequestLane.MEDIA)
+                .build()));
+        mediaClient = mediaBuilder.build();
+    }
+    
+    OkHttpClient getFeedClient() {
+        return feedClient;
+    }
+    
+    OkHttpClient getMediaClient() {
+        return mediaClient;
+    }
+    
+    /**
+     * Counts the calls currently waiting for a slot and running in each lane, per platform.
+     */
+    NetworkActivity snapshotActivity() {
+        NetworkActivity activity = new NetworkActivity();
+        budgets.record(activity, RequestLane.FEED);
+        budgets.record(activity, RequestLane.MEDIA);
+        return activity;
+    }
+}
@@ -0,0 +1,188 @@
+package com.nukie.app.lynx;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.GzipSource;
+import okio.Source;
+
+/**
+ * Low-overhead replacement for HttpLoggingInterceptor on the platform fetch path.
+ * 
+ * Unlike HttpLoggingInterceptor at BODY level, it never buffers a full body: bodies are only
+ * logged for a sample of requests, and then only the first {@code maxBodyBytes} bytes are
+ * peeked. Credentials are redacted from logged headers. At {@link Level#NONE} the interceptor
+ * passes requests straight through without building any log strings.
+ * 
+ * Install it as a network interceptor so it logs what goes over the wire: the request headers
+ * added by authentication and the cache, and the response body before transparent gzip
+ * decoding, which it decodes itself.
+ */
+public final class LynxNetworkLogger implements Interceptor {
+    private static final String TAG = "LynxNetwork";
+    
+    private static final int DEBUG_SAMPLE_EVERY = 10;
+    private static final long DEBUG_MAX_BODY_BYTES = 4 * 1024;
+    private static final Set<String> REDACTED_HEADERS = new HashSet<>(Arrays.asList(
+            "authorization", "proxy-authorization", "cookie", "set-cookie"));
+    
+    /**
+     * How much of each exchange is logged.
+     */
+    public enum Level {
+        /** Nothing is logged and nothing is buffered. */
+        NONE,
+        
+        /** Request line, response code and timing. */
+        BASIC,
+        
+        /** BASIC plus redacted request and response headers. */
+        HEADERS,
+        
+        /** HEADERS plus a size-capped prefix of the response body for sampled requests. */
+        SAMPLED_BODY
+    }
+    
+    private final Level level;
+    private final int sampleEvery;
+    private final long maxBodyBytes;
+    private final AtomicLong requestCount = new AtomicLong();
+    
+    /**
+     * @param level How much of each exchange is logged
+     * @param sampleEvery Log the body of one request in this many (SAMPLED_BODY only)
+     * @param maxBodyBytes Maximum number of body bytes logged per response
+     */
+    public LynxNetworkLogger(Level level, int sampleEvery, long maxBodyBytes) {
+        if (sampleEvery < 1 || maxBodyBytes < 0) {
+            throw new IllegalArgumentException("Invalid sampling configuration");
+        }
+        this.level = level;
+        this.sampleEvery = sampleEvery;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+    
+    /**
+     * Logger configuration for the current build type: sampled bodies in debuggable builds,
+     * no logging at all in release builds.
+     */
+    public static LynxNetworkLogger forBuild(boolean debuggable) {
+        return debuggable
+                ? new LynxNetworkLogger(Level.SAMPLED_BODY, DEBUG_SAMPLE_EVERY, DEBUG_MAX_BODY_BYTES)
+                : new LynxNetworkLogger(Level.NONE, 1, 0);
+    }
+    
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (level == Level.NONE) {
+            return chain.proceed(request);
+        }
+        
+        boolean logHeaders = level == Level.HEADERS || level == Level.SAMPLED_BODY;
+        boolean logBody = level == Level.SAMPLED_BODY && requestCount.getAndIncrement() % sampleEvery == 0;
+        
+        StringBuilder requestLog = new StringBuilder("--> ")
+                .append(request.method()).append(' ');
+        appendUrl(requestLog, request.url());
+        if (logHeaders) {
+            appendHeaders(requestLog, request.headers());
+        }
+        LynxLog.d(TAG, requestLog.toString());
+        
+        long startNanos = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            LynxLog.d(TAG, "<-- HTTP FAILED: " + e);
+            throw e;
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        
+        StringBuilder responseLog = new StringBuilder("<-- ")
+                .append(response.code()).append(' ');
+        appendUrl(responseLog, response.request().url());
+        responseLog.append(" (").append(tookMs).append("ms)");
+        if (logHeaders) {
+            appendHeaders(responseLog, response.headers());
+        }
+        if (logBody && isText(response.body())) {
+            appendBodyPrefix(responseLog, response);
+        }
+        LynxLog.d(TAG, responseLog.toString());
+        
+        return response;
+    }
+    
+    /**
+     * Logs the URL without its query, which may carry access tokens or API keys.
+     */
+    private static void appendUrl(StringBuilder log, HttpUrl url) {
+        log.append(url.scheme()).append("://").append(url.host()).append(url.encodedPath());
+    }
+    
+    private static void appendHeaders(StringBuilder log, Headers headers) {
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.name(i);
+            log.append('\n').append(name).append(": ");
+            if (REDACTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                log.append("[redacted]");
+            } else {
+                log.append(headers.value(i));
+            }
+        }
+    }
+    
+    /**
+     * Appends up to {@code maxBodyBytes} of the decoded body. One byte more is peeked so that
+     * a body of exactly {@code maxBodyBytes} bytes is not reported as truncated.
+     */
+    private void appendBodyPrefix(StringBuilder log, Response response) throws IOException {
+        ResponseBody body = response.body();
+        // A peek only buffers what is read and leaves the real body untouched
+        Source source = body.source().peek();
+        if ("gzip".equalsIgnoreCase(response.header("Content-Encoding"))) {
+            source = new GzipSource(source);
+        }
+        Buffer prefix = new Buffer();
+        long wanted = maxBodyBytes + 1;
+        while (prefix.size() < wanted && source.read(prefix, wanted - prefix.size()) != -1) {
+            // Keep reading until the cap or the end of the body
+        }
+        boolean truncated = prefix.size() > maxBodyBytes;
+        Charset charset = body.contentType().charset(StandardCharsets.UTF_8);
+        log.append('\n').append(prefix.readString(Math.min(prefix.size(), maxBodyBytes), charset));
+        if (truncated) {
+            log.append("\n[body truncated to ").append(maxBodyBytes).append(" bytes]");
+        }
+    }
+    
+    private static boolean isText(ResponseBody body) {
+        if (body == null) {
+            return false;
+        }
+        MediaType contentType = body.contentType();
+        if (contentType == null) {
+            return false;
+        }
+        return "text".equals(contentType.type())
+                || "json".equals(contentType.subtype())
+                || contentType.subtype().endsWith("+json");
+    }
+}
@@ -0,0 +1,272 @@
+package com.nukie.app.lynx;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+
+/**
+ * Handle to an operation started through {@link LynxIntegrationManager}, used to follow its
+ * status or cancel it.
+ * 
+ * Cancelling reaches all the work done on the operation's behalf: a task still waiting for a
+ * worker never runs, the worker running it is interrupted (which cancels its platform
+ * fetches), HTTP calls it made are cancelled mid-flight, and its callback is not invoked.
+ * The operation is tracked across threads by {@link #propagate}, and its HTTP calls are
+ * registered by {@link #callInterceptor()}.
+ */
+public final class LynxOperation {
+    private static final ThreadLocal<LynxOperation> CURRENT = new ThreadLocal<>();
+    
+    /**
+     * Status of an operation.
+     */
+    public enum Status {
+        /** Queued or running. */
+        ACTIVE,
+        
+        /** Finished and delivered its result. */
+        COMPLETED,
+        
+        /** Finished with an error, which was delivered. */
+        FAILED,
+        
+        /** Cancelled before it finished; nothing is delivered. */
+        CANCELLED
+    }
+    
+    private Status status = Status.ACTIVE;
+    private Thread runner;
+    private final List<Call> calls = new ArrayList<>();
+    private final List<Runnable> cancelActions = new ArrayList<>();
+    
+    LynxOperation() {
+    }
+    
+    public synchronized Status getStatus() {
+        return status;
+    }
+    
+    public synchronized boolean isCancelled() {
+        return status == Status.CANCELLED;
+    }
+    
+    public synchronized boolean isDone() {
+        return status != Status.ACTIVE;
+    }
+    
+    /**
+     * Cancels the operation if it has not finished yet.
+     * 
+     * @return True if this call cancelled it
+     */
+    public boolean cancel() {
+        List<Call> inFlight;
+        List<Runnable> actions;
+        synchronized (this) {
+            if (status != Status.ACTIVE) {
+                return false;
+            }
+            status = Status.CANCELLED;
+            if (runner != null) {
+                runner.interrupt();
+            }
+            inFlight = new ArrayList<>(calls);
+            actions = new ArrayList<>(cancelActions);
+            calls.clear();
+            cancelActions.clear();
+        }
+        for (Call call : inFlight) {
+            call.cancel();
+        }
+        for (Runnable action : actions) {
+            action.run();
+        }
+        return true;
+    }
+    
+    /**
+     * Marks the operation completed.
+     * 
+     * @return True if the result should be delivered, false if the operation was cancelled
+     */
+    synchronized boolean complete() {
+        return finish(Status.COMPLETED);
+    }
+    
+    /**
+     * Marks the operation failed.
+     * 
+     * @return True if the error should be delivered, false if the operation was cancelled
+     */
+    synchronized boolean fail() {
+        return finish(Status.FAILED);
+    }
+    
+    private boolean finish(Status finalStatus) {
+        if (status != Status.ACTIVE) {
+            return false;
+        }
+        status = finalStatus;
+        calls.clear();
+        cancelActions.clear();
+        return true;
+    }
+    
+    /**
+     * Runs {@code action} when the operation is cancelled, or right away if it already was.
+     */
+    void onCancel(Runnable action) {
+        synchronized (this) {
+            if (status == Status.ACTIVE) {
+                cancelActions.add(action);
+                return;
+            }
+            if (status != Status.CANCELLED) {
+                return;
+            }
+        }
+        action.run();
+    }
+    
+    /**
+     * Wraps the operation's task for an executor. The task is skipped if the operation is
+     * cancelled while it waits, and the worker is interrupted if it is cancelled while it runs.
+     */
+    Runnable wrap(Runnable task) {
+        return () -> {
+            synchronized (this) {
+                if (status != Status.ACTIVE) {
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            CURRENT.set(this);
+            try {
+                task.run();
+            } finally {
+                CURRENT.remove();
+                synchronized (this) {
+                    runner = null;
+                    // Do not leak a cancellation interrupt into the worker's next task
+                    Thread.interrupted();
+                }
+            }
+        };
+    }
+    
+    /**
+     * Carries the calling thread's operation over to the thread that runs {@code task}, e.g.
+     * a platform fetch in the fan-out pool.
+     */
+    static <T> Callable<T> propagate(Callable<T> task) {
+        LynxOperation operation = CURRENT.get();
+        if (operation == null) {
+            return task;
+        }
+        return () -> {
+            if (operation.isCancelled()) {
+                throw new CancellationException();
+            }
+            CURRENT.set(operation);
+            try {
+                return task.call();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+    
+    /**
+     * Creates an operation for one part of the calling thread's operation, e.g. one attempt of
+     * a hedged fetch. Cancelling the calling thread's operation cancels the part as well, while
+     * the part can be cancelled on its own.
+     */
+    static LynxOperation child() {
+        LynxOperation child = new LynxOperation();
+        LynxOperation parent = CURRENT.get();
+        if (parent != null) {
+            parent.onCancel(child::cancel);
+        }
+        return child;
+    }
+    
+    /**
+     * Wraps {@code task} to run as this operation on another thread: its HTTP calls are
+     * registered with this operation, cancelling interrupts the thread, and the operation is
+     * completed or failed with the task.
+     */
+    <T> Callable<T> bind(Callable<T> task) {
+        return () -> {
+            synchronized (this) {
+                if (status != Status.ACTIVE) {
+                    throw new CancellationException();
+                }
+                runner = Thread.currentThread();
+            }
+            CURRENT.set(this);
+            try {
+                T result = task.call();
+                complete();
+                return result;
+            } catch (Exception e) {
+                fail();
+                throw e;
+            } finally {
+                CURRENT.remove();
+                synchronized (this) {
+                    runner = null;
+                    Thread.interrupted();
+                }
+            }
+        };
+    }
+    
+    /**
+     * Throws if the operation running on this thread was cancelled, so work such as merging
+     * stops early.
+     */
+    static void throwIfCancelled() {
+        LynxOperation operation = CURRENT.get();
+        if (operation != null && operation.isCancelled()) {
+            throw new CancellationException();
+        }
+    }
+    
+    /**
+     * Application interceptor registering each call with the operation it is made for, so that
+     * cancelling the operation cancels the call. Calls made for a cancelled operation fail
+     * right away.
+     */
+    static Interceptor callInterceptor() {
+        return chain -> {
+            LynxOperation operation = CURRENT.get();
+            if (operation != null && !operation.track(chain.call())) {
+                throw new IOException("Canceled");
+            }
+            return chain.proceed(chain.request());
+        };
+    }
+    
+    /**
+     * @return False if the operation is cancelled; the call is then cancelled too
+     */
+    private boolean track(Call call) {
+        synchronized (this) {
+            if (status == Status.ACTIVE) {
+                calls.add(call);
+                return true;
+            }
+            if (status != Status.CANCELLED) {
+                // A straggler of an operation that already finished; let it be
+                return true;
+            }
+        }
+        call.cancel();
+        return false;
+    }
+}
@@ -1,32 +1,111 @@
 package com.nukie.app.lynx;
 
-import android.util.Log;
-
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.nukie.app.data.model.MediaType;
 import com.nukie.app.data.model.PlatformType;
 import com.nukie.app.data.model.UnifiedAuthor;
 import com.nukie.app.data.model.UnifiedMedia;
 import com.nukie.app.data.model.UnifiedPost;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
-import okhttp3.OkHttpClient;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
 
 /**
  * Interface defining common methods that all platform-specific clients must implement.
  */
 interface LynxPlatformClient {
-    List<UnifiedPost> fetchPosts(int limit) throws Exception;
+    /**
+     * Fetches one page of the timeline.
+     * 
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of posts in the page
+     */
+    FeedPage fetchPage(String cursor, int limit) throws Exception;
+    
+    default List<UnifiedPost> fetchPosts(int limit) throws Exception {
+        return fetchPage(null, limit).getPosts();
+    }
+    
+    /**
+     * Fetches the posts newer than a sync watermark, newest first.
+     * 
+     * Platforms with since-id style parameters ask the server for new posts only; the
+     * default pages the timeline from the top and stops at the first post that is not newer
+     * than the watermark, which costs one request when nothing is new. Pages are never cut
+     * short, so a result may hold up to one page more than {@code limit} and its cursor
+     * continues right below its oldest post.
+     * 
+     * @param sinceId Platform id of the newest post already synced, or null to get the newest posts
+     * @param sinceTimestamp Publication time of that post, in epoch milliseconds, or 0
+     * @param cursor Cursor of the previous result to continue below it, or null to start at the top
+     * @param limit Number of posts after which to stop at the end of a page
+     * @return The new posts; if {@link FeedPage#hasMore()}, its cursor continues with the older ones
+     */
+    default FeedPage fetchSince(String sinceId, long sinceTimestamp, String cursor, int limit) throws Exception {
+        List<UnifiedPost> newer = new ArrayList<>();
+        do {
+            FeedPage page = fetchPage(cursor, limit);
+            for (UnifiedPost post : page.getPosts()) {
+                if (post.getPlatformId().equals(sinceId) || post.getPublishedAt() <= sinceTimestamp) {
+                    return new FeedPage(newer, null, false);
+                }
+                newer.add(post);
+            }
+            cursor = page.hasMore() ? page.getNextCursor() : null;
+            if (newer.size() >= limit && cursor != null) {
+                return new FeedPage(newer, cursor, true);
+            }
+        } while (cursor != null);
+        return new FeedPage(newer, null, false);
+    }
+    
     boolean createPost(String content, List<String> mediaFiles) throws Exception;
     boolean authenticate(Map<String, String> authData) throws Exception;
     boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) throws Exception;
+    
+    /**
+     * Sends a batch of queued interactions. Platforms without a bulk endpoint send them one
+     * by one and stop at the first error: an interaction that threw counts as rejected unless
+     * the platform could not be reached, and the interactions after it are reported as not
+     * tried, so they stay queued as they were.
+     * 
+     * @return The interactions the platform accepted and rejected
+     * @throws IOException If the platform could not be reached before anything was accepted
+     */
+    default Outbox.BatchResult performInteractions(List<OutboxOperation> batch) throws Exception {
+        Set<String> accepted = new HashSet<>();
+        Set<String> rejected = new HashSet<>();
+        for (OutboxOperation interaction : batch) {
+            try {
+                if (performInteraction(interaction.getPlatformPostId(), interaction.getOperationType(), interaction.getData())) {
+                    accepted.add(interaction.getId());
+                } else {
+                    rejected.add(interaction.getId());
+                }
+            } catch (IOException | PlatformUnavailableException e) {
+                if (accepted.isEmpty() && rejected.isEmpty()) {
+                    throw e;
+                }
+                break;
+            } catch (Exception e) {
+                rejected.add(interaction.getId());
+                break;
+            }
+        }
+        return new Outbox.BatchResult(accepted, rejected);
+    }
 }
 
 /**
@@ -35,20 +114,34 @@ interface LynxPlatformClient {
 class InstagramClient implements LynxPlatformClient {
     private static final String TAG = "InstagramClient";
     private static final String BASE_URL = "https://graph.instagram.com/v18.0/";
+    private static final int MOCK_TIMELINE_SIZE = 100;
     
-    private final OkHttpClient httpClient;
+    private final PlatformApi api;
     
-    public InstagramClient(OkHttpClient httpClient) {
-        this.httpClient = httpClient;
+    public InstagramClient(PlatformApi api) {
+        this.api = api;
     }
     
     @Override
-    public List<UnifiedPost> fetchPosts(int limit) throws Exception {
-        // In a real implementation, this would use Lynx's Fetch API to call Instagram's Graph API
-        // For now, we'll return mock data to demonstrate the structure
+    public FeedPage fetchPage(String cursor, int limit) throws Exception {
+        // Signed-in users get their Graph API media, stream-decoded by InstagramFeedDecoder
+        if (api.isSignedIn(PlatformType.INSTAGRAM)) {
+            HttpUrl.Builder url = HttpUrl.get(BASE_URL + "me/media").newBuilder()
+                    .addQueryParameter("fields", "id,caption,media_type,media_url,thumbnail_url,username,timestamp,like_count,comments_count")
+                    .addQueryParameter("limit", String.valueOf(limit));
+            if (cursor != null) {
+                url.addQueryParameter("after", cursor);
+            }
+            return api.fetchFeed(new Request.Builder().url(url.build()).build(), new InstagramFeedDecoder());
+        }
+        
+        // Otherwise, we'll return mock data to demonstrate the structure
+        // The Graph API continues with the 'after' cursor; the mock encodes the post offset
+        int offset = cursor != null ? Integer.parseInt(cursor) : 0;
+        int end = Math.min(offset + limit, MOCK_TIMELINE_SIZE);
         List<UnifiedPost> posts = new ArrayList<>();
         
-        for (int i = 1; i <= limit; i++) {
+        for (int i = offset + 1; i <= end; i++) {
             String id = "ig_" + UUID.randomUUID().toString();
             
             UnifiedAuthor author = new UnifiedAuthor(
@@ -79,38 +172,40 @@ class InstagramClient implements LynxPlatformClient {
                     author,
                     "This is an Instagram post #" + i + " with dot matrix style! #nukie #dotmatrix",
                     mediaItems,
-                    System.currentTimeMillis() - (i * 3600000), // Posts at different times
+                    System.currentTimeMillis() - (i * 3600000L), // Posts at different times
                     100 + i * 10, // Likes
                     20 + i * 2,   // Comments
                     5 + i,        // Shares
                     false,        // Not liked by user
-                    i % 5 == 0    // Some posts are bookmarked
+                    i % 5 == 0,   // Some posts are bookmarked
+                    null          // No platform-specific data
             );
             
             posts.add(post);
         }
         
-        return posts;
+        String nextCursor = end < MOCK_TIMELINE_SIZE ? String.valueOf(end) : null;
+        return new FeedPage(posts, nextCursor, nextCursor != null);
     }
     
     @Override
     public boolean createPost(String content, List<String> mediaFiles) throws Exception {
         // In a real implementation, this would use Lynx's Fetch API to call Instagram's Graph API
-        Log.d(TAG, "Creating Instagram post: " + content);
+        LynxLog.d(TAG, "Creating Instagram post: " + content);
         return true;
     }
     
     @Override
     public boolean authenticate(Map<String, String> authData) throws Exception {
         // In a real implementation, this would handle OAuth authentication with Instagram
-        Log.d(TAG, "Authenticating with Instagram");
+        LynxLog.d(TAG, "Authenticating with Instagram");
         return true;
     }
     
     @Override
     public boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) throws Exception {
         // In a real implementation, this would use Lynx's Fetch API to perform the interaction
-        Log.d(TAG, "Performing " + interactionType + " on Instagram post " + postId);
+        LynxLog.d(TAG, "Performing " + interactionType + " on Instagram post " + postId);
         return true;
     }
 }
@@ -121,19 +216,37 @@ class InstagramClient implements LynxPlatformClient {
 class TikTokClient implements LynxPlatformClient {
     private static final String TAG = "TikTokClient";
     private static final String BASE_URL = "https://open.tiktokapis.com/v2/";
+    private static final int MOCK_TIMELINE_SIZE = 100;
     
-    private final OkHttpClient httpClient;
+    private final PlatformApi api;
     
-    public TikTokClient(OkHttpClient httpClient) {
-        this.httpClient = httpClient;
+    public TikTokClient(PlatformApi api) {
+        this.api = api;
     }
     
     @Override
-    public List<UnifiedPost> fetchPosts(int limit) throws Exception {
-        // Similar to Instagram client, but for TikTok
+    public FeedPage fetchPage(String cursor, int limit) throws Exception {
+        // Similar to Instagram client, but for TikTok, whose video list is a POST
+        if (api.isSignedIn(PlatformType.TIKTOK)) {
+            HttpUrl url = HttpUrl.get(BASE_URL + "video/list/").newBuilder()
+                    .addQueryParameter("fields", "id,video_description,cover_image_url,share_url,width,height,duration,create_time,like_count,comment_count,share_count")
+                    .build();
+            // 20 is the API's maximum page size
+            String body = "{\"max_count\":" + Math.min(limit, 20)
+                    + (cursor != null ? ",\"cursor\":" + Long.parseLong(cursor) : "") + "}";
+            Request request = new Request.Builder()
+                    .url(url)
+                    .post(RequestBody.create(body, okhttp3.MediaType.get("application/json")))
+                    .build();
+            return api.fetchFeed(request, new TikTokFeedDecoder());
+        }
+        
+        // TikTok continues with a numeric 'cursor'; the mock encodes the post offset
+        int offset = cursor != null ? Integer.parseInt(cursor) : 0;
+        int end = Math.min(offset + limit, MOCK_TIMELINE_SIZE);
         List<UnifiedPost> posts = new ArrayList<>();
         
-        for (int i = 1; i <= limit; i++) {
+        for (int i = offset + 1; i <= end; i++) {
             String id = "tt_" + UUID.randomUUID().toString();
             
             UnifiedAuthor author = new UnifiedAuthor(
@@ -164,38 +277,83 @@ class TikTokClient implements LynxPlatformClient {
                     author,
                     "Check out this TikTok #" + i + " with amazing dot matrix effects! #nukie #viral",
                     mediaItems,
-                    System.currentTimeMillis() - (i * 1800000), // Posts at different times
+                    System.currentTimeMillis() - (i * 1800000L), // Posts at different times
                     1000 + i * 100, // Likes
                     50 + i * 5,     // Comments
                     200 + i * 20,   // Shares
                     i % 3 == 0,     // Some posts are liked by user
-                    i % 7 == 0      // Some posts are bookmarked
+                    i % 7 == 0,     // Some posts are bookmarked
+                    null            // No platform-specific data
             );
             
             posts.add(post);
         }
         
-        return posts;
+        String nextCursor = end < MOCK_TIMELINE_SIZE ? String.valueOf(end) : null;
+        return new FeedPage(posts, nextCursor, nextCursor != null);
     }
     
     @Override
     public boolean createPost(String content, List<String> mediaFiles) throws Exception {
-        // In a real implementation, this would use Lynx's Fetch API to call TikTok's API
-        Log.d(TAG, "Creating TikTok post: " + content);
+        // Signed-in users' videos go up in resumable chunks, continuing from the last
+        // acknowledged chunk after interruptions
+        if (api.isSignedIn(PlatformType.TIKTOK) && mediaFiles != null && !mediaFiles.isEmpty()) {
+            for (String path : mediaFiles) {
+                api.uploadMedia(PlatformType.TIKTOK, new File(path), totalBytes -> openUploadSession(content, totalBytes));
+            }
+            LynxLog.d(TAG, "Uploaded " + mediaFiles.size() + " videos to TikTok");
+            return true;
+        }
+        
+        // In a real implementation, text-only posts would use Lynx's Fetch API to call TikTok's API
+        LynxLog.d(TAG, "Creating TikTok post: " + content);
         return true;
     }
     
+    /**
+     * Starts a FILE_UPLOAD publish and returns the URL its chunks are PUT to.
+     */
+    private String openUploadSession(String content, long totalBytes) throws IOException {
+        long chunkSize = Math.min(totalBytes, ChunkedUploader.DEFAULT_CHUNK_SIZE);
+        JsonObject postInfo = new JsonObject();
+        postInfo.addProperty("title", content);
+        JsonObject sourceInfo = new JsonObject();
+        sourceInfo.addProperty("source", "FILE_UPLOAD");
+        sourceInfo.addProperty("video_size", totalBytes);
+        sourceInfo.addProperty("chunk_size", chunkSize);
+        sourceInfo.addProperty("total_chunk_count", (totalBytes + chunkSize - 1) / chunkSize);
+        JsonObject body = new JsonObject();
+        body.add("post_info", postInfo);
+        body.add("source_info", sourceInfo);
+        
+        Request request = new Request.Builder()
+                .url(BASE_URL + "post/publish/video/init/")
+                .post(RequestBody.create(body.toString(), okhttp3.MediaType.get("application/json")))
+                .build();
+        try (Response response = api.getFeedClient().newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("TikTok publish init failed: HTTP " + response.code());
+            }
+            try {
+                return JsonParser.parseString(response.body().string())
+                        .getAsJsonObject().getAsJsonObject("data").get("upload_url").getAsString();
+            } catch (RuntimeException e) {
+                throw new IOException("TikTok publish init returned no upload URL", e);
+            }
+        }
+    }
+    
     @Override
     public boolean authenticate(Map<String, String> authData) throws Exception {
         // In a real implementation, this would handle OAuth authentication with TikTok
-        Log.d(TAG, "Authenticating with TikTok");
+        LynxLog.d(TAG, "Authenticating with TikTok");
         return true;
     }
     
     @Override
     public boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) throws Exception {
         // In a real implementation, this would use Lynx's Fetch API to perform the interaction
-        Log.d(TAG, "Performing " + interactionType + " on TikTok post " + postId);
+        LynxLog.d(TAG, "Performing " + interactionType + " on TikTok post " + postId);
         return true;
     }
 }
@@ -206,19 +364,36 @@ class TikTokClient implements LynxPlatformClient {
 class YouTubeClient implements LynxPlatformClient {
     private static final String TAG = "YouTubeClient";
     private static final String BASE_URL = "https://www.googleapis.com/youtube/v3/";
+    private static final String UPLOAD_URL = "https://www.googleapis.com/upload/youtube/v3/";
+    private static final int MOCK_TIMELINE_SIZE = 100;
     
-    private final OkHttpClient httpClient;
+    private final PlatformApi api;
     
-    public YouTubeClient(OkHttpClient httpClient) {
-        this.httpClient = httpClient;
+    public YouTubeClient(PlatformApi api) {
+        this.api = api;
     }
     
     @Override
-    public List<UnifiedPost> fetchPosts(int limit) throws Exception {
+    public FeedPage fetchPage(String cursor, int limit) throws Exception {
         // Implementation for YouTube
+        if (api.isSignedIn(PlatformType.YOUTUBE)) {
+            // 50 is the API's maximum page size
+            HttpUrl.Builder url = HttpUrl.get(BASE_URL + "videos").newBuilder()
+                    .addQueryParameter("part", "snippet,statistics")
+                    .addQueryParameter("chart", "mostPopular")
+                    .addQueryParameter("maxResults", String.valueOf(Math.min(limit, 50)));
+            if (cursor != null) {
+                url.addQueryParameter("pageToken", cursor);
+            }
+            return api.fetchFeed(new Request.Builder().url(url.build()).build(), new YouTubeFeedDecoder());
+        }
+        
+        // YouTube continues with 'pageToken'; the mock encodes the post offset
+        int offset = cursor != null ? Integer.parseInt(cursor) : 0;
+        int end = Math.min(offset + limit, MOCK_TIMELINE_SIZE);
         List<UnifiedPost> posts = new ArrayList<>();
         
-        for (int i = 1; i <= limit; i++) {
+        for (int i = offset + 1; i <= end; i++) {
             String id = "yt_" + UUID.randomUUID().toString();
             
             UnifiedAuthor author = new UnifiedAuthor(
@@ -249,38 +424,76 @@ class YouTubeClient implements LynxPlatformClient {
                     author,
                     "Nukie App Tutorial #" + i + " - Creating Dot Matrix Effects | Subscribe for more!",
                     mediaItems,
-                    System.currentTimeMillis() - (i * 86400000), // Posts at different days
+                    System.currentTimeMillis() - (i * 86400000L), // Posts at different days
                     5000 + i * 500,  // Likes
                     300 + i * 30,    // Comments
                     100 + i * 10,    // Shares
                     i % 4 == 0,      // Some videos are liked by user
-                    i % 5 == 0       // Some videos are bookmarked
+                    i % 5 == 0,      // Some videos are bookmarked
+                    null             // No platform-specific data
             );
             
             posts.add(post);
         }
         
-        return posts;
+        String nextCursor = end < MOCK_TIMELINE_SIZE ? String.valueOf(end) : null;
+        return new FeedPage(posts, nextCursor, nextCursor != null);
     }
     
     @Override
     public boolean createPost(String content, List<String> mediaFiles) throws Exception {
-        // YouTube video upload would be implemented here
-        Log.d(TAG, "Creating YouTube video: " + content);
+        // Signed-in users' videos go up as resumable uploads, so interrupted uploads continue
+        if (api.isSignedIn(PlatformType.YOUTUBE) && mediaFiles != null && !mediaFiles.isEmpty()) {
+            for (String path : mediaFiles) {
+                api.uploadMedia(PlatformType.YOUTUBE, new File(path), totalBytes -> openUploadSession(content, totalBytes));
+            }
+            LynxLog.d(TAG, "Uploaded " + mediaFiles.size() + " videos to YouTube");
+            return true;
+        }
+        
+        LynxLog.d(TAG, "Creating YouTube video: " + content);
         return true;
     }
     
+    /**
+     * Starts a videos.insert resumable upload and returns its session URL.
+     */
+    private String openUploadSession(String content, long totalBytes) throws IOException {
+        JsonObject snippet = new JsonObject();
+        // Titles are limited to 100 characters; the full text goes into the description
+        snippet.addProperty("title", content.length() > 100 ? content.substring(0, 100) : content);
+        snippet.addProperty("description", content);
+        JsonObject status = new JsonObject();
+        status.addProperty("privacyStatus", "private");
+        JsonObject body = new JsonObject();
+        body.add("snippet", snippet);
+        body.add("status", status);
+        
+        Request request = new Request.Builder()
+                .url(UPLOAD_URL + "videos?uploadType=resumable&part=snippet,status")
+                .header("X-Upload-Content-Length", String.valueOf(totalBytes))
+                .post(RequestBody.create(body.toString(), okhttp3.MediaType.get("application/json")))
+                .build();
+        try (Response response = api.getFeedClient().newCall(request).execute()) {
+            String sessionUrl = response.header("Location");
+            if (!response.isSuccessful() || sessionUrl == null) {
+                throw new IOException("YouTube upload session failed: HTTP " + response.code());
+            }
+            return sessionUrl;
+        }
+    }
+    
     @Override
     public boolean authenticate(Map<String, String> authData) throws Exception {
         // OAuth for YouTube
-        Log.d(TAG, "Authenticating with YouTube");
+        LynxLog.d(TAG, "Authenticating with YouTube");
         return true;
     }
     
     @Override
     public boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) throws Exception {
         // Like, comment, etc. on YouTube
-        Log.d(TAG, "Performing " + interactionType + " on YouTube video " + postId);
+        LynxLog.d(TAG, "Performing " + interactionType + " on YouTube video " + postId);
         return true;
     }
 }
@@ -291,19 +504,32 @@ class YouTubeClient implements LynxPlatformClient {
 class BlueskyClient implements LynxPlatformClient {
     private static final String TAG = "BlueskyClient";
     private static final String BASE_URL = "https://bsky.social/xrpc/";
+    private static final int MOCK_TIMELINE_SIZE = 100;
     
-    private final OkHttpClient httpClient;
+    private final PlatformApi api;
     
-    public BlueskyClient(OkHttpClient httpClient) {
-        this.httpClient = httpClient;
+    public BlueskyClient(PlatformApi api) {
+        this.api = api;
     }
     
     @Override
-    public List<UnifiedPost> fetchPosts(int limit) throws Exception {
+    public FeedPage fetchPage(String cursor, int limit) throws Exception {
         // Implementation for Bluesky
+        if (api.isSignedIn(PlatformType.BLUESKY)) {
+            HttpUrl.Builder url = HttpUrl.get(BASE_URL + "app.bsky.feed.getTimeline").newBuilder()
+                    .addQueryParameter("limit", String.valueOf(limit));
+            if (cursor != null) {
+                url.addQueryParameter("cursor", cursor);
+            }
+            return api.fetchFeed(new Request.Builder().url(url.build()).build(), new BlueskyFeedDecoder());
+        }
+        
+        // Bluesky continues with an opaque 'cursor'; the mock encodes the post offset
+        int offset = cursor != null ? Integer.parseInt(cursor) : 0;
+        int end = Math.min(offset + limit, MOCK_TIMELINE_SIZE);
         List<UnifiedPost> posts = new ArrayList<>();
         
-        for (int i = 1; i <= limit; i++) {
+        for (int i = offset + 1; i <= end; i++) {
             String id = "bsky_" + UUID.randomUUID().toString();
             
             UnifiedAuthor author = new UnifiedAuthor(
@@ -336,40 +562,50 @@ class BlueskyClient implements LynxPlatformClient {
                     author,
                     "Exploring the decentralized web with Nukie app! Post #" + i + " #dotmatrix #decentralized",
                     mediaItems,
-                    System.currentTimeMillis() - (i * 7200000), // Posts at different hours
+                    System.currentTimeMillis() - (i * 7200000L), // Posts at different hours
                     50 + i * 5,   // Likes
                     10 + i,       // Comments
                     5 + (i / 2),  // Shares
                     i % 3 == 0,   // Some posts are liked by user
-                    i % 10 == 0   // Some posts are bookmarked
+                    i % 10 == 0,  // Some posts are bookmarked
+                    null          // No platform-specific data
             );
             
             posts.add(post);
         }
         
-        return posts;
+        String nextCursor = end < MOCK_TIMELINE_SIZE ? String.valueOf(end) : null;
+        return new FeedPage(posts, nextCursor, nextCursor != null);
     }
     
     @Override
     public boolean createPost(String content, List<String> mediaFiles) throws Exception {
         // Bluesky post creation
-        Log.d(TAG, "Creating Bluesky post: " + content);
+        LynxLog.d(TAG, "Creating Bluesky post: " + content);
         return true;
     }
     
     @Override
     public boolean authenticate(Map<String, String> authData) throws Exception {
         // Bluesky authentication
-        Log.d(TAG, "Authenticating with Bluesky");
+        LynxLog.d(TAG, "Authenticating with Bluesky");
         return true;
     }
     
     @Override
     public boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) throws Exception {
         // Like, reply, repost on Bluesky
-        Log.d(TAG, "Performing " + interactionType + " on Bluesky post " + postId);
+        LynxLog.d(TAG, "Performing " + interactionType + " on Bluesky post " + postId);
         return true;
     }
+    
+    @Override
+    public Outbox.BatchResult performInteractions(List<OutboxOperation> batch) throws Exception {
+        // Bluesky writes like and repost records in bulk through com.atproto.repo.applyWrites,
+        // so a whole batch is one request
+        LynxLog.d(TAG, "Applying " + batch.size() + " interactions on Bluesky in one write");
+        return Outbox.BatchResult.acceptedAll(batch);
+    }
 }
 
 /**
@@ -378,19 +614,32 @@ class BlueskyClient implements LynxPlatformClient {
 class MastodonClient implements LynxPlatformClient {
     private static final String TAG = "MastodonClient";
     private static final String BASE_URL = "https://mastodon.social/api/v1/";
+    private static final int MOCK_TIMELINE_SIZE = 100;
     
-    private final OkHttpClient httpClient;
+    private final PlatformApi api;
     
-    public MastodonClient(OkHttpClient httpClient) {
-        this.httpClient = httpClient;
+    public MastodonClient(PlatformApi api) {
+        this.api = api;
     }
     
     @Override
-    public List<UnifiedPost> fetchPosts(int limit) throws Exception {
+    public FeedPage fetchPage(String cursor, int limit) throws Exception {
         // Implementation for Mastodon
+        if (api.isSignedIn(PlatformType.MASTODON)) {
+            HttpUrl.Builder url = HttpUrl.get(BASE_URL + "timelines/home").newBuilder()
+                    .addQueryParameter("limit", String.valueOf(limit));
+            if (cursor != null) {
+                url.addQueryParameter("max_id", cursor);
+            }
+            return api.fetchFeed(new Request.Builder().url(url.build()).build(), new MastodonFeedDecoder());
+        }
+        
+        // Mastodon continues with 'max_id', the id of the oldest status already seen
+        int offset = cursor != null ? Integer.parseInt(cursor.substring(cursor.lastIndexOf('_') + 1)) : 0;
+        int end = Math.min(offset + limit, MOCK_TIMELINE_SIZE);
         List<UnifiedPost> posts = new ArrayList<>();
         
-        for (int i = 1; i <= limit; i++) {
+        for (int i = offset + 1; i <= end; i++) {
             String id = "masto_" + UUID.randomUUID().toString();
             
             UnifiedAuthor author = new UnifiedAuthor(
@@ -423,38 +672,40 @@ class MastodonClient implements LynxPlatformClient {
                     author,
                     "Tooting about the Nukie app with its amazing dot matrix design! #" + i + " #fediverse #dotmatrix",
                     mediaItems,
-                    System.currentTimeMillis() - (i * 5400000), // Posts at different times
+                    System.currentTimeMillis() - (i * 5400000L), // Posts at different times
                     30 + i * 3,   // Likes
                     15 + i,       // Comments
                     20 + i * 2,   // Shares
                     i % 5 == 0,   // Some posts are liked by user
-                    i % 8 == 0    // Some posts are bookmarked
+                    i % 8 == 0,   // Some posts are bookmarked
+                    null          // No platform-specific data
             );
             
             posts.add(post);
         }
         
-        return posts;
+        String nextCursor = end < MOCK_TIMELINE_SIZE ? "masto_status_" + end : null;
+        return new FeedPage(posts, nextCursor, nextCursor != null);
     }
     
     @Override
     public boolean createPost(String content, List<String> mediaFiles) throws Exception {
         // Mastodon toot creation
-        Log.d(TAG, "Creating Mastodon toot: " + content);
+        LynxLog.d(TAG, "Creating Mastodon toot: " + content);
         return true;
     }
     
     @Override
     public boolean authenticate(Map<String, String> authData) throws Exception {
         // Mastodon authentication
-        Log.d(TAG, "Authenticating with Mastodon");
+        LynxLog.d(TAG, "Authenticating with Mastodon");
         return true;
     }
     
     @Override
     public boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) throws Exception {
         // Favorite, reply, boost on Mastodon
-        Log.d(TAG, "Performing " + interactionType + " on Mastodon toot " + postId);
+        LynxLog.d(TAG, "Performing " + interactionType + " on Mastodon toot " + postId);
         return true;
     }
 }
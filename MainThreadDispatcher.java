@@ -0,0 +1,84 @@
+package com.nukie.app.lynx;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers results from background threads to the main thread, one batch per frame.
+ * 
+ * Instead of one main-thread message per completed operation, everything dispatched before
+ * the next frame runs together in a single frame callback, so a burst of completions (five
+ * platforms answering, a dozen interactions confirming) causes one round of list diffing
+ * and layout rather than many. Results dispatched under the same key replace each other
+ * while they wait, so only the latest state for that key (e.g. the feed of one filter) is
+ * delivered.
+ * 
+ * Batches run in arrival order; a replaced result takes the place of the newest one.
+ */
+public final class MainThreadDispatcher {
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<Object, Runnable> pending = new LinkedHashMap<>();
+    private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> flush();
+    private boolean frameScheduled;
+    
+    /**
+     * Runs {@code action} on the main thread with the next frame's batch.
+     */
+    public void dispatch(Runnable action) {
+        // A fresh key is never replaced
+        dispatch(new Object(), action);
+    }
+    
+    /**
+     * Runs {@code action} on the main thread with the next frame's batch, replacing an action
+     * for the same key that has not run yet.
+     * 
+     * @param key Identifies the state the action delivers, e.g. a feed filter; compared with equals
+     */
+    public void dispatch(Object key, Runnable action) {
+        synchronized (this) {
+            // Re-inserted so the newest state runs after everything that arrived before it
+            pending.remove(key);
+            pending.put(key, action);
+            if (frameScheduled) {
+                return;
+            }
+            frameScheduled = true;
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            scheduleFrame();
+        } else {
+            // The Choreographer belongs to the main thread's looper
+            mainHandler.post(this::scheduleFrame);
+        }
+    }
+    
+    /**
+     * Drops the pending action for {@code key}, e.g. when the screen showing it goes away.
+     */
+    public synchronized void cancel(Object key) {
+        pending.remove(key);
+    }
+    
+    private void scheduleFrame() {
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+    
+    private void flush() {
+        List<Runnable> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+            frameScheduled = false;
+        }
+        for (Runnable action : batch) {
+            action.run();
+        }
+    }
+}
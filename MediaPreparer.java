@@ -0,0 +1,167 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Prepares post attachments once for all platforms they are published to.
+ * 
+ * Each file is read and hashed once per version (path, size and modification time); the
+ * per-platform renditions are then keyed by content hash and platform, so the same video
+ * cross-posted to five networks, or posted again later, is never encoded twice. Renditions
+ * are kept on disk and survive restarts.
+ */
+final class MediaPreparer {
+    private static final String TAG = "MediaPreparer";
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+    
+    /** Transcoder that uploads every attachment as is. */
+    static final Transcoder PASS_THROUGH = (source, platform, target) -> false;
+    
+    private final File renditionDirectory;
+    private final Transcoder transcoder;
+    private final Map<String, String> hashesByFileVersion = new ConcurrentHashMap<>();
+    private final Map<String, FutureTask<File>> renditions = new ConcurrentHashMap<>();
+    
+    MediaPreparer(File renditionDirectory, Transcoder transcoder) {
+        this.renditionDirectory = renditionDirectory;
+        this.transcoder = transcoder;
+    }
+    
+    /**
+     * Reads and hashes an attachment, unless this version of the file was hashed before.
+     */
+    PreparedMedia prepare(String path) throws IOException {
+        File file = new File(path);
+        if (!file.isFile()) {
+            throw new FileNotFoundException(path);
+        }
+        
+        String versionKey = file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified();
+        String contentHash = hashesByFileVersion.get(versionKey);
+        if (contentHash == null) {
+            contentHash = sha256(file);
+            hashesByFileVersion.put(versionKey, contentHash);
+        }
+        return new PreparedMedia(file, contentHash);
+    }
+    
+    /**
+     * Returns the file to upload to {@code platform}, creating the rendition if no thread has
+     * created it yet; concurrent callers asking for the same rendition wait for one encode.
+     */
+    File renditionFor(PreparedMedia media, PlatformType platform) throws IOException {
+        String key = media.getContentHash() + '-' + platform.name().toLowerCase(Locale.ROOT);
+        FutureTask<File> task = new FutureTask<>(() -> createRendition(media, platform, key));
+        FutureTask<File> existing = renditions.putIfAbsent(key, task);
+        if (existing == null) {
+            existing = task;
+            task.run();
+        }
+        
+        try {
+            return existing.get();
+        } catch (ExecutionException e) {
+            // Let the next publish try again
+            renditions.remove(key, existing);
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while preparing media");
+        }
+    }
+    
+    private File createRendition(PreparedMedia media, PlatformType platform, String key) throws IOException {
+        File source = media.getFile();
+        String name = source.getName();
+        int dot = name.lastIndexOf('.');
+        File target = new File(renditionDirectory, key + (dot >= 0 ? name.substring(dot) : ""));
+        if (target.isFile()) {
+            // Encoded by an earlier publish, possibly in an earlier process
+            return target;
+        }
+        
+        if (!renditionDirectory.mkdirs() && !renditionDirectory.isDirectory()) {
+            throw new IOException("Could not create " + renditionDirectory);
+        }
+        File partial = new File(renditionDirectory, target.getName() + ".partial");
+        if (!transcoder.transcode(source, platform, partial)) {
+            partial.delete();
+            return source;
+        }
+        if (!partial.renameTo(target)) {
+            throw new IOException("Could not store rendition " + target);
+        }
+        LynxLog.d(TAG, "Created " + platform + " rendition of " + name);
+        return target;
+    }
+    
+    private static String sha256(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format(Locale.ROOT, "%02x", b));
+        }
+        return hex.toString();
+    }
+    
+    /**
+     * An attachment read and hashed once for a publish.
+     */
+    static final class PreparedMedia {
+        private final File file;
+        private final String contentHash;
+        
+        PreparedMedia(File file, String contentHash) {
+            this.file = file;
+            this.contentHash = contentHash;
+        }
+        
+        File getFile() {
+            return file;
+        }
+        
+        String getContentHash() {
+            return contentHash;
+        }
+    }
+    
+    /**
+     * Re-encodes attachments to a platform's limits (resolution, aspect ratio, size).
+     */
+    interface Transcoder {
+        /**
+         * @param target File to write the rendition to
+         * @return False if the source can be uploaded to the platform as is
+         */
+        boolean transcode(File source, PlatformType platform, File target) throws IOException;
+    }
+}
@@ -0,0 +1,71 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Snapshot of queued and running HTTP calls per platform and lane.
+ */
+public final class NetworkActivity {
+    private final Map<PlatformType, int[]> counts = new EnumMap<>(PlatformType.class);
+    private int otherQueued;
+    private int otherRunning;
+    
+    NetworkActivity() {
+        for (PlatformType platform : PlatformType.values()) {
+            // queued and running per lane
+            counts.put(platform, new int[RequestLane.values().length * 2]);
+        }
+    }
+    
+    void record(PlatformType platform, RequestLane lane, boolean running) {
+        if (platform == null) {
+            if (running) {
+                otherRunning++;
+            } else {
+                otherQueued++;
+            }
+            return;
+        }
+        counts.get(platform)[lane.ordinal() * 2 + (running ? 1 : 0)]++;
+    }
+    
+    public int getQueuedCount(PlatformType platform, RequestLane lane) {
+        return counts.get(platform)[lane.ordinal() * 2];
+    }
+    
+    public int getRunningCount(PlatformType platform, RequestLane lane) {
+        return counts.get(platform)[lane.ordinal() * 2 + 1];
+    }
+    
+    /**
+     * Queued calls to hosts that belong to no platform.
+     */
+    public int getOtherQueuedCount() {
+        return otherQueued;
+    }
+    
+    /**
+     * Running calls to hosts that belong to no platform.
+     */
+    public int getOtherRunningCount() {
+        return otherRunning;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("NetworkActivity{");
+        for (PlatformType platform : PlatformType.values()) {
+            builder.append(platform).append("=[");
+            for (RequestLane lane : RequestLane.values()) {
+                builder.append(lane).append(' ')
+                        .append(getRunningCount(platform, lane)).append(" running/")
+                        .append(getQueuedCount(platform, lane)).append(" queued ");
+            }
+            builder.append("] ");
+        }
+        return builder.append("other=").append(otherRunning).append('/').append(otherQueued).append('}').toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.nukie.app.lynx;
+
+/**
+ * Networking policy for the shared platform HTTP stack: concurrency budgets per lane and per
+ * host, connection pool sizing and protocol preference.
+ * 
+ * Feed calls and media transfers get separate budgets (see {@link RequestLane}). The media lane
+ * is deliberately smaller so heavy scrolling, which triggers many thumbnail loads, leaves
+ * room for the next feed page.
+ */
+public final class NetworkPolicy {
+    private final int maxFeedRequests;
+    private final int maxFeedRequestsPerHost;
+    private final int maxMediaRequests;
+    private final int maxMediaRequestsPerHost;
+    private final int maxIdleConnections;
+    private final long keepAliveMs;
+    private final boolean preferHttp2;
+    
+    public NetworkPolicy(
+            int maxFeedRequests,
+            int maxFeedRequestsPerHost,
+            int maxMediaRequests,
+            int maxMediaRequestsPerHost,
+            int maxIdleConnections,
+            long keepAliveMs,
+            boolean preferHttp2) {
+        
+        if (maxFeedRequests < 1 || maxFeedRequestsPerHost < 1 || maxMediaRequests < 1 || maxMediaRequestsPerHost < 1) {
+            throw new IllegalArgumentException("Request limits must be at least 1");
+        }
+        if (maxIdleConnections < 0 || keepAliveMs <= 0) {
+            throw new IllegalArgumentException("Invalid connection pool configuration");
+        }
+        this.maxFeedRequests = maxFeedRequests;
+        this.maxFeedRequestsPerHost = maxFeedRequestsPerHost;
+        this.maxMediaRequests = maxMediaRequests;
+        this.maxMediaRequestsPerHost = maxMediaRequestsPerHost;
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveMs = keepAliveMs;
+        this.preferHttp2 = preferHttp2;
+    }
+    
+    /**
+     * Defaults tuned for five platform APIs plus their CDNs on a phone: every platform can run
+     * a couple of feed calls at once, media is capped well below that, and idle connections
+     * (one per platform API and CDN) are kept warm for five minutes.
+     */
+    public static NetworkPolicy defaults() {
+        return new NetworkPolicy(16, 4, 8, 2, 10, 5 * 60 * 1000L, true);
+    }
+    
+    public int getMaxFeedRequests() {
+        return maxFeedRequests;
+    }
+    
+    public int getMaxFeedRequestsPerHost() {
+        return maxFeedRequestsPerHost;
+    }
+    
+    public int getMaxMediaRequests() {
+        return maxMediaRequests;
+    }
+    
+    public int getMaxMediaRequestsPerHost() {
+        return maxMediaRequestsPerHost;
+    }
+    
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+    
+    public long getKeepAliveMs() {
+        return keepAliveMs;
+    }
+    
+    /**
+     * True to negotiate HTTP/2 where the server supports it, so calls to one host multiplex
+     * over a single connection; false to force HTTP/1.1 (e.g. when debugging with a proxy).
+     */
+    public boolean isPreferHttp2() {
+        return preferHttp2;
+    }
+}
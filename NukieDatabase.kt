@@ -1,8 +1,12 @@
 package com.nukie.app.data.db
 
+import android.content.Context
 import androidx.room.Database
+import androidx.room.Room
 import androidx.room.RoomDatabase
 import androidx.room.TypeConverters
+import androidx.room.migration.Migration
+import androidx.sqlite.db.SupportSQLiteDatabase
 import com.nukie.app.data.db.dao.*
 import com.nukie.app.data.db.entity.*
 import com.nukie.app.data.db.converter.DateConverter
@@ -18,12 +22,12 @@ import com.nukie.app.data.db.converter.StringListConverter
         DraftMedia::class,
         TokenBalance::class,
         TokenTransaction::class,
-        UserInteraction::class,
+        OutboxEntry::class,
         FeedPosition::class,
         AppSetting::class,
         SyncStatus::class
     ],
-    version = 1,
+    version = 2,
     exportSchema = true
 )
 @TypeConverters(DateConverter::class, StringListConverter::class)
@@ -33,8 +37,50 @@ abstract class NukieDatabase : RoomDatabase() {
     abstract fun socialPostsDao(): SocialPostsDao
     abstract fun draftsDao(): DraftsDao
     abstract fun tokensDao(): TokensDao
-    abstract fun userInteractionsDao(): UserInteractionsDao
+    abstract fun outboxDao(): OutboxDao
     abstract fun feedPositionsDao(): FeedPositionsDao
     abstract fun appSettingsDao(): AppSettingsDao
     abstract fun syncStatusDao(): SyncStatusDao
+    
+    companion object {
+        private const val DATABASE_NAME = "nukie-db"
+        
+        fun create(context: Context): NukieDatabase =
+            Room.databaseBuilder(context.applicationContext, NukieDatabase::class.java, DATABASE_NAME)
+                .addMigrations(MIGRATION_1_2)
+                .build()
+    }
+}
+
+/**
+ * Version 2 replaces user_interactions with the outbox, which journals interactions until
+ * the platform accepts them, and keys sync status by account, with the newest
+ * synced item as the delta sync watermark. Existing sync rows move to the default account
+ * that LynxIntegrationManager tracks when sign-in data does not name one.
+ */
+val MIGRATION_1_2 = object : Migration(1, 2) {
+    override fun migrate(database: SupportSQLiteDatabase) {
+        database.execSQL(
+            "CREATE TABLE IF NOT EXISTS `outbox_operations` (`id` TEXT NOT NULL, `postId` TEXT NOT NULL, " +
+                "`platform` TEXT NOT NULL, `platformPostId` TEXT, `operationType` TEXT NOT NULL, `payload` TEXT, " +
+                "`mediaFiles` TEXT, `createdAt` INTEGER NOT NULL, `status` TEXT NOT NULL, " +
+                "`attemptCount` INTEGER NOT NULL, PRIMARY KEY(`id`))"
+        )
+        database.execSQL("DROP TABLE IF EXISTS `user_interactions`")
+        
+        // SQLite cannot change a primary key in place, so the table is copied and swapped
+        database.execSQL(
+            "CREATE TABLE IF NOT EXISTS `sync_status_new` (`platform` TEXT NOT NULL, `accountId` TEXT NOT NULL, " +
+                "`lastSyncTime` INTEGER NOT NULL, `nextSyncTime` INTEGER, `syncInterval` INTEGER NOT NULL, " +
+                "`isAutoSync` INTEGER NOT NULL, `newestItemId` TEXT, `newestItemTimestamp` INTEGER, " +
+                "PRIMARY KEY(`platform`, `accountId`))"
+        )
+        database.execSQL(
+            "INSERT INTO `sync_status_new` (`platform`, `accountId`, `lastSyncTime`, `nextSyncTime`, " +
+                "`syncInterval`, `isAutoSync`) SELECT `platform`, 'default', `lastSyncTime`, `nextSyncTime`, " +
+                "`syncInterval`, `isAutoSync` FROM `sync_status`"
+        )
+        database.execSQL("DROP TABLE `sync_status`")
+        database.execSQL("ALTER TABLE `sync_status_new` RENAME TO `sync_status`")
+    }
 }
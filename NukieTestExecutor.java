@@ -3,6 +3,7 @@ package com.nukie.app.test;
 import android.content.Context;
 import android.util.Log;
 
+import com.nukie.app.data.db.NukieDatabase;
 import com.nukie.app.data.repository.SocialRepository;
 
 /**
@@ -19,10 +20,10 @@ public class NukieTestExecutor {
     private final NukieTestRunner functionalTestRunner;
     private final NukieUITestRunner uiTestRunner;
     
-    public NukieTestExecutor(Context context, SocialRepository repository) {
+    public NukieTestExecutor(Context context, SocialRepository repository, NukieDatabase database) {
         this.context = context;
         this.repository = repository;
-        this.functionalTestRunner = new NukieTestRunner(context, repository);
+        this.functionalTestRunner = new NukieTestRunner(context, repository, database);
         this.uiTestRunner = new NukieUITestRunner(context);
     }
     
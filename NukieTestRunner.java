@@ -3,6 +3,7 @@ package com.nukie.app.test;
 import android.content.Context;
 import android.util.Log;
 
+import com.nukie.app.data.db.NukieDatabase;
 import com.nukie.app.data.model.PlatformType;
 import com.nukie.app.data.model.UnifiedPost;
 import com.nukie.app.data.repository.SocialRepository;
@@ -28,10 +29,10 @@ public class NukieTestRunner {
     private final LynxIntegrationManager lynxManager;
     private final SocialRepository repository;
     
-    public NukieTestRunner(Context context, SocialRepository repository) {
+    public NukieTestRunner(Context context, SocialRepository repository, NukieDatabase database) {
         this.context = context;
         this.repository = repository;
-        this.lynxManager = LynxIntegrationManager.getInstance(context, repository);
+        this.lynxManager = LynxIntegrationManager.getInstance(context, repository, database);
     }
     
     /**
@@ -0,0 +1,405 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+import com.nukie.app.data.model.UnifiedPost;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durable outbox for writes to the platforms: new posts and likes, comments and shares.
+ * 
+ * An operation is committed to the {@link Journal} and acknowledged right away; the outbox
+ * then replays pending operations in the background:
+ * <ul>
+ *   <li>Operations that cancel each other are dropped first (see {@link OutboxCoalescer}),
+ *   so a like followed by an unlike never reaches the platform.</li>
+ *   <li>Platforms are replayed in parallel. Within a platform operations go out in the order
+ *   the user performed them, so operations on one post are always serial; consecutive
+ *   interactions are sent in batches.</li>
+ *   <li>Taps that arrive within {@link #DEFAULT_LINGER_MS} of each other end up in the same
+ *   batch, so a burst of likes costs a few requests instead of one per tap.</li>
+ *   <li>Transient failures (offline, rate limited, circuit open) keep operations pending and
+ *   are retried with backoff; operations the platform keeps rejecting are marked failed after
+ *   {@link #MAX_ATTEMPTS} attempts.</li>
+ * </ul>
+ */
+public final class Outbox {
+    private static final String TAG = "Outbox";
+    
+    /** How long the outbox waits after a tap for more taps to batch with it. */
+    static final long DEFAULT_LINGER_MS = 2000;
+    
+    /** Attempts after which a rejected operation is marked failed. */
+    static final int MAX_ATTEMPTS = 5;
+    
+    /** Largest batch of interactions sent to a platform at once. */
+    static final int MAX_BATCH_SIZE = 50;
+    
+    /** Pending operations loaded from the journal per replay. */
+    private static final int REPLAY_LIMIT = 200;
+    
+    private static final long INITIAL_BACKOFF_MS = 5_000;
+    private static final long MAX_BACKOFF_MS = 5 * 60_000;
+    
+    private final Journal journal;
+    private final BatchSender sender;
+    private final long lingerMs;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService platformExecutor;
+    private final Object replayLock = new Object();
+    private boolean replayScheduled;
+    private int consecutiveFailedReplays;
+    
+    public Outbox(Journal journal, BatchSender sender) {
+        this(journal, sender, DEFAULT_LINGER_MS);
+    }
+    
+    Outbox(Journal journal, BatchSender sender, long lingerMs) {
+        this.journal = journal;
+        this.sender = sender;
+        this.lingerMs = lingerMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lynx-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCount = new AtomicInteger();
+        this.platformExecutor = Executors.newFixedThreadPool(PlatformType.values().length, runnable -> {
+            Thread thread = new Thread(runnable, "lynx-outbox-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Replays operations left pending by a previous process, e.g. after the app was killed
+     * while offline.
+     */
+    public void start() {
+        scheduleReplay(0);
+    }
+    
+    /**
+     * Journals an interaction with an existing post and schedules it for sending. Blocks only
+     * on the journal write, never on the network.
+     * 
+     * @return The journaled operation
+     */
+    public OutboxOperation enqueueInteraction(
+            UnifiedPost post,
+            String interactionType,
+            Map<String, String> interactionData) {
+        
+        OutboxOperation operation = new OutboxOperation(
+                UUID.randomUUID().toString(),
+                post.getId(),
+                post.getPlatformType(),
+                post.getPlatformId(),
+                interactionType,
+                interactionData,
+                null,
+                System.currentTimeMillis(),
+                0);
+        journal.append(operation);
+        scheduleReplay(lingerMs);
+        return operation;
+    }
+    
+    /**
+     * Journals a new post for one platform and schedules it for publishing.
+     * 
+     * @param postId Local id of the post, shared by the operations for each platform
+     * @return The journaled operation
+     */
+    public OutboxOperation enqueuePost(
+            String postId,
+            PlatformType platform,
+            String content,
+            List<String> mediaFiles) {
+        
+        OutboxOperation operation = new OutboxOperation(
+                UUID.randomUUID().toString(),
+                postId,
+                platform,
+                null,
+                OutboxOperation.TYPE_CREATE_POST,
+                Collections.singletonMap("content", content),
+                mediaFiles,
+                System.currentTimeMillis(),
+                0);
+        journal.append(operation);
+        scheduleReplay(lingerMs);
+        return operation;
+    }
+    
+    /**
+     * Replays pending operations now, on the calling thread, e.g. when connectivity returns.
+     * 
+     * @return True if nothing is left pending afterwards
+     */
+    public boolean replay() {
+        boolean retry = replayPending();
+        if (retry) {
+            scheduleRetry();
+        }
+        return !retry && journal.loadPending(1).isEmpty();
+    }
+    
+    private void scheduleReplay(long delayMs) {
+        synchronized (this) {
+            if (replayScheduled) {
+                return;
+            }
+            replayScheduled = true;
+        }
+        scheduler.schedule(this::scheduledReplay, delayMs, TimeUnit.MILLISECONDS);
+    }
+    
+    private void scheduledReplay() {
+        synchronized (this) {
+            replayScheduled = false;
+        }
+        if (replayPending()) {
+            scheduleRetry();
+        }
+    }
+    
+    /**
+     * @return Whether some operations are still pending and need a retry
+     */
+    private boolean replayPending() {
+        synchronized (replayLock) {
+            List<OutboxOperation> pending;
+            try {
+                pending = journal.loadPending(REPLAY_LIMIT);
+            } catch (RuntimeException e) {
+                LynxLog.e(TAG, "Error reading the outbox", e);
+                return true;
+            }
+            if (pending.isEmpty()) {
+                consecutiveFailedReplays = 0;
+                return false;
+            }
+            
+            List<OutboxOperation> dropped = new ArrayList<>();
+            List<OutboxOperation> toSend = OutboxCoalescer.coalesce(pending, dropped);
+            if (!dropped.isEmpty()) {
+                LynxLog.d(TAG, "Coalesced away " + dropped.size() + " cancelling operations");
+                journal.remove(idsOf(dropped));
+            }
+            
+            // Group per platform, keeping the order in which the user performed them
+            Map<PlatformType, List<OutboxOperation>> byPlatform = new EnumMap<>(PlatformType.class);
+            for (OutboxOperation operation : toSend) {
+                List<OutboxOperation> platformOperations = byPlatform.get(operation.getPlatform());
+                if (platformOperations == null) {
+                    platformOperations = new ArrayList<>();
+                    byPlatform.put(operation.getPlatform(), platformOperations);
+                }
+                platformOperations.add(operation);
+            }
+            
+            Map<PlatformType, Future<Boolean>> replays = new EnumMap<>(PlatformType.class);
+            for (Map.Entry<PlatformType, List<OutboxOperation>> entry : byPlatform.entrySet()) {
+                replays.put(entry.getKey(), platformExecutor.submit(() -> replayPlatform(entry.getKey(), entry.getValue())));
+            }
+            
+            boolean retry = false;
+            for (Map.Entry<PlatformType, Future<Boolean>> replay : replays.entrySet()) {
+                try {
+                    retry |= replay.getValue().get();
+                } catch (ExecutionException e) {
+                    LynxLog.e(TAG, "Error replaying the outbox for " + replay.getKey(), e.getCause());
+                    retry = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+            }
+            
+            if (retry) {
+                return true;
+            }
+            consecutiveFailedReplays = 0;
+            if (pending.size() == REPLAY_LIMIT) {
+                // More operations than one replay takes
+                scheduleReplay(0);
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Sends one platform's operations in order: new posts one at a time, runs of consecutive
+     * interactions in batches.
+     * 
+     * @return Whether some of the platform's operations are still pending and need a retry
+     */
+    private boolean replayPlatform(PlatformType platform, List<OutboxOperation> operations) {
+        boolean retry = false;
+        int start = 0;
+        while (start < operations.size()) {
+            int end = start + 1;
+            if (!operations.get(start).isCreatePost()) {
+                while (end < operations.size() && end - start < MAX_BATCH_SIZE && !operations.get(end).isCreatePost()) {
+                    end++;
+                }
+            }
+            List<OutboxOperation> batch = operations.subList(start, end);
+            
+            try {
+                BatchResult result = sender.send(platform, batch);
+                journal.remove(result.getAccepted());
+                
+                List<OutboxOperation> rejected = new ArrayList<>();
+                int untried = 0;
+                for (OutboxOperation operation : batch) {
+                    if (result.getRejected().contains(operation.getId())) {
+                        rejected.add(operation);
+                    } else if (!result.getAccepted().contains(operation.getId())) {
+                        untried++;
+                    }
+                }
+                retry |= recordFailedAttempt(rejected);
+                LynxLog.d(TAG, "Sent " + result.getAccepted().size() + "/" + batch.size() + " operations to " + platform);
+                if (untried > 0) {
+                    // Sending stopped partway; the rest keep their order and attempt counts
+                    LynxLog.w(TAG, "Deferring " + (operations.size() - end + untried) + " operations for " + platform);
+                    return true;
+                }
+            } catch (IOException | PlatformUnavailableException e) {
+                // Offline, rate limited or circuit open: keep everything pending and try later
+                LynxLog.w(TAG, "Deferring " + (operations.size() - start) + " operations for " + platform
+                        + ": " + e.getMessage());
+                return true;
+            } catch (Exception e) {
+                // The batch was refused as a whole
+                LynxLog.e(TAG, "Error sending operations to " + platform, e);
+                retry |= recordFailedAttempt(batch);
+            }
+            start = end;
+        }
+        return retry;
+    }
+    
+    /**
+     * @return Whether some of the operations have attempts left
+     */
+    private boolean recordFailedAttempt(List<OutboxOperation> operations) {
+        List<String> exhausted = new ArrayList<>();
+        List<String> retryable = new ArrayList<>();
+        for (OutboxOperation operation : operations) {
+            if (operation.getAttemptCount() + 1 >= MAX_ATTEMPTS) {
+                exhausted.add(operation.getId());
+            } else {
+                retryable.add(operation.getId());
+            }
+        }
+        if (!exhausted.isEmpty()) {
+            LynxLog.w(TAG, "Giving up on " + exhausted.size() + " operations after " + MAX_ATTEMPTS + " attempts");
+            journal.markFailed(exhausted);
+        }
+        if (!retryable.isEmpty()) {
+            journal.recordAttempt(retryable);
+        }
+        return !retryable.isEmpty();
+    }
+    
+    private void scheduleRetry() {
+        long backoffMs;
+        synchronized (replayLock) {
+            consecutiveFailedReplays++;
+            backoffMs = INITIAL_BACKOFF_MS << Math.min(consecutiveFailedReplays - 1, 10);
+        }
+        scheduleReplay(Math.min(backoffMs, MAX_BACKOFF_MS));
+    }
+    
+    private static List<String> idsOf(List<OutboxOperation> operations) {
+        List<String> ids = new ArrayList<>(operations.size());
+        for (OutboxOperation operation : operations) {
+            ids.add(operation.getId());
+        }
+        return ids;
+    }
+    
+    /**
+     * Durable store of outbox operations, backed by the outbox_operations table in the app.
+     * 
+     * Operations are pending until removed (sent, or coalesced away) or marked failed.
+     */
+    public interface Journal {
+        void append(OutboxOperation operation);
+        
+        /**
+         * @return Up to {@code limit} pending operations, oldest first
+         */
+        List<OutboxOperation> loadPending(int limit);
+        
+        void remove(Collection<String> ids);
+        void markFailed(Collection<String> ids);
+        
+        /**
+         * Counts one more failed attempt for each operation; they stay pending.
+         */
+        void recordAttempt(Collection<String> ids);
+    }
+    
+    /**
+     * Sends a batch of one platform's operations: either a single new post or a run of
+     * interactions.
+     */
+    public interface BatchSender {
+        /**
+         * @return The operations the platform accepted and refused
+         * @throws IOException If the platform could not be reached; nothing in the batch was tried
+         * @throws Exception If the platform refused the batch as a whole
+         */
+        BatchResult send(PlatformType platform, List<OutboxOperation> batch) throws Exception;
+    }
+    
+    /**
+     * Outcome of sending a batch. Operations neither accepted nor rejected were not tried, e.g.
+     * because the connection dropped partway, and stay pending without counting an attempt.
+     */
+    public static final class BatchResult {
+        private final Set<String> accepted;
+        private final Set<String> rejected;
+        
+        public BatchResult(Set<String> accepted, Set<String> rejected) {
+            this.accepted = accepted;
+            this.rejected = rejected;
+        }
+        
+        public static BatchResult acceptedAll(List<OutboxOperation> batch) {
+            return new BatchResult(new HashSet<>(idsOf(batch)), Collections.<String>emptySet());
+        }
+        
+        public static BatchResult rejectedAll(List<OutboxOperation> batch) {
+            return new BatchResult(Collections.<String>emptySet(), new HashSet<>(idsOf(batch)));
+        }
+        
+        public Set<String> getAccepted() {
+            return accepted;
+        }
+        
+        public Set<String> getRejected() {
+            return rejected;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.nukie.app.lynx;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drops outbox operations that cancel each other out before they are sent.
+ * 
+ * Toggles on the same post (like/unlike, save/unsave) collapse to the user's final state: if
+ * the pending toggles end where they started, none of them is sent, otherwise only the last
+ * one is. Comments, shares and new posts are never coalesced.
+ */
+final class OutboxCoalescer {
+    /** Toggle type mapped to its inverse. */
+    private static final Map<String, String> INVERSES = new HashMap<>();
+    
+    static {
+        INVERSES.put("like", "unlike");
+        INVERSES.put("unlike", "like");
+        INVERSES.put("save", "unsave");
+        INVERSES.put("unsave", "save");
+    }
+    
+    private OutboxCoalescer() {
+    }
+    
+    /**
+     * @param pending Pending operations, oldest first
+     * @param dropped Receives the operations that no longer need to be sent
+     * @return The operations to send, oldest first
+     */
+    static List<OutboxOperation> coalesce(List<OutboxOperation> pending, List<OutboxOperation> dropped) {
+        // Toggles of one kind on one post, keyed by platform, post and the "on" type
+        Map<String, List<OutboxOperation>> toggles = new LinkedHashMap<>();
+        for (OutboxOperation operation : pending) {
+            String type = operation.getOperationType();
+            if (!INVERSES.containsKey(type)) {
+                continue;
+            }
+            String onType = type.startsWith("un") ? INVERSES.get(type) : type;
+            String key = operation.getPlatform() + "|" + operation.getPostId() + "|" + onType;
+            List<OutboxOperation> sequence = toggles.get(key);
+            if (sequence == null) {
+                sequence = new ArrayList<>();
+                toggles.put(key, sequence);
+            }
+            sequence.add(operation);
+        }
+        
+        for (List<OutboxOperation> sequence : toggles.values()) {
+            OutboxOperation first = sequence.get(0);
+            OutboxOperation last = sequence.get(sequence.size() - 1);
+            // The state before the first toggle is the inverse of what the first toggle set
+            boolean endsWhereItStarted = last.getOperationType().equals(INVERSES.get(first.getOperationType()));
+            int keep = endsWhereItStarted ? sequence.size() : sequence.size() - 1;
+            dropped.addAll(sequence.subList(0, keep));
+        }
+        
+        if (dropped.isEmpty()) {
+            return pending;
+        }
+        List<OutboxOperation> toSend = new ArrayList<>(pending);
+        toSend.removeAll(dropped);
+        return toSend;
+    }
+}
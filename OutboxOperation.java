@@ -0,0 +1,104 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A write (a new post, or a like, comment or share) that has been accepted locally and is
+ * waiting in the {@link Outbox} to be sent to its platform.
+ */
+public final class OutboxOperation {
+    /** Operation type of a new post; every other type is an interaction with an existing post. */
+    public static final String TYPE_CREATE_POST = "post";
+    
+    private final String id;
+    private final String postId;
+    private final PlatformType platform;
+    private final String platformPostId;
+    private final String operationType;
+    private final Map<String, String> data;
+    private final List<String> mediaFiles;
+    private final long createdAt;
+    private final int attemptCount;
+    
+    /**
+     * @param id Local id of the operation, also the journal row id
+     * @param postId Local id of the post the operation applies to (or creates)
+     * @param platform Platform the operation goes to
+     * @param platformPostId Id of the post on its platform, or null for a new post
+     * @param operationType {@link #TYPE_CREATE_POST} or the interaction type ('like', 'unlike', 'comment', ...)
+     * @param data Additional data (e.g., comment text, or the content of a new post)
+     * @param mediaFiles Media file paths attached to a new post
+     * @param createdAt When the user performed the operation, in epoch milliseconds
+     * @param attemptCount Number of failed attempts to send it so far
+     */
+    public OutboxOperation(
+            String id,
+            String postId,
+            PlatformType platform,
+            String platformPostId,
+            String operationType,
+            Map<String, String> data,
+            List<String> mediaFiles,
+            long createdAt,
+            int attemptCount) {
+        this.id = id;
+        this.postId = postId;
+        this.platform = platform;
+        this.platformPostId = platformPostId;
+        this.operationType = operationType;
+        this.data = data != null ? Collections.unmodifiableMap(new HashMap<>(data)) : Collections.emptyMap();
+        this.mediaFiles = mediaFiles != null ? Collections.unmodifiableList(new ArrayList<>(mediaFiles)) : Collections.emptyList();
+        this.createdAt = createdAt;
+        this.attemptCount = attemptCount;
+    }
+    
+    OutboxOperation withAttemptCount(int attempts) {
+        return new OutboxOperation(id, postId, platform, platformPostId, operationType, data, mediaFiles, createdAt, attempts);
+    }
+    
+    public boolean isCreatePost() {
+        return TYPE_CREATE_POST.equals(operationType);
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getPostId() {
+        return postId;
+    }
+    
+    public PlatformType getPlatform() {
+        return platform;
+    }
+    
+    public String getPlatformPostId() {
+        return platformPostId;
+    }
+    
+    public String getOperationType() {
+        return operationType;
+    }
+    
+    public Map<String, String> getData() {
+        return data;
+    }
+    
+    public List<String> getMediaFiles() {
+        return mediaFiles;
+    }
+    
+    public long getCreatedAt() {
+        return createdAt;
+    }
+    
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+}
@@ -0,0 +1,65 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLConnection;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/**
+ * Access to the platforms' real APIs, shared by the platform clients.
+ * 
+ * A client calls its platform's API once the user has signed in to that platform and serves
+ * its mock timeline otherwise, so the app and the tests keep working offline.
+ */
+final class PlatformApi {
+    private final OkHttpClient feedClient;
+    private final LynxHttpCache httpCache;
+    private final AuthTokenStore tokenStore;
+    private final ChunkedUploader uploader;
+    
+    PlatformApi(OkHttpClient feedClient, LynxHttpCache httpCache, AuthTokenStore tokenStore, ChunkedUploader uploader) {
+        this.feedClient = feedClient;
+        this.httpCache = httpCache;
+        this.tokenStore = tokenStore;
+        this.uploader = uploader;
+    }
+    
+    /**
+     * Client for small API calls, such as opening an upload session.
+     */
+    OkHttpClient getFeedClient() {
+        return feedClient;
+    }
+    
+    boolean isSignedIn(PlatformType platform) {
+        return tokenStore.getAccessToken(platform) != null;
+    }
+    
+    /**
+     * Fetches one timeline page through the HTTP cache and stream-decodes it, so a page the
+     * server reports unchanged is neither downloaded nor decoded again.
+     */
+    FeedPage fetchFeed(Request request, FeedDecoder decoder) throws IOException {
+        return httpCache.fetch(feedClient, request, decoder.asResponseParser());
+    }
+    
+    /**
+     * Uploads a media file in resumable chunks over the media lane. The upload is keyed by the
+     * platform and the file's path, size and modification time, so publishing the same file
+     * again, e.g. from the outbox after process death, resumes its session.
+     * 
+     * @return Body of the platform's final response
+     */
+    String uploadMedia(PlatformType platform, File file, ChunkedUploader.SessionFactory sessionFactory) throws IOException {
+        String uploadKey = platform + "_" + Integer.toHexString(file.getAbsolutePath().hashCode())
+                + "_" + file.length() + "_" + file.lastModified();
+        String contentType = URLConnection.guessContentTypeFromName(file.getName());
+        return uploader.upload(uploadKey, file,
+                MediaType.get(contentType != null ? contentType : "application/octet-stream"), sessionFactory, null);
+    }
+}
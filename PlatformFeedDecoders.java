@@ -0,0 +1,1042 @@
+package com.nukie.app.lynx;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.nukie.app.data.model.MediaType;
+import com.nukie.app.data.model.PlatformType;
+import com.nukie.app.data.model.UnifiedAuthor;
+import com.nukie.app.data.model.UnifiedMedia;
+import com.nukie.app.data.model.UnifiedPost;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming decoder turning a platform's feed response into a {@link FeedPage}.
+ * 
+ * Decoders pull tokens straight from the response stream and map them into UnifiedPost,
+ * UnifiedAuthor and UnifiedMedia as they go. Fields the app does not use are skipped without
+ * being materialized, and no intermediate JSON tree is ever built, so peak memory during a
+ * refresh stays close to the size of the resulting posts rather than twice the payload.
+ */
+interface FeedDecoder {
+    FeedPage decode(JsonReader reader) throws IOException;
+    
+    /**
+     * Adapts the decoder to {@link LynxHttpCache#fetch}, decoding directly from the body stream.
+     */
+    default LynxHttpCache.ResponseParser<FeedPage> asResponseParser() {
+        return body -> {
+            try (JsonReader reader = new JsonReader(body.charStream())) {
+                return decode(reader);
+            }
+        };
+    }
+}
+
+/**
+ * Small helpers shared by the platform decoders.
+ */
+final class JsonDecoding {
+    private JsonDecoding() {
+    }
+    
+    static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+    
+    /**
+     * For optional platform fields mapped into required model fields, e.g. a missing username.
+     */
+    static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+    
+    /**
+     * Reads a number that some APIs (YouTube statistics) encode as a string.
+     */
+    static int nextIntLenient(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return 0;
+        }
+        if (reader.peek() == JsonToken.STRING) {
+            try {
+                return Integer.parseInt(reader.nextString());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return (int) Math.min(reader.nextLong(), Integer.MAX_VALUE);
+    }
+    
+    static long nextLongLenient(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return 0;
+        }
+        if (reader.peek() == JsonToken.STRING) {
+            try {
+                return Long.parseLong(reader.nextString());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return reader.nextLong();
+    }
+    
+    /**
+     * Reads a duration in (possibly fractional) seconds, e.g. Mastodon's media metadata.
+     */
+    static Long nextSecondsAsMillisOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        if (reader.peek() == JsonToken.STRING) {
+            try {
+                return (long) (Double.parseDouble(reader.nextString()) * 1000);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return (long) (reader.nextDouble() * 1000);
+    }
+    
+    static Integer nextIntOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return nextIntLenient(reader);
+    }
+    
+    static boolean nextBooleanLenient(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return false;
+        }
+        return reader.nextBoolean();
+    }
+    
+    /**
+     * Parses the ISO-8601 timestamps used by the platform APIs ("2024-03-01T12:34:56Z",
+     * "2024-03-01T12:34:56.789+00:00", "2024-03-01T12:34:56+0000") into epoch milliseconds.
+     * java.time is not available on every supported API level, so the fields are read by hand.
+     * 
+     * @return The timestamp, or 0 if it cannot be parsed
+     */
+    static long parseIsoTimestamp(String value) {
+        if (value == null || value.length() < 19) {
+            return 0;
+        }
+        try {
+            int year = Integer.parseInt(value.substring(0, 4));
+            int month = Integer.parseInt(value.substring(5, 7));
+            int day = Integer.parseInt(value.substring(8, 10));
+            int hour = Integer.parseInt(value.substring(11, 13));
+            int minute = Integer.parseInt(value.substring(14, 16));
+            int second = Integer.parseInt(value.substring(17, 19));
+            
+            int index = 19;
+            int millis = 0;
+            if (index < value.length() && value.charAt(index) == '.') {
+                int digits = 0;
+                index++;
+                while (index < value.length() && Character.isDigit(value.charAt(index))) {
+                    if (digits < 3) {
+                        millis = millis * 10 + (value.charAt(index) - '0');
+                        digits++;
+                    }
+                    index++;
+                }
+                while (digits++ < 3) {
+                    millis *= 10;
+                }
+            }
+            
+            long offsetMinutes = 0;
+            if (index < value.length() && (value.charAt(index) == '+' || value.charAt(index) == '-')) {
+                String offset = value.substring(index + 1).replace(":", "");
+                int sign = value.charAt(index) == '-' ? -1 : 1;
+                offsetMinutes = sign * (Integer.parseInt(offset.substring(0, 2)) * 60L
+                        + (offset.length() >= 4 ? Integer.parseInt(offset.substring(2, 4)) : 0));
+            }
+            
+            long seconds = daysFromCivil(year, month, day) * 86400L + hour * 3600L + minute * 60L + second;
+            return (seconds - offsetMinutes * 60) * 1000 + millis;
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date.
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+}
+
+/**
+ * Decodes Instagram Graph API media listings ({@code /me/media}).
+ */
+class InstagramFeedDecoder implements FeedDecoder {
+    @Override
+    public FeedPage decode(JsonReader reader) throws IOException {
+        List<UnifiedPost> posts = new ArrayList<>();
+        String after = null;
+        boolean hasNext = false;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "data":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        UnifiedPost post = decodeMedia(reader);
+                        if (post != null) {
+                            posts.add(post);
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                case "paging":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        String name = reader.nextName();
+                        if (name.equals("cursors")) {
+                            reader.beginObject();
+                            while (reader.hasNext()) {
+                                if (reader.nextName().equals("after")) {
+                                    after = JsonDecoding.nextStringOrNull(reader);
+                                } else {
+                                    reader.skipValue();
+                                }
+                            }
+                            reader.endObject();
+                        } else if (name.equals("next")) {
+                            hasNext = JsonDecoding.nextStringOrNull(reader) != null;
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        
+        return new FeedPage(posts, after, hasNext);
+    }
+    
+    /**
+     * @return The post, or null if the item has no id
+     */
+    private UnifiedPost decodeMedia(JsonReader reader) throws IOException {
+        String id = null;
+        String caption = null;
+        String mediaType = null;
+        String mediaUrl = null;
+        String thumbnailUrl = null;
+        String username = null;
+        String ownerId = null;
+        long timestamp = 0;
+        int likeCount = 0;
+        int commentCount = 0;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id": id = JsonDecoding.nextStringOrNull(reader); break;
+                case "caption": caption = JsonDecoding.nextStringOrNull(reader); break;
+                case "media_type": mediaType = JsonDecoding.nextStringOrNull(reader); break;
+                case "media_url": mediaUrl = JsonDecoding.nextStringOrNull(reader); break;
+                case "thumbnail_url": thumbnailUrl = JsonDecoding.nextStringOrNull(reader); break;
+                case "username": username = JsonDecoding.nextStringOrNull(reader); break;
+                case "timestamp": timestamp = JsonDecoding.parseIsoTimestamp(JsonDecoding.nextStringOrNull(reader)); break;
+                case "like_count": likeCount = JsonDecoding.nextIntLenient(reader); break;
+                case "comments_count": commentCount = JsonDecoding.nextIntLenient(reader); break;
+                case "owner":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName().equals("id")) {
+                            ownerId = JsonDecoding.nextStringOrNull(reader);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (id == null) {
+            return null;
+        }
+        
+        String authorId = ownerId != null ? ownerId : JsonDecoding.orEmpty(username);
+        UnifiedAuthor author = new UnifiedAuthor(
+                "ig_author_" + authorId,
+                authorId,
+                PlatformType.INSTAGRAM,
+                JsonDecoding.orEmpty(username),
+                JsonDecoding.orEmpty(username),
+                null,  // The media endpoint does not return profile pictures
+                false
+        );
+        
+        List<UnifiedMedia> mediaItems = new ArrayList<>(1);
+        if (mediaUrl != null) {
+            boolean isVideo = "VIDEO".equals(mediaType);
+            mediaItems.add(new UnifiedMedia(
+                    "ig_media_" + id,
+                    isVideo ? MediaType.VIDEO : MediaType.IMAGE,
+                    mediaUrl,
+                    isVideo ? thumbnailUrl : null,
+                    null,
+                    null,
+                    null
+            ));
+        }
+        
+        return new UnifiedPost(
+                "ig_" + id,
+                id,
+                PlatformType.INSTAGRAM,
+                author,
+                caption,
+                mediaItems,
+                timestamp,
+                likeCount,
+                commentCount,
+                0,     // Instagram does not expose share counts
+                false, // The Graph API does not report the viewer's likes
+                false,
+                null
+        );
+    }
+}
+
+/**
+ * Decodes TikTok Display API video listings ({@code /video/list/}).
+ */
+class TikTokFeedDecoder implements FeedDecoder {
+    @Override
+    public FeedPage decode(JsonReader reader) throws IOException {
+        List<UnifiedPost> posts = new ArrayList<>();
+        String cursor = null;
+        boolean hasMore = false;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("data")) {
+                reader.skipValue();
+                continue;
+            }
+            
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "videos":
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            UnifiedPost post = decodeVideo(reader);
+                            if (post != null) {
+                                posts.add(post);
+                            }
+                        }
+                        reader.endArray();
+                        break;
+                    case "cursor": cursor = JsonDecoding.nextStringOrNull(reader); break;
+                    case "has_more": hasMore = JsonDecoding.nextBooleanLenient(reader); break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        reader.endObject();
+        
+        return new FeedPage(posts, cursor, hasMore);
+    }
+    
+    /**
+     * @return The post, or null if the item has no id
+     */
+    private UnifiedPost decodeVideo(JsonReader reader) throws IOException {
+        String id = null;
+        String description = null;
+        String coverUrl = null;
+        String shareUrl = null;
+        String username = null;
+        Integer width = null;
+        Integer height = null;
+        Integer durationSeconds = null;
+        long createTime = 0;
+        int likeCount = 0;
+        int commentCount = 0;
+        int shareCount = 0;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id": id = JsonDecoding.nextStringOrNull(reader); break;
+                case "video_description": description = JsonDecoding.nextStringOrNull(reader); break;
+                case "cover_image_url": coverUrl = JsonDecoding.nextStringOrNull(reader); break;
+                case "share_url": shareUrl = JsonDecoding.nextStringOrNull(reader); break;
+                case "username": username = JsonDecoding.nextStringOrNull(reader); break;
+                case "width": width = JsonDecoding.nextIntOrNull(reader); break;
+                case "height": height = JsonDecoding.nextIntOrNull(reader); break;
+                case "duration": durationSeconds = JsonDecoding.nextIntOrNull(reader); break;
+                case "create_time": createTime = JsonDecoding.nextLongLenient(reader); break;
+                case "like_count": likeCount = JsonDecoding.nextIntLenient(reader); break;
+                case "comment_count": commentCount = JsonDecoding.nextIntLenient(reader); break;
+                case "share_count": shareCount = JsonDecoding.nextIntLenient(reader); break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (id == null) {
+            return null;
+        }
+        
+        UnifiedAuthor author = new UnifiedAuthor(
+                "tt_author_" + JsonDecoding.orEmpty(username),
+                JsonDecoding.orEmpty(username),
+                PlatformType.TIKTOK,
+                JsonDecoding.orEmpty(username),
+                JsonDecoding.orEmpty(username),
+                null,
+                false
+        );
+        
+        List<UnifiedMedia> mediaItems = new ArrayList<>(1);
+        if (shareUrl != null) {
+            mediaItems.add(new UnifiedMedia(
+                    "tt_media_" + id,
+                    MediaType.VIDEO, // TikTok is primarily video
+                    shareUrl,
+                    coverUrl,
+                    width,
+                    height,
+                    durationSeconds != null ? durationSeconds * 1000L : null
+            ));
+        }
+        
+        return new UnifiedPost(
+                "tt_" + id,
+                id,
+                PlatformType.TIKTOK,
+                author,
+                description,
+                mediaItems,
+                createTime * 1000,
+                likeCount,
+                commentCount,
+                shareCount,
+                false,
+                false,
+                null
+        );
+    }
+}
+
+/**
+ * Decodes YouTube Data API video listings ({@code /videos} with snippet and statistics parts).
+ */
+class YouTubeFeedDecoder implements FeedDecoder {
+    @Override
+    public FeedPage decode(JsonReader reader) throws IOException {
+        List<UnifiedPost> posts = new ArrayList<>();
+        String nextPageToken = null;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "items":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        UnifiedPost post = decodeVideo(reader);
+                        if (post != null) {
+                            posts.add(post);
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                case "nextPageToken": nextPageToken = JsonDecoding.nextStringOrNull(reader); break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        
+        return new FeedPage(posts, nextPageToken, nextPageToken != null);
+    }
+    
+    /**
+     * @return The post, or null if the item has no id
+     */
+    private UnifiedPost decodeVideo(JsonReader reader) throws IOException {
+        String id = null;
+        String title = null;
+        String channelId = null;
+        String channelTitle = null;
+        String thumbnailUrl = null;
+        Integer thumbnailWidth = null;
+        Integer thumbnailHeight = null;
+        long publishedAt = 0;
+        int likeCount = 0;
+        int commentCount = 0;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    // Search results wrap the id in an object, video listings use a plain string
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (reader.nextName().equals("videoId")) {
+                                id = JsonDecoding.nextStringOrNull(reader);
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    } else {
+                        id = JsonDecoding.nextStringOrNull(reader);
+                    }
+                    break;
+                case "snippet":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "title": title = JsonDecoding.nextStringOrNull(reader); break;
+                            case "channelId": channelId = JsonDecoding.nextStringOrNull(reader); break;
+                            case "channelTitle": channelTitle = JsonDecoding.nextStringOrNull(reader); break;
+                            case "publishedAt": publishedAt = JsonDecoding.parseIsoTimestamp(JsonDecoding.nextStringOrNull(reader)); break;
+                            case "thumbnails":
+                                // Only the "high" rendition is kept; the other sizes are skipped unread
+                                reader.beginObject();
+                                while (reader.hasNext()) {
+                                    if (!reader.nextName().equals("high")) {
+                                        reader.skipValue();
+                                        continue;
+                                    }
+                                    reader.beginObject();
+                                    while (reader.hasNext()) {
+                                        switch (reader.nextName()) {
+                                            case "url": thumbnailUrl = JsonDecoding.nextStringOrNull(reader); break;
+                                            case "width": thumbnailWidth = JsonDecoding.nextIntOrNull(reader); break;
+                                            case "height": thumbnailHeight = JsonDecoding.nextIntOrNull(reader); break;
+                                            default:
+                                                reader.skipValue();
+                                        }
+                                    }
+                                    reader.endObject();
+                                }
+                                reader.endObject();
+                                break;
+                            default:
+                                // Descriptions, tags and localizations are large and unused
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case "statistics":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "likeCount": likeCount = JsonDecoding.nextIntLenient(reader); break;
+                            case "commentCount": commentCount = JsonDecoding.nextIntLenient(reader); break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (id == null) {
+            return null;
+        }
+        
+        UnifiedAuthor author = new UnifiedAuthor(
+                "yt_author_" + JsonDecoding.orEmpty(channelId),
+                JsonDecoding.orEmpty(channelId),
+                PlatformType.YOUTUBE,
+                JsonDecoding.orEmpty(channelTitle),
+                JsonDecoding.orEmpty(channelTitle),
+                null,
+                false
+        );
+        
+        List<UnifiedMedia> mediaItems = new ArrayList<>(1);
+        mediaItems.add(new UnifiedMedia(
+                "yt_media_" + id,
+                MediaType.VIDEO, // YouTube is video
+                "https://www.youtube.com/watch?v=" + id,
+                thumbnailUrl,
+                thumbnailWidth,
+                thumbnailHeight,
+                null
+        ));
+        
+        return new UnifiedPost(
+                "yt_" + id,
+                id,
+                PlatformType.YOUTUBE,
+                author,
+                title,
+                mediaItems,
+                publishedAt,
+                likeCount,
+                commentCount,
+                0,     // YouTube does not expose share counts
+                false,
+                false,
+                null
+        );
+    }
+}
+
+/**
+ * Decodes Bluesky timelines ({@code app.bsky.feed.getTimeline}).
+ */
+class BlueskyFeedDecoder implements FeedDecoder {
+    @Override
+    public FeedPage decode(JsonReader reader) throws IOException {
+        List<UnifiedPost> posts = new ArrayList<>();
+        String cursor = null;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "feed":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (reader.nextName().equals("post")) {
+                                UnifiedPost post = decodePost(reader);
+                                if (post != null) {
+                                    posts.add(post);
+                                }
+                            } else {
+                                // Reply context and repost reasons are not shown in the feed
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    reader.endArray();
+                    break;
+                case "cursor": cursor = JsonDecoding.nextStringOrNull(reader); break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        
+        return new FeedPage(posts, cursor, cursor != null);
+    }
+    
+    /**
+     * @return The post, or null if it has no URI
+     */
+    private UnifiedPost decodePost(JsonReader reader) throws IOException {
+        String uri = null;
+        String did = null;
+        String handle = null;
+        String displayName = null;
+        String avatar = null;
+        String text = null;
+        long createdAt = 0;
+        int likeCount = 0;
+        int replyCount = 0;
+        int repostCount = 0;
+        boolean liked = false;
+        List<UnifiedMedia> mediaItems = new ArrayList<>();
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "uri": uri = JsonDecoding.nextStringOrNull(reader); break;
+                case "author":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "did": did = JsonDecoding.nextStringOrNull(reader); break;
+                            case "handle": handle = JsonDecoding.nextStringOrNull(reader); break;
+                            case "displayName": displayName = JsonDecoding.nextStringOrNull(reader); break;
+                            case "avatar": avatar = JsonDecoding.nextStringOrNull(reader); break;
+                            default:
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case "record":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "text": text = JsonDecoding.nextStringOrNull(reader); break;
+                            case "createdAt": createdAt = JsonDecoding.parseIsoTimestamp(JsonDecoding.nextStringOrNull(reader)); break;
+                            default:
+                                // Facets and the raw embed record duplicate the hydrated view
+                                reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case "embed":
+                    decodeEmbed(reader, mediaItems);
+                    break;
+                case "likeCount": likeCount = JsonDecoding.nextIntLenient(reader); break;
+                case "replyCount": replyCount = JsonDecoding.nextIntLenient(reader); break;
+                case "repostCount": repostCount = JsonDecoding.nextIntLenient(reader); break;
+                case "viewer":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName().equals("like")) {
+                            liked = JsonDecoding.nextStringOrNull(reader) != null;
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (uri == null) {
+            return null;
+        }
+        
+        UnifiedAuthor author = new UnifiedAuthor(
+                "bsky_author_" + JsonDecoding.orEmpty(did),
+                JsonDecoding.orEmpty(did),
+                PlatformType.BLUESKY,
+                JsonDecoding.orEmpty(handle),
+                displayName != null ? displayName : JsonDecoding.orEmpty(handle),
+                avatar,
+                false // Bluesky doesn't have verification yet
+        );
+        
+        return new UnifiedPost(
+                "bsky_" + uri,
+                uri,
+                PlatformType.BLUESKY,
+                author,
+                text,
+                mediaItems,
+                createdAt,
+                likeCount,
+                replyCount,
+                repostCount,
+                liked,
+                false,
+                null
+        );
+    }
+    
+    /**
+     * Reads the images of an {@code app.bsky.embed.images#view}; other embed kinds (quotes,
+     * external link cards) are skipped.
+     */
+    private void decodeEmbed(JsonReader reader, List<UnifiedMedia> mediaItems) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (!reader.nextName().equals("images")) {
+                reader.skipValue();
+                continue;
+            }
+            
+            reader.beginArray();
+            while (reader.hasNext()) {
+                String thumb = null;
+                String fullsize = null;
+                Integer width = null;
+                Integer height = null;
+                
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "thumb": thumb = JsonDecoding.nextStringOrNull(reader); break;
+                        case "fullsize": fullsize = JsonDecoding.nextStringOrNull(reader); break;
+                        case "aspectRatio":
+                            reader.beginObject();
+                            while (reader.hasNext()) {
+                                switch (reader.nextName()) {
+                                    case "width": width = JsonDecoding.nextIntOrNull(reader); break;
+                                    case "height": height = JsonDecoding.nextIntOrNull(reader); break;
+                                    default:
+                                        reader.skipValue();
+                                }
+                            }
+                            reader.endObject();
+                            break;
+                        default:
+                            reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                
+                if (fullsize != null) {
+                    mediaItems.add(new UnifiedMedia(
+                            "bsky_media_" + fullsize.hashCode(),
+                            MediaType.IMAGE,
+                            fullsize,
+                            thumb,
+                            width,
+                            height,
+                            null
+                    ));
+                }
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+    }
+}
+
+/**
+ * Decodes Mastodon timelines ({@code /api/v1/timelines/home}).
+ * 
+ * Mastodon returns a bare array and pages with {@code max_id}, so the next cursor is the id of
+ * the oldest status in the page.
+ */
+class MastodonFeedDecoder implements FeedDecoder {
+    @Override
+    public FeedPage decode(JsonReader reader) throws IOException {
+        List<UnifiedPost> posts = new ArrayList<>();
+        String maxId = null;
+        
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Status status = decodeStatus(reader);
+            // The next page starts below the oldest status, even one that is not shown
+            if (status.id != null) {
+                maxId = status.id;
+            }
+            UnifiedPost post = toPost(status);
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        reader.endArray();
+        
+        return new FeedPage(posts, maxId, maxId != null);
+    }
+    
+    /**
+     * A boost keeps its own id and time, which are its position in the timeline, and shows the
+     * boosted status's author, content, media and counts.
+     * 
+     * @return The post, or null if the status has no id or no account
+     */
+    private static UnifiedPost toPost(Status status) {
+        Status shown = status.reblog != null ? status.reblog : status;
+        if (status.id == null || shown.author == null) {
+            return null;
+        }
+        return new UnifiedPost(
+                "masto_" + status.id,
+                status.id,
+                PlatformType.MASTODON,
+                shown.author,
+                shown.content,
+                shown.mediaItems,
+                status.createdAt,
+                shown.favouritesCount,
+                shown.repliesCount,
+                shown.reblogsCount,
+                shown.favourited,
+                shown.bookmarked,
+                null
+        );
+    }
+    
+    private Status decodeStatus(JsonReader reader) throws IOException {
+        Status status = new Status();
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id": status.id = JsonDecoding.nextStringOrNull(reader); break;
+                case "content": status.content = JsonDecoding.nextStringOrNull(reader); break;
+                case "created_at": status.createdAt = JsonDecoding.parseIsoTimestamp(JsonDecoding.nextStringOrNull(reader)); break;
+                case "favourites_count": status.favouritesCount = JsonDecoding.nextIntLenient(reader); break;
+                case "replies_count": status.repliesCount = JsonDecoding.nextIntLenient(reader); break;
+                case "reblogs_count": status.reblogsCount = JsonDecoding.nextIntLenient(reader); break;
+                case "favourited": status.favourited = JsonDecoding.nextBooleanLenient(reader); break;
+                case "bookmarked": status.bookmarked = JsonDecoding.nextBooleanLenient(reader); break;
+                case "account":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        status.author = decodeAccount(reader);
+                    }
+                    break;
+                case "reblog":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                    } else {
+                        status.reblog = decodeStatus(reader);
+                    }
+                    break;
+                case "media_attachments":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        UnifiedMedia media = decodeAttachment(reader);
+                        if (media != null) {
+                            status.mediaItems.add(media);
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    // Cards, emojis and mentions are skipped unread
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return status;
+    }
+    
+    private UnifiedAuthor decodeAccount(JsonReader reader) throws IOException {
+        String id = null;
+        String acct = null;
+        String displayName = null;
+        String avatar = null;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id": id = JsonDecoding.nextStringOrNull(reader); break;
+                case "acct": acct = JsonDecoding.nextStringOrNull(reader); break;
+                case "display_name": displayName = JsonDecoding.nextStringOrNull(reader); break;
+                case "avatar": avatar = JsonDecoding.nextStringOrNull(reader); break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        
+        return new UnifiedAuthor(
+                "masto_author_" + JsonDecoding.orEmpty(id),
+                JsonDecoding.orEmpty(id),
+                PlatformType.MASTODON,
+                JsonDecoding.orEmpty(acct),
+                displayName != null && !displayName.isEmpty() ? displayName : JsonDecoding.orEmpty(acct),
+                avatar,
+                false
+        );
+    }
+    
+    /**
+     * @return The attachment, or null if it has no URL (e.g. media still being processed)
+     */
+    private UnifiedMedia decodeAttachment(JsonReader reader) throws IOException {
+        String id = null;
+        String type = null;
+        String url = null;
+        String previewUrl = null;
+        Integer width = null;
+        Integer height = null;
+        Long durationMs = null;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id": id = JsonDecoding.nextStringOrNull(reader); break;
+                case "type": type = JsonDecoding.nextStringOrNull(reader); break;
+                case "url": url = JsonDecoding.nextStringOrNull(reader); break;
+                case "preview_url": previewUrl = JsonDecoding.nextStringOrNull(reader); break;
+                case "meta":
+                    if (reader.peek() == JsonToken.NULL) {
+                        reader.nextNull();
+                        break;
+                    }
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (!reader.nextName().equals("original") || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                            reader.skipValue();
+                            continue;
+                        }
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            switch (reader.nextName()) {
+                                case "width": width = JsonDecoding.nextIntOrNull(reader); break;
+                                case "height": height = JsonDecoding.nextIntOrNull(reader); break;
+                                case "duration": durationMs = JsonDecoding.nextSecondsAsMillisOrNull(reader); break;
+                                default:
+                                    reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (url == null) {
+            return null;
+        }
+        
+        MediaType mediaType;
+        if ("video".equals(type)) {
+            mediaType = MediaType.VIDEO;
+        } else if ("gifv".equals(type)) {
+            mediaType = MediaType.GIF;
+        } else if ("audio".equals(type)) {
+            mediaType = MediaType.AUDIO;
+        } else {
+            mediaType = MediaType.IMAGE;
+        }
+        
+        return new UnifiedMedia("masto_media_" + id, mediaType, url, previewUrl, width, height, durationMs);
+    }
+    
+    /**
+     * Fields of one status as read from the stream.
+     */
+    private static class Status {
+        String id;
+        String content;
+        long createdAt;
+        int favouritesCount;
+        int repliesCount;
+        int reblogsCount;
+        boolean favourited;
+        boolean bookmarked;
+        UnifiedAuthor author;
+        Status reblog;
+        final List<UnifiedMedia> mediaItems = new ArrayList<>();
+    }
+}
@@ -0,0 +1,18 @@
+package com.nukie.app.lynx;
+
+/**
+ * Outcome of fetching one platform's timeline as part of an aggregated feed request.
+ */
+public enum PlatformFetchStatus {
+    /** The platform answered before its deadline. */
+    SUCCESS,
+    
+    /** The platform is unavailable (circuit open or bulkhead full); cached posts were used. */
+    STALE,
+    
+    /** The platform client threw an error. */
+    FAILED,
+    
+    /** The platform did not answer before its deadline and was abandoned. */
+    TIMED_OUT
+}
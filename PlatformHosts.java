@@ -0,0 +1,79 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Routing table from API host names to the platform they belong to.
+ * 
+ * The table is built once and looked up by host, walking up to the parent domain when the
+ * exact host is unknown, so subdomains such as graph.instagram.com resolve through
+ * instagram.com. Federated platforms can register additional hosts at runtime, e.g. the
+ * Mastodon instance a user signed in to.
+ */
+final class PlatformHosts {
+    private static final Map<String, PlatformType> HOSTS = new ConcurrentHashMap<>();
+    
+    static {
+        HOSTS.put("instagram.com", PlatformType.INSTAGRAM);
+        HOSTS.put("tiktokapis.com", PlatformType.TIKTOK);
+        HOSTS.put("tiktok.com", PlatformType.TIKTOK);
+        HOSTS.put("www.googleapis.com", PlatformType.YOUTUBE);
+        HOSTS.put("youtube.googleapis.com", PlatformType.YOUTUBE);
+        HOSTS.put("youtube.com", PlatformType.YOUTUBE);
+        HOSTS.put("bsky.social", PlatformType.BLUESKY);
+        HOSTS.put("bsky.app", PlatformType.BLUESKY);
+        HOSTS.put("mastodon.social", PlatformType.MASTODON);
+        
+        // Media CDNs, so media traffic is attributed to its platform as well
+        HOSTS.put("cdninstagram.com", PlatformType.INSTAGRAM);
+        HOSTS.put("fbcdn.net", PlatformType.INSTAGRAM);
+        HOSTS.put("tiktokcdn.com", PlatformType.TIKTOK);
+        HOSTS.put("tiktokcdn-us.com", PlatformType.TIKTOK);
+        HOSTS.put("ytimg.com", PlatformType.YOUTUBE);
+        HOSTS.put("googlevideo.com", PlatformType.YOUTUBE);
+    }
+    
+    private PlatformHosts() {
+    }
+    
+    /**
+     * Adds a host (and its subdomains) to the table.
+     */
+    static void register(String host, PlatformType platform) {
+        HOSTS.put(host.toLowerCase(Locale.ROOT), platform);
+    }
+    
+    /**
+     * Returns the platform serving the URL, or null for hosts that belong to no platform.
+     */
+    static PlatformType forUrl(HttpUrl url) {
+        return forHost(url.host());
+    }
+    
+    /**
+     * Returns the platform serving the host, or null for hosts that belong to no platform.
+     * OkHttp already hands out lower-case host names.
+     */
+    static PlatformType forHost(String host) {
+        String candidate = host;
+        while (true) {
+            PlatformType platform = HOSTS.get(candidate);
+            if (platform != null) {
+                return platform;
+            }
+            
+            int dot = candidate.indexOf('.');
+            if (dot < 0 || candidate.indexOf('.', dot + 1) < 0) {
+                // Never match on a bare top-level domain
+                return null;
+            }
+            candidate = candidate.substring(dot + 1);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Adaptive token-bucket rate limiter, one bucket per platform.
+ * 
+ * Buckets are seeded from each platform's published quota and then corrected from what the
+ * platform actually reports: {@code X-RateLimit-*} / {@code RateLimit-*} headers shrink the
+ * bucket to the remaining budget, and a 429 closes the bucket until {@code Retry-After}.
+ * Requests that exceed the budget are not failed; they wait for the next available window
+ * (up to {@code maxWaitMs}, beyond which a {@link RateLimitedException} lets the caller
+ * reschedule instead of holding a thread).
+ */
+public final class PlatformRateLimiter {
+    private static final String TAG = "PlatformRateLimiter";
+    
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final long MINUTE_MS = 60 * 1000L;
+    private static final long DEFAULT_MAX_WAIT_MS = 10 * 1000L;
+    
+    private final Map<PlatformType, TokenBucket> buckets = new EnumMap<>(PlatformType.class);
+    private final long maxWaitMs;
+    
+    public PlatformRateLimiter() {
+        this(DEFAULT_MAX_WAIT_MS);
+    }
+    
+    /**
+     * @param maxWaitMs Longest a request may be held back before it is rejected instead
+     */
+    public PlatformRateLimiter(long maxWaitMs) {
+        this.maxWaitMs = maxWaitMs;
+        
+        // Instagram Graph API: 200 calls per user per hour
+        buckets.put(PlatformType.INSTAGRAM, new TokenBucket(200, 60 * MINUTE_MS));
+        // TikTok Display API: 600 requests per minute per endpoint
+        buckets.put(PlatformType.TIKTOK, new TokenBucket(600, MINUTE_MS));
+        // YouTube Data API: 10,000 quota units per day; list calls cost one unit
+        buckets.put(PlatformType.YOUTUBE, new TokenBucket(10000, 24 * 60 * MINUTE_MS));
+        // Bluesky: 3,000 requests per five minutes
+        buckets.put(PlatformType.BLUESKY, new TokenBucket(3000, 5 * MINUTE_MS));
+        // Mastodon: 300 requests per five minutes per account
+        buckets.put(PlatformType.MASTODON, new TokenBucket(300, 5 * MINUTE_MS));
+    }
+    
+    /**
+     * Reserves a request slot for the platform.
+     * 
+     * @return How long the caller must wait before sending, 0 if it may go now
+     */
+    public long reserve(PlatformType platform) {
+        return buckets.get(platform).reserve(System.currentTimeMillis());
+    }
+    
+    /**
+     * Time until the platform accepts requests again without waiting, 0 if it does now.
+     */
+    public long getDelayMs(PlatformType platform) {
+        return buckets.get(platform).peekDelay(System.currentTimeMillis());
+    }
+    
+    /**
+     * Updates the platform's bucket from the rate limit information in a response.
+     */
+    void onResponse(PlatformType platform, Response response) {
+        long now = System.currentTimeMillis();
+        TokenBucket bucket = buckets.get(platform);
+        
+        long remaining = parseLong(firstHeader(response, "X-RateLimit-Remaining", "RateLimit-Remaining"), -1);
+        long resetAt = parseResetTime(firstHeader(response, "X-RateLimit-Reset", "RateLimit-Reset"), now);
+        if (remaining >= 0) {
+            bucket.limitTo(remaining, resetAt, now);
+        }
+        
+        if (response.code() == HTTP_TOO_MANY_REQUESTS) {
+            long retryAt = parseRetryAfter(response, now);
+            if (retryAt <= now) {
+                retryAt = resetAt > now ? resetAt : now + MINUTE_MS;
+            }
+            bucket.closeUntil(retryAt);
+            LynxLog.w(TAG, platform + " rate limited us until " + retryAt);
+        }
+    }
+    
+    private static String firstHeader(Response response, String name, String alternative) {
+        String value = response.header(name);
+        return value != null ? value : response.header(alternative);
+    }
+    
+    private static long parseLong(String value, long fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+    
+    /**
+     * Reset headers come as epoch seconds (Bluesky), seconds from now (IETF draft) or an
+     * ISO-8601 timestamp (Mastodon).
+     */
+    private static long parseResetTime(String value, long now) {
+        if (value == null) {
+            return -1;
+        }
+        long number = parseLong(value, -1);
+        if (number >= 0) {
+            // Anything below ~1 year of seconds is relative
+            return number < 365L * 24 * 3600 ? now + number * 1000 : number * 1000;
+        }
+        long timestamp = JsonDecoding.parseIsoTimestamp(value);
+        return timestamp > 0 ? timestamp : -1;
+    }
+    
+    private static long parseRetryAfter(Response response, long now) {
+        String value = response.header("Retry-After");
+        if (value == null) {
+            return -1;
+        }
+        long seconds = parseLong(value, -1);
+        if (seconds >= 0) {
+            return now + seconds * 1000;
+        }
+        Date date = response.headers().getDate("Retry-After");
+        return date != null ? date.getTime() : -1;
+    }
+    
+    /**
+     * Network interceptor applying the limiter to platform API calls. Installed after the HTTP
+     * cache, so responses served from the cache spend no tokens and never wait; conditional
+     * requests still reach the platform and are counted.
+     */
+    Interceptor networkInterceptor() {
+        return chain -> {
+            Request request = chain.request();
+            PlatformType platform = PlatformHosts.forUrl(request.url());
+            if (platform == null || RequestLane.of(request) == RequestLane.MEDIA) {
+                return chain.proceed(request);
+            }
+            
+            awaitSlot(platform);
+            Response response = chain.proceed(request);
+            onResponse(platform, response);
+            return response;
+        };
+    }
+    
+    /**
+     * Application interceptor retrying a 429 once. Network interceptors may only proceed once,
+     * so the retry goes back through the cache and {@link #networkInterceptor()}, which waits for
+     * the window the 429 announced or fails with {@link RateLimitedException} if it is too far off.
+     */
+    Interceptor retryInterceptor() {
+        return chain -> {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            if (response.code() != HTTP_TOO_MANY_REQUESTS
+                    || PlatformHosts.forUrl(request.url()) == null
+                    || RequestLane.of(request) == RequestLane.MEDIA) {
+                return response;
+            }
+            response.close();
+            return chain.proceed(request);
+        };
+    }
+    
+    private void awaitSlot(PlatformType platform) throws IOException {
+        long now = System.currentTimeMillis();
+        // Checked and taken in one step so concurrent callers cannot both take the last token
+        long wait = buckets.get(platform).reserveWithin(now, maxWaitMs);
+        if (wait > maxWaitMs) {
+            throw new RateLimitedException(platform, now + wait);
+        }
+        if (wait <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for " + platform + " rate limit window");
+        }
+    }
+    
+    /**
+     * Token bucket refilling continuously at capacity / window. Tokens may go negative: each
+     * reservation past the budget is scheduled one refill interval after the previous one.
+     */
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long lastRefillMillis;
+        private long closedUntilMillis;
+        
+        TokenBucket(long capacity, long windowMs) {
+            this.capacity = capacity;
+            this.refillPerMs = (double) capacity / windowMs;
+            this.tokens = capacity;
+            this.lastRefillMillis = System.currentTimeMillis();
+        }
+        
+        synchronized long reserve(long now) {
+            refill(now);
+            long delay = delayFor(now);
+            tokens -= 1;
+            return delay;
+        }
+        
+        /**
+         * Reserves a token only if it becomes usable within {@code maxWaitMs}.
+         * 
+         * @return The delay before the token is usable; above {@code maxWaitMs} nothing was taken
+         */
+        synchronized long reserveWithin(long now, long maxWaitMs) {
+            refill(now);
+            long delay = delayFor(now);
+            if (delay <= maxWaitMs) {
+                tokens -= 1;
+            }
+            return delay;
+        }
+        
+        synchronized long peekDelay(long now) {
+            refill(now);
+            return delayFor(now);
+        }
+        
+        /**
+         * Trusts the platform's own count of remaining requests over the local estimate.
+         */
+        synchronized void limitTo(long remaining, long resetAtMillis, long now) {
+            refill(now);
+            tokens = Math.min(tokens, remaining);
+            if (remaining == 0 && resetAtMillis > now) {
+                closedUntilMillis = Math.max(closedUntilMillis, resetAtMillis);
+            }
+        }
+        
+        synchronized void closeUntil(long untilMillis) {
+            closedUntilMillis = Math.max(closedUntilMillis, untilMillis);
+            tokens = Math.min(tokens, 0);
+        }
+        
+        private long delayFor(long now) {
+            long closedDelay = Math.max(0, closedUntilMillis - now);
+            long refillDelay = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / refillPerMs);
+            return Math.max(closedDelay, refillDelay);
+        }
+        
+        private void refill(long now) {
+            // Nothing refills while the platform has closed the window
+            long from = Math.max(lastRefillMillis, Math.min(closedUntilMillis, now));
+            if (now > from) {
+                tokens = Math.min(capacity, tokens + (now - from) * refillPerMs);
+            }
+            lastRefillMillis = now;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+/**
+ * Thrown without touching the network when a platform's circuit is open or its bulkhead is
+ * full and there is no cached content to fall back to.
+ */
+public class PlatformUnavailableException extends Exception {
+    private final PlatformType platform;
+    
+    public PlatformUnavailableException(PlatformType platform, String reason) {
+        super(platform + " unavailable: " + reason);
+        this.platform = platform;
+    }
+    
+    public PlatformType getPlatform() {
+        return platform;
+    }
+}
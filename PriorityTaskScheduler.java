@@ -0,0 +1,201 @@
+package com.nukie.app.lynx;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker pool that runs tasks by {@link TaskPriority} instead of in arrival order.
+ * 
+ * <ul>
+ *   <li>A free worker takes the oldest task of the highest class that is below its
+ *   concurrency cap, so a feed request never queues behind a sync that arrived first.</li>
+ *   <li>Each class has its own cap, so a long upload or sync can never occupy every worker;
+ *   with the defaults background work holds at most one worker and writes at most two, so at
+ *   least one is always left for user-visible reads.</li>
+ *   <li>Waiting tasks age: every {@link #AGING_STEP_MS} in the queue counts as one class
+ *   higher, so background work still runs while the user keeps scrolling.</li>
+ * </ul>
+ * 
+ * Workers are started on demand up to the pool size and stay alive afterwards.
+ */
+public final class PriorityTaskScheduler {
+    private static final String TAG = "PriorityTaskScheduler";
+    
+    /** Time in the queue after which a task competes as one class higher. */
+    static final long AGING_STEP_MS = 2000;
+    
+    private final String threadPrefix;
+    private final int maxThreads;
+    private final Map<TaskPriority, Integer> maxRunning;
+    private final Map<TaskPriority, ArrayDeque<QueuedTask>> queues = new EnumMap<>(TaskPriority.class);
+    private final Map<TaskPriority, Integer> running = new EnumMap<>(TaskPriority.class);
+    private int threadCount;
+    private int idleThreads;
+    
+    /**
+     * @param threadPrefix Name prefix of the worker threads
+     * @param maxThreads Size of the worker pool
+     * @param maxRunning Most tasks of each class running at once; classes not listed may use every worker
+     */
+    public PriorityTaskScheduler(String threadPrefix, int maxThreads, Map<TaskPriority, Integer> maxRunning) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be at least 1");
+        }
+        this.threadPrefix = threadPrefix;
+        this.maxThreads = maxThreads;
+        this.maxRunning = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority priority : TaskPriority.values()) {
+            Integer cap = maxRunning.get(priority);
+            if (cap != null && cap < 1) {
+                throw new IllegalArgumentException("Cap for " + priority + " must be at least 1");
+            }
+            this.maxRunning.put(priority, cap != null ? Math.min(cap, maxThreads) : maxThreads);
+            queues.put(priority, new ArrayDeque<>());
+            running.put(priority, 0);
+        }
+    }
+    
+    /**
+     * Four workers: user-visible reads may use all of them, interactive writes two and
+     * background work one.
+     */
+    public static PriorityTaskScheduler defaults(String threadPrefix) {
+        Map<TaskPriority, Integer> maxRunning = new EnumMap<>(TaskPriority.class);
+        maxRunning.put(TaskPriority.USER_VISIBLE, 4);
+        maxRunning.put(TaskPriority.INTERACTIVE, 2);
+        maxRunning.put(TaskPriority.BACKGROUND, 1);
+        return new PriorityTaskScheduler(threadPrefix, 4, maxRunning);
+    }
+    
+    /**
+     * Queues a task in the given class.
+     */
+    public void execute(TaskPriority priority, Runnable task) {
+        int threadNumber;
+        synchronized (this) {
+            queues.get(priority).add(new QueuedTask(task, System.nanoTime()));
+            if (idleThreads > 0) {
+                notifyAll();
+            }
+            // Idle workers may not have picked up earlier tasks yet
+            if (idleThreads >= queuedCount() || threadCount >= maxThreads) {
+                return;
+            }
+            threadNumber = ++threadCount;
+        }
+        Thread worker = new Thread(this::work, threadPrefix + threadNumber);
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    /**
+     * @return An executor that queues its tasks in the given class, e.g. for
+     *         {@link RequestCoalescer}
+     */
+    public Executor executor(TaskPriority priority) {
+        return task -> execute(priority, task);
+    }
+    
+    /**
+     * @return Number of tasks of the class waiting for a worker
+     */
+    public synchronized int getQueueDepth(TaskPriority priority) {
+        return queues.get(priority).size();
+    }
+    
+    /**
+     * @return Number of tasks of the class running now
+     */
+    public synchronized int getRunningCount(TaskPriority priority) {
+        return running.get(priority);
+    }
+    
+    /**
+     * @return How long the oldest waiting task of the class has been queued, in milliseconds,
+     *         or 0 if none is waiting
+     */
+    public synchronized long getOldestWaitMs(TaskPriority priority) {
+        QueuedTask oldest = queues.get(priority).peek();
+        return oldest != null ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.queuedAtNanos) : 0;
+    }
+    
+    private int queuedCount() {
+        int count = 0;
+        for (ArrayDeque<QueuedTask> queue : queues.values()) {
+            count += queue.size();
+        }
+        return count;
+    }
+    
+    private void work() {
+        while (true) {
+            TaskPriority priority;
+            QueuedTask task;
+            synchronized (this) {
+                while ((priority = nextRunnableClass()) == null) {
+                    idleThreads++;
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // Workers live as long as the process; an interrupt only wakes them up
+                    } finally {
+                        idleThreads--;
+                    }
+                }
+                task = queues.get(priority).poll();
+                running.put(priority, running.get(priority) + 1);
+            }
+            
+            try {
+                task.runnable.run();
+            } catch (RuntimeException e) {
+                LynxLog.e(TAG, "Uncaught error in " + priority + " task", e);
+            } finally {
+                synchronized (this) {
+                    running.put(priority, running.get(priority) - 1);
+                    // A task of a capped class may be runnable now
+                    notifyAll();
+                }
+            }
+        }
+    }
+    
+    /**
+     * @return The class whose oldest task should run next, or null if no class below its cap
+     *         has waiting tasks
+     */
+    private TaskPriority nextRunnableClass() {
+        long now = System.nanoTime();
+        long agingStepNanos = TimeUnit.MILLISECONDS.toNanos(AGING_STEP_MS);
+        TaskPriority best = null;
+        long bestRank = Long.MAX_VALUE;
+        long bestQueuedAt = Long.MAX_VALUE;
+        for (TaskPriority priority : TaskPriority.values()) {
+            QueuedTask head = queues.get(priority).peek();
+            if (head == null || running.get(priority) >= maxRunning.get(priority)) {
+                continue;
+            }
+            long rank = priority.ordinal() - (now - head.queuedAtNanos) / agingStepNanos;
+            // Equal ranks go to the task that has waited longest
+            if (rank < bestRank || (rank == bestRank && head.queuedAtNanos < bestQueuedAt)) {
+                best = priority;
+                bestRank = rank;
+                bestQueuedAt = head.queuedAtNanos;
+            }
+        }
+        return best;
+    }
+    
+    private static class QueuedTask {
+        final Runnable runnable;
+        final long queuedAtNanos;
+        
+        QueuedTask(Runnable runnable, long queuedAtNanos) {
+            this.runnable = runnable;
+            this.queuedAtNanos = queuedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.nukie.app.lynx;
+
+/**
+ * Progress of publishing a post to one platform as part of a multi-platform publish.
+ */
+public enum PublishState {
+    /** The platform's media renditions are being prepared (or taken from the cache). */
+    PREPARING_MEDIA,
+    
+    /** The post and its media are being uploaded to the platform. */
+    UPLOADING,
+    
+    /** The platform accepted the post. */
+    PUBLISHED,
+    
+    /** The platform could not be reached (offline, rate limited or circuit open). */
+    UNREACHABLE,
+    
+    /** The platform could not be reached and the post waits in the outbox to be published. */
+    QUEUED,
+    
+    /** The post could not be published to the platform. */
+    FAILED
+}
@@ -0,0 +1,31 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a platform request would have to wait longer than the rate limiter allows for
+ * its next window. Callers can reschedule the work for {@link #getRetryAtMillis()}.
+ */
+public class RateLimitedException extends IOException {
+    private final PlatformType platform;
+    private final long retryAtMillis;
+    
+    public RateLimitedException(PlatformType platform, long retryAtMillis) {
+        super("Rate limited by " + platform + " until " + retryAtMillis);
+        this.platform = platform;
+        this.retryAtMillis = retryAtMillis;
+    }
+    
+    public PlatformType getPlatform() {
+        return platform;
+    }
+    
+    /**
+     * Wall-clock time at which the platform will accept requests again.
+     */
+    public long getRetryAtMillis() {
+        return retryAtMillis;
+    }
+}
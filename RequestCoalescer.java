@@ -0,0 +1,171 @@
+package com.nukie.app.lynx;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Single-flight coalescing of identical requests.
+ * 
+ * The first caller for a key starts the load; every caller that asks for the same key while
+ * it is in flight is attached to that load and receives the same result. A successful result
+ * can additionally be reused for a short linger window, which absorbs duplicate requests that
+ * arrive just after the first one finished. Lingering results are evicted by the next call
+ * after their window has passed, and {@link #invalidate} / {@link #invalidateAll} drop them
+ * explicitly (e.g. on pull-to-refresh).
+ * 
+ * Every caller receives the same value instance, so values should be immutable.
+ * 
+ * A caller that cancels its operation is detached from the load; the load itself is only
+ * cancelled once every caller attached to it is gone.
+ */
+final class RequestCoalescer<K, V> {
+    private final long lingerMs;
+    private final Map<K, Flight<V>> flights = new HashMap<>();
+    
+    /**
+     * @param lingerMs How long a successful result is shared after it completed, 0 to share
+     *                 only while in flight
+     */
+    RequestCoalescer(long lingerMs) {
+        this.lingerMs = lingerMs;
+    }
+    
+    /**
+     * Delivers the result for {@code key} to the listener, starting {@code loader} on the
+     * executor only if no identical load is in flight or lingering.
+     * 
+     * @param caller The caller's operation; cancelling it detaches the listener
+     */
+    void execute(K key, Executor executor, Callable<V> loader, Listener<V> listener, LynxOperation caller) {
+        Flight<V> flight;
+        boolean start = false;
+        V lingering = null;
+        
+        synchronized (this) {
+            evictExpired(System.currentTimeMillis());
+            flight = flights.get(key);
+            if (flight != null && !flight.done) {
+                flight.listeners.add(listener);
+                Flight<V> joinedFlight = flight;
+                caller.onCancel(() -> detach(key, joinedFlight, listener));
+                return;
+            }
+            if (flight != null) {
+                // Done and not yet expired, otherwise it would have been evicted
+                lingering = flight.value;
+            } else {
+                flight = new Flight<>();
+                flight.listeners.add(listener);
+                flights.put(key, flight);
+                start = true;
+            }
+        }
+        
+        if (!start) {
+            listener.onResult(lingering);
+            return;
+        }
+        
+        Flight<V> startedFlight = flight;
+        caller.onCancel(() -> detach(key, startedFlight, listener));
+        executor.execute(startedFlight.operation.wrap(() -> complete(key, startedFlight, loader)));
+    }
+    
+    /**
+     * Makes the next request for {@code key} start a fresh load. Callers already attached to an
+     * in-flight load still receive its result.
+     */
+    synchronized void invalidate(K key) {
+        flights.remove(key);
+    }
+    
+    synchronized void invalidateAll() {
+        flights.clear();
+    }
+    
+    /**
+     * Drops the lingering results whose window has passed, so keys that are never requested
+     * again do not stay in memory.
+     */
+    private void evictExpired(long nowMillis) {
+        Iterator<Flight<V>> iterator = flights.values().iterator();
+        while (iterator.hasNext()) {
+            Flight<V> flight = iterator.next();
+            if (flight.done && nowMillis - flight.completedAtMillis > lingerMs) {
+                iterator.remove();
+            }
+        }
+    }
+    
+    private void detach(K key, Flight<V> flight, Listener<V> listener) {
+        boolean abandoned;
+        synchronized (this) {
+            flight.listeners.remove(listener);
+            abandoned = !flight.done && flight.listeners.isEmpty();
+            if (abandoned && flights.get(key) == flight) {
+                flights.remove(key);
+            }
+        }
+        if (abandoned) {
+            flight.operation.cancel();
+        }
+    }
+    
+    private void complete(K key, Flight<V> flight, Callable<V> loader) {
+        V value = null;
+        Exception error = null;
+        try {
+            value = loader.call();
+        } catch (Exception e) {
+            error = e;
+        }
+        if (error != null) {
+            flight.operation.fail();
+        } else {
+            flight.operation.complete();
+        }
+        
+        List<Listener<V>> listeners;
+        synchronized (this) {
+            flight.done = true;
+            flight.value = value;
+            flight.completedAtMillis = System.currentTimeMillis();
+            listeners = new ArrayList<>(flight.listeners);
+            flight.listeners.clear();
+            
+            // Failures are never shared beyond the callers that were already waiting
+            if ((error != null || lingerMs <= 0) && flights.get(key) == flight) {
+                flights.remove(key);
+            }
+        }
+        
+        for (Listener<V> listener : listeners) {
+            if (error != null) {
+                listener.onError(error);
+            } else {
+                listener.onResult(value);
+            }
+        }
+    }
+    
+    /**
+     * Receives the shared result of a coalesced load.
+     */
+    interface Listener<V> {
+        void onResult(V value);
+        void onError(Exception e);
+    }
+    
+    private static final class Flight<V> {
+        private final LynxOperation operation = new LynxOperation();
+        private final List<Listener<V>> listeners = new ArrayList<>();
+        private boolean done;
+        private V value;
+        private long completedAtMillis;
+    }
+}
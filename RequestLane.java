@@ -0,0 +1,23 @@
+package com.nukie.app.lynx;
+
+import okhttp3.Request;
+
+/**
+ * Priority lane a platform request travels in. Each lane has its own concurrency budget, so a burst of
+ * media downloads can never take the slots that feed pagination needs.
+ */
+public enum RequestLane {
+    /** Feed, profile and other API calls the user is waiting on. */
+    FEED,
+    
+    /** Thumbnails, images, video and uploads. */
+    MEDIA;
+    
+    /**
+     * Lane of a request; requests that were not tagged travel in the feed lane.
+     */
+    static RequestLane of(Request request) {
+        RequestLane lane = request.tag(RequestLane.class);
+        return lane != null ? lane : FEED;
+    }
+}
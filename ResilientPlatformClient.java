@@ -0,0 +1,148 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Decorator isolating a platform client behind a circuit breaker and a bulkhead.
+ * 
+ * The bulkhead caps how many calls to the platform may be in flight at once, so a degraded
+ * platform can hold at most that many threads. The circuit breaker stops calling the platform
+ * altogether while it is failing or slow. In both cases calls fail fast; timeline fetches fall
+ * back to the last page successfully fetched for the same cursor, marked as stale.
+ */
+class ResilientPlatformClient implements LynxPlatformClient {
+    private static final String TAG = "ResilientPlatformClient";
+    
+    static final int DEFAULT_MAX_CONCURRENT_CALLS = 2;
+    private static final int MAX_CACHED_PAGES = 16;
+    
+    private final PlatformType platform;
+    private final LynxPlatformClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    
+    // Last good page per cursor; the null cursor is the top of the timeline
+    private final Map<String, FeedPage> lastGoodPages = Collections.synchronizedMap(
+            new LinkedHashMap<String, FeedPage>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, FeedPage> eldest) {
+                    return size() > MAX_CACHED_PAGES;
+                }
+            });
+    
+    ResilientPlatformClient(PlatformType platform, LynxPlatformClient delegate) {
+        this(platform, delegate, new CircuitBreaker(), DEFAULT_MAX_CONCURRENT_CALLS);
+    }
+    
+    ResilientPlatformClient(
+            PlatformType platform,
+            LynxPlatformClient delegate,
+            CircuitBreaker circuitBreaker,
+            int maxConcurrentCalls) {
+        
+        this(platform, delegate, circuitBreaker, new Semaphore(maxConcurrentCalls));
+    }
+    
+    /**
+     * @param bulkhead Permits for calls in flight, shared with a {@link HedgingPlatformClient}
+     *                 delegate so its hedges count against the same limit
+     */
+    ResilientPlatformClient(
+            PlatformType platform,
+            LynxPlatformClient delegate,
+            CircuitBreaker circuitBreaker,
+            Semaphore bulkhead) {
+        
+        this.platform = platform;
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+    
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+    
+    @Override
+    public FeedPage fetchPage(String cursor, int limit) throws Exception {
+        try {
+            FeedPage page = call(() -> delegate.fetchPage(cursor, limit));
+            lastGoodPages.put(cursor, page);
+            return page;
+        } catch (PlatformUnavailableException e) {
+            FeedPage cached = lastGoodPages.get(cursor);
+            if (cached == null) {
+                throw e;
+            }
+            LynxLog.d(TAG, "Serving cached page for " + platform + ": " + e.getMessage());
+            return cached.asStale();
+        }
+    }
+    
+    @Override
+    public FeedPage fetchSince(String sinceId, long sinceTimestamp, String cursor, int limit) throws Exception {
+        // No stale fallback here: a sync must fail rather than store old posts as new ones
+        return call(() -> delegate.fetchSince(sinceId, sinceTimestamp, cursor, limit));
+    }
+    
+    @Override
+    public boolean createPost(String content, List<String> mediaFiles) throws Exception {
+        return call(() -> delegate.createPost(content, mediaFiles));
+    }
+    
+    @Override
+    public boolean authenticate(Map<String, String> authData) throws Exception {
+        // Signing in must work even while the circuit is open, so only the bulkhead applies
+        if (!bulkhead.tryAcquire()) {
+            throw new PlatformUnavailableException(platform, "too many concurrent calls");
+        }
+        try {
+            return delegate.authenticate(authData);
+        } finally {
+            bulkhead.release();
+        }
+    }
+    
+    @Override
+    public boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) throws Exception {
+        return call(() -> delegate.performInteraction(postId, interactionType, interactionData));
+    }
+    
+    @Override
+    public Outbox.BatchResult performInteractions(List<OutboxOperation> batch) throws Exception {
+        return call(() -> delegate.performInteractions(batch));
+    }
+    
+    private <T> T call(Callable<T> action) throws Exception {
+        if (!bulkhead.tryAcquire()) {
+            throw new PlatformUnavailableException(platform, "too many concurrent calls");
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            throw new PlatformUnavailableException(platform, "circuit open");
+        }
+        
+        long startNanos = System.nanoTime();
+        try {
+            T result = action.call();
+            circuitBreaker.onSuccess(System.nanoTime() - startNanos);
+            return result;
+        } catch (RateLimitedException e) {
+            // Our own budget ran out; the platform itself is fine
+            circuitBreaker.onIgnored();
+            throw e;
+        } catch (Exception e) {
+            circuitBreaker.onFailure(System.nanoTime() - startNanos);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.nukie.app.lynx
+
+import com.nukie.app.data.db.dao.OutboxDao
+import com.nukie.app.data.db.entity.OutboxEntry
+import com.nukie.app.data.model.PlatformType
+import org.json.JSONArray
+import org.json.JSONObject
+
+/**
+ * [Outbox.Journal] backed by the outbox_operations table, so posts and interactions made
+ * offline survive process death and are replayed on the next start.
+ */
+class RoomOutboxJournal(
+    private val outboxDao: OutboxDao
+) : Outbox.Journal {
+    
+    override fun append(operation: OutboxOperation) {
+        outboxDao.insertOperation(
+            OutboxEntry(
+                id = operation.id,
+                postId = operation.postId,
+                platform = operation.platform.name,
+                platformPostId = operation.platformPostId,
+                operationType = operation.operationType,
+                payload = JSONObject(operation.data as Map<*, *>).toString(),
+                mediaFiles = if (operation.mediaFiles.isEmpty()) null else JSONArray(operation.mediaFiles).toString(),
+                createdAt = operation.createdAt,
+                attemptCount = operation.attemptCount
+            )
+        )
+    }
+    
+    override fun loadPending(limit: Int): List<OutboxOperation> {
+        return outboxDao.getPendingOperations(limit).map { row ->
+            OutboxOperation(
+                row.id,
+                row.postId,
+                PlatformType.valueOf(row.platform),
+                row.platformPostId,
+                row.operationType,
+                parsePayload(row.payload),
+                parseMediaFiles(row.mediaFiles),
+                row.createdAt,
+                row.attemptCount
+            )
+        }
+    }
+    
+    override fun remove(ids: Collection<String>) {
+        if (ids.isNotEmpty()) {
+            outboxDao.deleteOperations(ids.toList())
+        }
+    }
+    
+    override fun markFailed(ids: Collection<String>) {
+        if (ids.isNotEmpty()) {
+            outboxDao.markOperationsFailed(ids.toList())
+        }
+    }
+    
+    override fun recordAttempt(ids: Collection<String>) {
+        if (ids.isNotEmpty()) {
+            outboxDao.incrementAttemptCount(ids.toList())
+        }
+    }
+    
+    private fun parsePayload(payload: String?): Map<String, String> {
+        if (payload == null) return emptyMap()
+        val json = JSONObject(payload)
+        return json.keys().asSequence().associateWith { json.getString(it) }
+    }
+    
+    private fun parseMediaFiles(mediaFiles: String?): List<String> {
+        if (mediaFiles == null) return emptyList()
+        val json = JSONArray(mediaFiles)
+        return (0 until json.length()).map { json.getString(it) }
+    }
+}
@@ -0,0 +1,96 @@
+package com.nukie.app.lynx
+
+import com.nukie.app.data.db.NukieDatabase
+import com.nukie.app.data.db.entity.PostMedia
+import com.nukie.app.data.db.entity.SocialPost
+import com.nukie.app.data.db.entity.SyncStatus
+import com.nukie.app.data.model.PlatformType
+import com.nukie.app.data.model.UnifiedPost
+
+/**
+ * [DeltaSyncEngine.SyncStore] backed by the sync_status and social_posts tables. New posts
+ * and the advanced watermark are written in one transaction, so a crash can never leave the
+ * watermark ahead of the stored posts.
+ */
+class RoomSyncStore(
+    private val database: NukieDatabase
+) : DeltaSyncEngine.SyncStore {
+    
+    override fun load(platform: PlatformType, accountId: String): SyncState? {
+        return database.syncStatusDao().getSyncStatusSync(platform.name, accountId)?.toSyncState()
+    }
+    
+    override fun loadDue(now: Long): List<SyncState> {
+        return database.syncStatusDao().getDueSyncStatusSync(now).map { it.toSyncState() }
+    }
+    
+    override fun earliestNextSyncTime(): Long {
+        return database.syncStatusDao().getEarliestNextSyncTimeSync() ?: Long.MAX_VALUE
+    }
+    
+    override fun commit(state: SyncState, newPosts: List<UnifiedPost>) {
+        val fetchedAt = System.currentTimeMillis()
+        database.runInTransaction {
+            if (newPosts.isNotEmpty()) {
+                database.socialPostsDao().upsertPostsSync(newPosts.map { it.toSocialPost(fetchedAt) })
+                database.socialPostsDao().upsertMediaSync(newPosts.flatMap { it.toPostMedia() })
+            }
+            database.syncStatusDao().updateSyncStatusSync(
+                SyncStatus(
+                    platform = state.platform.name,
+                    accountId = state.accountId,
+                    lastSyncTime = state.lastSyncTime,
+                    nextSyncTime = state.nextSyncTime,
+                    syncInterval = state.syncIntervalMs,
+                    isAutoSync = state.isAutoSync,
+                    newestItemId = state.newestItemId,
+                    newestItemTimestamp = if (state.newestItemId != null) state.newestItemTimestamp else null
+                )
+            )
+        }
+    }
+    
+    private fun SyncStatus.toSyncState() = SyncState(
+        PlatformType.valueOf(platform),
+        accountId,
+        newestItemId,
+        newestItemTimestamp ?: 0,
+        lastSyncTime,
+        nextSyncTime ?: 0,
+        syncInterval,
+        isAutoSync
+    )
+    
+    private fun UnifiedPost.toSocialPost(fetchedAt: Long) = SocialPost(
+        id = id,
+        platform = platformType.name,
+        originalPlatformId = platformId,
+        authorId = author.id,
+        authorUsername = author.username,
+        authorDisplayName = author.displayName,
+        authorAvatarPath = author.avatarUrl,
+        content = content,
+        publishedAt = publishedAt,
+        fetchedAt = fetchedAt,
+        likeCount = likeCount,
+        commentCount = commentCount,
+        shareCount = shareCount,
+        isLikedByUser = isLiked,
+        isBookmarked = isBookmarked
+    )
+    
+    private fun UnifiedPost.toPostMedia() = mediaItems.map { media ->
+        PostMedia(
+            id = media.id,
+            postId = id,
+            mediaType = media.type.name.lowercase(),
+            remoteUrl = media.url,
+            localPath = null,
+            width = media.width,
+            height = media.height,
+            duration = media.duration?.toInt(),
+            thumbnailPath = media.previewUrl,
+            altText = null
+        )
+    }
+}
@@ -0,0 +1,95 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+/**
+ * Delta sync progress of one platform account, mirrored from its sync_status row.
+ */
+public final class SyncState {
+    /** Default time between background syncs of an account. */
+    public static final long DEFAULT_SYNC_INTERVAL_MS = 3_600_000;
+    
+    private final PlatformType platform;
+    private final String accountId;
+    private final String newestItemId;
+    private final long newestItemTimestamp;
+    private final long lastSyncTime;
+    private final long nextSyncTime;
+    private final long syncIntervalMs;
+    private final boolean autoSync;
+    
+    /**
+     * @param platform The platform
+     * @param accountId Id of the account on the platform
+     * @param newestItemId Platform id of the newest item synced so far, or null before the first sync
+     * @param newestItemTimestamp Publication time of that item, in epoch milliseconds (0 before the first sync)
+     * @param lastSyncTime When the account was last synced (0 if never)
+     * @param nextSyncTime When the account is due for its next background sync
+     * @param syncIntervalMs Time between background syncs
+     * @param autoSync Whether the account syncs in the background
+     */
+    public SyncState(
+            PlatformType platform,
+            String accountId,
+            String newestItemId,
+            long newestItemTimestamp,
+            long lastSyncTime,
+            long nextSyncTime,
+            long syncIntervalMs,
+            boolean autoSync) {
+        this.platform = platform;
+        this.accountId = accountId;
+        this.newestItemId = newestItemId;
+        this.newestItemTimestamp = newestItemTimestamp;
+        this.lastSyncTime = lastSyncTime;
+        this.nextSyncTime = nextSyncTime;
+        this.syncIntervalMs = syncIntervalMs;
+        this.autoSync = autoSync;
+    }
+    
+    /**
+     * State of an account that has never been synced and is due right away.
+     */
+    public static SyncState initial(PlatformType platform, String accountId) {
+        return new SyncState(platform, accountId, null, 0, 0, 0, DEFAULT_SYNC_INTERVAL_MS, true);
+    }
+    
+    /**
+     * State after a successful sync at {@code now} whose newest item is the given one.
+     */
+    SyncState advancedTo(String itemId, long itemTimestamp, long now) {
+        return new SyncState(platform, accountId, itemId, itemTimestamp, now, now + syncIntervalMs, syncIntervalMs, autoSync);
+    }
+    
+    public PlatformType getPlatform() {
+        return platform;
+    }
+    
+    public String getAccountId() {
+        return accountId;
+    }
+    
+    public String getNewestItemId() {
+        return newestItemId;
+    }
+    
+    public long getNewestItemTimestamp() {
+        return newestItemTimestamp;
+    }
+    
+    public long getLastSyncTime() {
+        return lastSyncTime;
+    }
+    
+    public long getNextSyncTime() {
+        return nextSyncTime;
+    }
+    
+    public long getSyncIntervalMs() {
+        return syncIntervalMs;
+    }
+    
+    public boolean isAutoSync() {
+        return autoSync;
+    }
+}
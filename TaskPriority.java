@@ -0,0 +1,15 @@
+package com.nukie.app.lynx;
+
+/**
+ * Priority class of work submitted to the {@link PriorityTaskScheduler}, highest first.
+ */
+public enum TaskPriority {
+    /** Reads the user is waiting on: feed pages, platform feeds. */
+    USER_VISIBLE,
+    
+    /** Writes the user just made: interactions, sign-ins. */
+    INTERACTIVE,
+    
+    /** Work nobody is waiting on: sync, posting with its media uploads, maintenance. */
+    BACKGROUND
+}
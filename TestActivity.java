@@ -1,14 +1,14 @@
 package com.nukie.app.test;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.nukie.app.data.db.NukieDatabase;
 import com.nukie.app.data.repository.SocialRepository;
+import com.nukie.app.lynx.MainThreadDispatcher;
 
 /**
  * Test Activity for running tests and displaying results in the UI.
@@ -18,6 +18,7 @@ import com.nukie.app.data.repository.SocialRepository;
 public class TestActivity extends AppCompatActivity {
     private static final String TAG = "TestActivity";
     
+    private final MainThreadDispatcher mainThreadDispatcher = new MainThreadDispatcher();
     private NukieTestExecutor testExecutor;
     private TestResultsCallback callback;
     
@@ -27,8 +28,10 @@ public class TestActivity extends AppCompatActivity {
         setContentView(com.nukie.app.R.layout.activity_test);
         
         // Initialize test executor
-        SocialRepository repository = ((com.nukie.app.NukieApplication) getApplication()).getSocialRepository();
-        testExecutor = new NukieTestExecutor(this, repository);
+        com.nukie.app.NukieApplication application = (com.nukie.app.NukieApplication) getApplication();
+        SocialRepository repository = application.getSocialRepository();
+        NukieDatabase database = application.getDatabase();
+        testExecutor = new NukieTestExecutor(this, repository, database);
         
         // Set up UI elements
         setupUI();
@@ -56,7 +59,7 @@ public class TestActivity extends AppCompatActivity {
             final String report = testExecutor.executeAllTestsAndGenerateReport();
             
             // Update UI on main thread
-            new Handler(Looper.getMainLooper()).post(() -> {
+            mainThreadDispatcher.dispatch(() -> {
                 showToast("All tests completed");
                 displayResults(report);
                 
@@ -75,7 +78,7 @@ public class TestActivity extends AppCompatActivity {
             final NukieTestRunner.TestResults results = testExecutor.executeTestSuite("functional");
             
             // Update UI on main thread
-            new Handler(Looper.getMainLooper()).post(() -> {
+            mainThreadDispatcher.dispatch(() -> {
                 showToast("Functional tests completed");
                 displayResults(results.toString());
                 
@@ -94,7 +97,7 @@ public class TestActivity extends AppCompatActivity {
             final NukieTestRunner.TestResults results = testExecutor.executeTestSuite("ui");
             
             // Update UI on main thread
-            new Handler(Looper.getMainLooper()).post(() -> {
+            mainThreadDispatcher.dispatch(() -> {
                 showToast("UI tests completed");
                 displayResults(results.toString());
                 
@@ -114,7 +117,7 @@ public class TestActivity extends AppCompatActivity {
             final String compatibilityReport = testExecutor.generateCompatibilityReport();
             
             // Update UI on main thread
-            new Handler(Looper.getMainLooper()).post(() -> {
+            mainThreadDispatcher.dispatch(() -> {
                 showToast("Reports generated");
                 
                 // Save reports to files
@@ -0,0 +1,134 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.UnifiedPost;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Merges per-platform timelines into one global timeline ordered newest first.
+ * 
+ * Every platform already returns its posts newest first, so instead of concatenating all
+ * timelines and sorting the result, the timelines are k-way merged with a heap holding one
+ * cursor per platform. Posts are produced lazily, so taking the first N posts of the merged
+ * timeline costs O(N log k) and never materializes the full concatenation.
+ */
+public final class TimelineMerger {
+    
+    /**
+     * Global feed order: newest first.
+     */
+    public static final Comparator<UnifiedPost> NEWEST_FIRST =
+            (p1, p2) -> Long.compare(p2.getPublishedAt(), p1.getPublishedAt());
+    
+    private TimelineMerger() {
+    }
+    
+    /**
+     * Returns an iterator over the merged timeline. Posts are pulled from the underlying
+     * timelines only as the iterator advances.
+     * 
+     * @param timelines Per-platform timelines, each ordered newest first
+     */
+    public static Iterator<UnifiedPost> mergeLazily(Collection<? extends List<UnifiedPost>> timelines) {
+        return new MergeIterator(timelines);
+    }
+    
+    /**
+     * Merges the timelines and stops after {@code maxPosts} posts.
+     * 
+     * @param timelines Per-platform timelines, each ordered newest first
+     * @param maxPosts Maximum number of posts to return
+     * @return The newest {@code maxPosts} posts across all timelines, newest first
+     */
+    public static List<UnifiedPost> merge(Collection<? extends List<UnifiedPost>> timelines, int maxPosts) {
+        int available = 0;
+        for (List<UnifiedPost> timeline : timelines) {
+            available += timeline.size();
+        }
+        
+        List<UnifiedPost> merged = new ArrayList<>(Math.min(available, maxPosts));
+        Iterator<UnifiedPost> iterator = mergeLazily(timelines);
+        while (merged.size() < maxPosts && iterator.hasNext()) {
+            merged.add(iterator.next());
+        }
+        return merged;
+    }
+    
+    /**
+     * Returns the timeline itself if it is ordered newest first, or a sorted copy otherwise.
+     * This keeps the merge correct if a platform ever returns posts out of order.
+     */
+    static List<UnifiedPost> ensureNewestFirst(List<UnifiedPost> timeline) {
+        for (int i = 1; i < timeline.size(); i++) {
+            if (NEWEST_FIRST.compare(timeline.get(i - 1), timeline.get(i)) > 0) {
+                List<UnifiedPost> sorted = new ArrayList<>(timeline);
+                sorted.sort(NEWEST_FIRST);
+                return sorted;
+            }
+        }
+        return timeline;
+    }
+    
+    /**
+     * Position inside one platform's timeline.
+     */
+    private static final class Cursor {
+        private final List<UnifiedPost> timeline;
+        private final int order;
+        private int index;
+        
+        Cursor(List<UnifiedPost> timeline, int order) {
+            this.timeline = timeline;
+            this.order = order;
+        }
+        
+        UnifiedPost head() {
+            return timeline.get(index);
+        }
+    }
+    
+    private static final class MergeIterator implements Iterator<UnifiedPost> {
+        private final PriorityQueue<Cursor> heap;
+        
+        MergeIterator(Collection<? extends List<UnifiedPost>> timelines) {
+            // Ties are broken by timeline order so the merge is deterministic
+            heap = new PriorityQueue<>(Math.max(1, timelines.size()), (c1, c2) -> {
+                int result = NEWEST_FIRST.compare(c1.head(), c2.head());
+                return result != 0 ? result : Integer.compare(c1.order, c2.order);
+            });
+            
+            int order = 0;
+            for (List<UnifiedPost> timeline : timelines) {
+                if (!timeline.isEmpty()) {
+                    heap.add(new Cursor(ensureNewestFirst(timeline), order++));
+                }
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+        
+        @Override
+        public UnifiedPost next() {
+            Cursor cursor = heap.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            
+            UnifiedPost post = cursor.head();
+            cursor.index++;
+            if (cursor.index < cursor.timeline.size()) {
+                heap.add(cursor);
+            }
+            return post;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+import com.nukie.app.data.model.UnifiedPost;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the background sync schedule, on a fake clock and timer.
+ */
+public class BackgroundSyncSchedulerTest {
+    private static final long START = 10 * BackgroundSyncScheduler.WINDOW_MS;
+    
+    private final FakeConditions conditions = new FakeConditions();
+    private final FakeTimer timer = new FakeTimer();
+    private final FakeSyncStore store = new FakeSyncStore();
+    private long now = START;
+    private boolean platformFailing;
+    private BackgroundSyncScheduler scheduler;
+    
+    @Before
+    public void setUp() {
+        DeltaSyncEngine deltaSync = new DeltaSyncEngine(store, (platform, sinceId, sinceTimestamp, cursor, limit) -> {
+            if (platformFailing) {
+                throw new java.io.IOException("Platform unavailable");
+            }
+            return new FeedPage(Collections.emptyList(), null, false);
+        });
+        Outbox outbox = new Outbox(new InMemoryOutboxJournal(), (platform, batch) -> Outbox.BatchResult.acceptedAll(batch));
+        // No jitter, so wake-up times are exact
+        Random noJitter = new Random() {
+            @Override
+            public double nextDouble() {
+                return 0;
+            }
+        };
+        scheduler = new BackgroundSyncScheduler(outbox, deltaSync, conditions, () -> now, noJitter, timer);
+        deltaSync.track(PlatformType.MASTODON, "default");
+    }
+    
+    @Test
+    public void overdueAccountSyncsRightAwayThenAtItsWindow() {
+        scheduler.start();
+        assertEquals(0, timer.pendingDelayMs());
+        
+        timer.runPending();
+        assertEquals(windowStartOfNextSync(BackgroundSyncScheduler.WINDOW_MS) - now, timer.pendingDelayMs());
+    }
+    
+    @Test
+    public void constrainedConditionsCoarsenTheGrid() {
+        conditions.metered = true;
+        scheduler.start();
+        timer.runPending();
+        
+        assertEquals(windowStartOfNextSync(BackgroundSyncScheduler.CONSTRAINED_WINDOW_MS) - now, timer.pendingDelayMs());
+    }
+    
+    @Test
+    public void failedPassesBackOffExponentially() {
+        platformFailing = true;
+        scheduler.start();
+        timer.runPending();
+        assertEquals(30_000, timer.pendingDelayMs());
+        
+        timer.runPending();
+        assertEquals(60_000, timer.pendingDelayMs());
+        
+        timer.runPending();
+        assertEquals(120_000, timer.pendingDelayMs());
+    }
+    
+    @Test
+    public void rescheduleWhileOnlineKeepsTheBackoff() {
+        platformFailing = true;
+        scheduler.start();
+        timer.runPending();
+        timer.runPending();
+        ScheduledFuture<?> retry = timer.pending;
+        
+        // e.g. a battery broadcast
+        scheduler.reschedule();
+        
+        assertSame(retry, timer.pending);
+        assertFalse(retry.isCancelled());
+        timer.runPending();
+        assertEquals(120_000, timer.pendingDelayMs());
+    }
+    
+    @Test
+    public void reconnectingEndsTheBackoff() {
+        platformFailing = true;
+        scheduler.start();
+        timer.runPending();
+        timer.runPending();
+        
+        conditions.networkAvailable = false;
+        scheduler.reschedule();
+        assertEquals(60_000, timer.pendingDelayMs());
+        
+        platformFailing = false;
+        conditions.networkAvailable = true;
+        scheduler.reschedule();
+        // The account is overdue, so the pass runs right away
+        assertEquals(0, timer.pendingDelayMs());
+        
+        platformFailing = true;
+        timer.runPending();
+        assertEquals(30_000, timer.pendingDelayMs());
+    }
+    
+    @Test
+    public void noNetworkWaitsForReschedule() {
+        conditions.networkAvailable = false;
+        scheduler.start();
+        timer.runPending();
+        assertNull(timer.pending);
+        
+        conditions.networkAvailable = true;
+        scheduler.reschedule();
+        assertEquals(0, timer.pendingDelayMs());
+    }
+    
+    @Test
+    public void stopCancelsThePendingWakeUp() {
+        scheduler.start();
+        ScheduledFuture<?> wakeUp = timer.pending;
+        
+        scheduler.stop();
+        
+        assertTrue(wakeUp.isCancelled());
+        scheduler.reschedule();
+        assertNull(timer.pending);
+    }
+    
+    /**
+     * @return Start of the window the account is next due in, or of the following one if that
+     *         window has already begun
+     */
+    private long windowStartOfNextSync(long window) {
+        long nextSync = store.states.get(PlatformType.MASTODON).getNextSyncTime();
+        long boundary = nextSync / window * window;
+        return boundary <= now ? boundary + window : boundary;
+    }
+    
+    private static final class FakeConditions implements BackgroundSyncScheduler.DeviceConditions {
+        boolean networkAvailable = true;
+        boolean metered;
+        
+        @Override
+        public boolean isNetworkAvailable() {
+            return networkAvailable;
+        }
+        
+        @Override
+        public boolean isNetworkMetered() {
+            return metered;
+        }
+        
+        @Override
+        public boolean isPowerConstrained() {
+            return false;
+        }
+    }
+    
+    private static final class FakeSyncStore implements DeltaSyncEngine.SyncStore {
+        final Map<PlatformType, SyncState> states = new LinkedHashMap<>();
+        
+        @Override
+        public SyncState load(PlatformType platform, String accountId) {
+            return states.get(platform);
+        }
+        
+        @Override
+        public List<SyncState> loadDue(long now) {
+            List<SyncState> due = new ArrayList<>();
+            for (SyncState state : states.values()) {
+                if (state.getNextSyncTime() <= now) {
+                    due.add(state);
+                }
+            }
+            return due;
+        }
+        
+        @Override
+        public long earliestNextSyncTime() {
+            long earliest = Long.MAX_VALUE;
+            for (SyncState state : states.values()) {
+                earliest = Math.min(earliest, state.getNextSyncTime());
+            }
+            return earliest;
+        }
+        
+        @Override
+        public void commit(SyncState state, List<UnifiedPost> newPosts) {
+            states.put(state.getPlatform(), state);
+        }
+    }
+    
+    /**
+     * Runs submitted tasks right away and holds the single scheduled wake-up until the test
+     * runs it, advancing the clock to its time.
+     */
+    private final class FakeTimer extends AbstractExecutorService implements ScheduledExecutorService {
+        FakeFuture pending;
+        
+        long pendingDelayMs() {
+            return pending.runAt - now;
+        }
+        
+        void runPending() {
+            FakeFuture wakeUp = pending;
+            pending = null;
+            now = Math.max(now, wakeUp.runAt);
+            wakeUp.task.run();
+        }
+        
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+        
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            pending = new FakeFuture(command, now + unit.toMillis(delay));
+            return pending;
+        }
+        
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+        
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+        
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+        
+        @Override
+        public void shutdown() {
+        }
+        
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+        
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+        
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+        
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+        
+        private final class FakeFuture implements ScheduledFuture<Object> {
+            final Runnable task;
+            final long runAt;
+            boolean cancelled;
+            
+            FakeFuture(Runnable task, long runAt) {
+                this.task = task;
+                this.runAt = runAt;
+            }
+            
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                cancelled = true;
+                if (pending == this) {
+                    pending = null;
+                }
+                return true;
+            }
+            
+            @Override
+            public boolean isCancelled() {
+                return cancelled;
+            }
+            
+            @Override
+            public boolean isDone() {
+                return cancelled;
+            }
+            
+            @Override
+            public Object get() {
+                return null;
+            }
+            
+            @Override
+            public Object get(long timeout, TimeUnit unit) {
+                return null;
+            }
+            
+            @Override
+            public long getDelay(TimeUnit unit) {
+                return unit.convert(runAt - now, TimeUnit.MILLISECONDS);
+            }
+            
+            @Override
+            public int compareTo(Delayed other) {
+                return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.nukie.app.lynx;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for resumable uploads against a MockWebServer session.
+ */
+public class ChunkedUploaderTest {
+    private static final String UPLOAD_KEY = "YOUTUBE_video";
+    private static final MediaType VIDEO = MediaType.get("video/mp4");
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    
+    private final MockWebServer server = new MockWebServer();
+    private final InMemoryStateStore store = new InMemoryStateStore();
+    private File file;
+    private ChunkedUploader uploader;
+    
+    @Before
+    public void setUp() throws IOException {
+        server.start();
+        file = File.createTempFile("upload", ".mp4");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(CONTENT);
+        }
+        uploader = new ChunkedUploader(new OkHttpClient(), store, 4);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+        file.delete();
+    }
+    
+    @Test
+    public void resumesFromThePersistedOffset() throws Exception {
+        // Stored by an earlier process that was killed after the first chunk
+        File stateDir = new File(file.getParentFile(), file.getName() + ".state");
+        String uploadUrl = server.url("/upload/session").toString();
+        new FileUploadStateStore(stateDir).save(new ChunkedUploader.UploadState(UPLOAD_KEY, uploadUrl, CONTENT.length, 4));
+        FileUploadStateStore files = new FileUploadStateStore(stateDir);
+        uploader = new ChunkedUploader(new OkHttpClient(), files, 4);
+        server.enqueue(new MockResponse().setResponseCode(308).setHeader("Range", "bytes=0-3"));
+        server.enqueue(new MockResponse().setResponseCode(308).setHeader("Range", "bytes=0-7"));
+        server.enqueue(new MockResponse().setBody("{\"id\":\"video\"}"));
+        
+        String result = uploader.upload(UPLOAD_KEY, file, VIDEO, totalBytes -> {
+            throw new AssertionError("A stored session must be resumed");
+        }, null);
+        
+        assertEquals("{\"id\":\"video\"}", result);
+        assertEquals("bytes */10", server.takeRequest().getHeader("Content-Range"));
+        RecordedRequest second = server.takeRequest();
+        assertEquals("bytes 4-7/10", second.getHeader("Content-Range"));
+        assertEquals("4567", second.getBody().readUtf8());
+        RecordedRequest last = server.takeRequest();
+        assertEquals("bytes 8-9/10", last.getHeader("Content-Range"));
+        assertEquals("89", last.getBody().readUtf8());
+        assertNull(files.load(UPLOAD_KEY));
+        stateDir.delete();
+    }
+    
+    @Test
+    public void persistsTheOffsetAfterEachChunk() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(308).setHeader("Range", "bytes=0-3"));
+        server.enqueue(new MockResponse().setResponseCode(400));
+        String uploadUrl = server.url("/upload/session").toString();
+        
+        try {
+            uploader.upload(UPLOAD_KEY, file, VIDEO, totalBytes -> uploadUrl, null);
+            fail("The rejected chunk must fail the upload");
+        } catch (ChunkedUploader.UploadRejectedException expected) {
+        }
+        
+        assertEquals(4, store.load(UPLOAD_KEY).getAcknowledgedBytes());
+    }
+    
+    @Test
+    public void givesUpWhenTheServerKeepsNothing() throws Exception {
+        // Every chunk and status query is answered with 308 and no Range
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setResponseCode(308);
+            }
+        });
+        String uploadUrl = server.url("/upload/session").toString();
+        
+        try {
+            uploader.upload(UPLOAD_KEY, file, VIDEO, totalBytes -> uploadUrl, null);
+            fail("An upload that makes no progress must fail");
+        } catch (IOException expected) {
+        }
+        
+        // The first chunk, then three retries each preceded by a status query
+        assertEquals(7, server.getRequestCount());
+        assertEquals(0, store.load(UPLOAD_KEY).getAcknowledgedBytes());
+    }
+    
+    private static final class InMemoryStateStore implements ChunkedUploader.StateStore {
+        private final Map<String, ChunkedUploader.UploadState> states = new HashMap<>();
+        
+        @Override
+        public ChunkedUploader.UploadState load(String uploadKey) {
+            return states.get(uploadKey);
+        }
+        
+        @Override
+        public void save(ChunkedUploader.UploadState state) {
+            states.put(state.getUploadKey(), state);
+        }
+        
+        @Override
+        public void delete(String uploadKey) {
+            states.remove(uploadKey);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+import com.nukie.app.data.model.UnifiedAuthor;
+import com.nukie.app.data.model.UnifiedPost;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for delta sync against a paged in-memory timeline.
+ */
+public class DeltaSyncEngineTest {
+    private static final String ACCOUNT = "default";
+    private static final int PAGE_SIZE = 40;
+    
+    /** Newest first. */
+    private final List<UnifiedPost> timeline = new ArrayList<>();
+    private final List<UnifiedPost> stored = new ArrayList<>();
+    private SyncState state;
+    private int requests;
+    private long newestTimestamp;
+    private DeltaSyncEngine engine;
+    
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 300; i++) {
+            timeline.add(0, nextPost());
+        }
+        LynxPlatformClient client = new TimelineClient();
+        engine = new DeltaSyncEngine(new FakeSyncStore(), (platform, sinceId, sinceTimestamp, cursor, limit) ->
+                client.fetchSince(sinceId, sinceTimestamp, cursor, limit));
+        engine.track(PlatformType.MASTODON, ACCOUNT);
+    }
+    
+    @Test
+    public void firstSyncStoresTheNewestBatch() throws Exception {
+        int synced = engine.sync(state, 1);
+        
+        // Whole pages up to the batch size: three pages of 40
+        assertEquals(120, synced);
+        assertEquals(timeline.get(0).getPlatformId(), state.getNewestItemId());
+    }
+    
+    @Test
+    public void syncPagesDownToTheWatermark() throws Exception {
+        engine.sync(state, 1);
+        stored.clear();
+        for (int i = 0; i < 250; i++) {
+            timeline.add(0, nextPost());
+        }
+        
+        int synced = engine.sync(state, 2);
+        
+        assertEquals(250, synced);
+        assertEquals(250, new HashSet<>(stored).size());
+        assertEquals(new HashSet<>(timeline.subList(0, 250)), new HashSet<>(stored));
+        assertEquals(timeline.get(0).getPlatformId(), state.getNewestItemId());
+    }
+    
+    @Test
+    public void nothingNewCostsOneRequest() throws Exception {
+        engine.sync(state, 1);
+        requests = 0;
+        
+        assertEquals(0, engine.sync(state, 2));
+        assertEquals(1, requests);
+    }
+    
+    private UnifiedPost nextPost() {
+        newestTimestamp += 1000;
+        String id = "status_" + newestTimestamp;
+        UnifiedAuthor author = new UnifiedAuthor("author", "author", PlatformType.MASTODON, "author", "Author", null, false);
+        return new UnifiedPost("masto_" + id, id, PlatformType.MASTODON, author, "", Collections.emptyList(),
+                newestTimestamp, 0, 0, 0, false, false, null);
+    }
+    
+    /**
+     * Pages the timeline in fixed-size pages with an offset cursor.
+     */
+    private final class TimelineClient implements LynxPlatformClient {
+        @Override
+        public FeedPage fetchPage(String cursor, int limit) {
+            requests++;
+            int offset = cursor != null ? Integer.parseInt(cursor) : 0;
+            int end = Math.min(offset + PAGE_SIZE, timeline.size());
+            boolean hasMore = end < timeline.size();
+            return new FeedPage(new ArrayList<>(timeline.subList(offset, end)), hasMore ? String.valueOf(end) : null, hasMore);
+        }
+        
+        @Override
+        public boolean createPost(String content, List<String> mediaFiles) {
+            return true;
+        }
+        
+        @Override
+        public boolean authenticate(Map<String, String> authData) {
+            return true;
+        }
+        
+        @Override
+        public boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) {
+            return true;
+        }
+    }
+    
+    private final class FakeSyncStore implements DeltaSyncEngine.SyncStore {
+        @Override
+        public SyncState load(PlatformType platform, String accountId) {
+            return state;
+        }
+        
+        @Override
+        public List<SyncState> loadDue(long now) {
+            return state.getNextSyncTime() <= now ? Collections.singletonList(state) : Collections.<SyncState>emptyList();
+        }
+        
+        @Override
+        public long earliestNextSyncTime() {
+            return state.getNextSyncTime();
+        }
+        
+        @Override
+        public void commit(SyncState newState, List<UnifiedPost> newPosts) {
+            state = newState;
+            stored.addAll(newPosts);
+        }
+    }
+}
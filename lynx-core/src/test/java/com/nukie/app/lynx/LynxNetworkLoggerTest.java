@@ -0,0 +1,94 @@
+package com.nukie.app.lynx;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the sampled network logger installed as a network interceptor.
+ */
+public class LynxNetworkLoggerTest {
+    private static final long MAX_BODY_BYTES = 8;
+    
+    private final MockWebServer server = new MockWebServer();
+    private final List<String> logged = new ArrayList<>();
+    private OkHttpClient client;
+    
+    @Before
+    public void setUp() throws IOException {
+        server.start();
+        LynxLog.setSink((priority, tag, message, error) -> logged.add(message));
+        client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                        .header("Authorization", "Bearer secret")
+                        .build()))
+                .addNetworkInterceptor(new LynxNetworkLogger(LynxNetworkLogger.Level.SAMPLED_BODY, 1, MAX_BODY_BYTES))
+                .build();
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        LynxLog.setSink(new LynxLog.StandardErrorSink(LynxLog.INFO));
+        server.shutdown();
+    }
+    
+    @Test
+    public void redactsCredentialsAddedBeforeTheNetwork() throws Exception {
+        server.enqueue(new MockResponse().setBody("{}").setHeader("Content-Type", "application/json"));
+        
+        fetch();
+        
+        assertTrue(logged.get(0).contains("Authorization: [redacted]"));
+        assertFalse(logged.get(0).contains("secret"));
+    }
+    
+    @Test
+    public void bodyOfExactlyTheCapIsNotTruncated() throws Exception {
+        server.enqueue(new MockResponse().setBody("[1,2,3,4]").setHeader("Content-Type", "application/json"));
+        server.enqueue(new MockResponse().setBody("[1,2,34]").setHeader("Content-Type", "application/json"));
+        
+        assertEquals("[1,2,3,4]", fetch());
+        assertTrue(logged.get(1).endsWith("\n[1,2,3,4\n[body truncated to 8 bytes]"));
+        
+        assertEquals("[1,2,34]", fetch());
+        assertTrue(logged.get(3).endsWith("\n[1,2,34]"));
+    }
+    
+    @Test
+    public void decodesGzippedBodies() throws Exception {
+        Buffer gzipped = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(gzipped))) {
+            sink.writeUtf8("{}");
+        }
+        server.enqueue(new MockResponse().setBody(gzipped)
+                .setHeader("Content-Type", "application/json")
+                .setHeader("Content-Encoding", "gzip"));
+        
+        assertEquals("{}", fetch());
+        assertTrue(logged.get(1).endsWith("\n{}"));
+    }
+    
+    private String fetch() throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(server.url("/feed")).build()).execute()) {
+            return response.body().string();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+import com.nukie.app.data.model.UnifiedAuthor;
+import com.nukie.app.data.model.UnifiedPost;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Unit tests for replaying interaction batches through a platform without a bulk endpoint.
+ */
+public class OutboxTest {
+    private final InMemoryOutboxJournal journal = new InMemoryOutboxJournal();
+    private final List<String> sentPostIds = new ArrayList<>();
+    /** Post the platform fails on, and how. */
+    private String failingPostId;
+    private Exception failure;
+    private Outbox outbox;
+    
+    @Before
+    public void setUp() {
+        LynxPlatformClient client = new OneByOneClient();
+        outbox = new Outbox(journal, (platform, batch) -> client.performInteractions(batch), 60_000);
+        for (int i = 1; i <= 4; i++) {
+            outbox.enqueueInteraction(post("post_" + i), "like", null);
+        }
+    }
+    
+    @Test
+    public void connectionDropLeavesUntriedInteractionsUntouched() {
+        failingPostId = "post_2";
+        failure = new IOException("Connection reset");
+        
+        assertFalse(outbox.replay());
+        
+        assertEquals(Collections.singletonList("post_1"), sentPostIds);
+        List<OutboxOperation> pending = journal.loadPending(10);
+        assertEquals(3, pending.size());
+        for (OutboxOperation operation : pending) {
+            assertEquals(0, operation.getAttemptCount());
+        }
+    }
+    
+    @Test
+    public void rejectedInteractionCountsAnAttemptAndTheRestWait() {
+        failingPostId = "post_2";
+        failure = new IllegalStateException("Post deleted");
+        
+        assertFalse(outbox.replay());
+        
+        List<OutboxOperation> pending = journal.loadPending(10);
+        assertEquals(3, pending.size());
+        assertEquals("post_2", pending.get(0).getPlatformPostId());
+        assertEquals(1, pending.get(0).getAttemptCount());
+        assertEquals(0, pending.get(1).getAttemptCount());
+        assertEquals(0, pending.get(2).getAttemptCount());
+    }
+    
+    private static UnifiedPost post(String platformId) {
+        UnifiedAuthor author = new UnifiedAuthor("author", "author", PlatformType.MASTODON, "author", "Author", null, false);
+        return new UnifiedPost("masto_" + platformId, platformId, PlatformType.MASTODON, author, "",
+                Collections.emptyList(), 0, 0, 0, 0, false, false, null);
+    }
+    
+    private final class OneByOneClient implements LynxPlatformClient {
+        @Override
+        public FeedPage fetchPage(String cursor, int limit) {
+            return new FeedPage(Collections.emptyList(), null, false);
+        }
+        
+        @Override
+        public boolean createPost(String content, List<String> mediaFiles) {
+            return true;
+        }
+        
+        @Override
+        public boolean authenticate(Map<String, String> authData) {
+            return true;
+        }
+        
+        @Override
+        public boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) throws Exception {
+            if (postId.equals(failingPostId)) {
+                throw failure;
+            }
+            sentPostIds.add(postId);
+            return true;
+        }
+    }
+}
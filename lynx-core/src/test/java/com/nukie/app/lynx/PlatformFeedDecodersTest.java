@@ -0,0 +1,164 @@
+package com.nukie.app.lynx;
+
+import com.google.gson.stream.JsonReader;
+import com.nukie.app.data.model.MediaType;
+import com.nukie.app.data.model.UnifiedPost;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the streaming platform feed decoders.
+ */
+public class PlatformFeedDecodersTest {
+    
+    private static FeedPage decode(FeedDecoder decoder, String json) throws IOException {
+        return decoder.decode(new JsonReader(new StringReader(json.replace('\'', '"'))));
+    }
+    
+    @Test
+    public void parsesIsoTimestamps() {
+        assertEquals(1709296496000L, JsonDecoding.parseIsoTimestamp("2024-03-01T12:34:56Z"));
+        assertEquals(1709296496000L, JsonDecoding.parseIsoTimestamp("2024-03-01T12:34:56+0000"));
+        assertEquals(1709289296789L, JsonDecoding.parseIsoTimestamp("2024-03-01T12:34:56.789+02:00"));
+        assertEquals(1709289296789L, JsonDecoding.parseIsoTimestamp("2024-03-01T12:34:56.789123+02:00"));
+        assertEquals(0L, JsonDecoding.parseIsoTimestamp("yesterday"));
+        assertEquals(0L, JsonDecoding.parseIsoTimestamp(null));
+    }
+    
+    @Test
+    public void instagramDecodesMediaAndCursor() throws IOException {
+        FeedPage page = decode(new InstagramFeedDecoder(), "{'data': ["
+                + "{'id': '1', 'caption': 'Hi', 'media_type': 'VIDEO', 'media_url': 'https://v', 'thumbnail_url': 'https://t',"
+                + " 'username': 'ann', 'owner': {'id': '42'}, 'timestamp': '2024-03-01T12:34:56+0000', 'like_count': 3}],"
+                + " 'paging': {'cursors': {'after': 'abc'}, 'next': 'https://next'}}");
+        
+        UnifiedPost post = page.getPosts().get(0);
+        assertEquals("ig_1", post.getId());
+        assertEquals("42", post.getAuthor().getPlatformId());
+        assertEquals("ann", post.getAuthor().getUsername());
+        assertEquals(1709296496000L, post.getPublishedAt());
+        assertEquals(3, post.getLikeCount());
+        assertEquals(MediaType.VIDEO, post.getMediaItems().get(0).getType());
+        assertEquals("https://t", post.getMediaItems().get(0).getPreviewUrl());
+        assertEquals("abc", page.getNextCursor());
+        assertTrue(page.hasMore());
+    }
+    
+    @Test
+    public void instagramToleratesMissingUsernameAndSkipsItemsWithoutId() throws IOException {
+        FeedPage page = decode(new InstagramFeedDecoder(), "{'data': ["
+                + "{'caption': 'no id'},"
+                + "{'id': '2', 'username': null, 'owner': {'id': '42'}}]}");
+        
+        assertEquals(1, page.getPosts().size());
+        assertEquals("", page.getPosts().get(0).getAuthor().getUsername());
+        assertFalse(page.hasMore());
+    }
+    
+    @Test
+    public void tiktokToleratesMissingShareUrlAndCreateTime() throws IOException {
+        FeedPage page = decode(new TikTokFeedDecoder(), "{'data': {'videos': ["
+                + "{'id': '7', 'username': 'bo', 'create_time': null, 'share_count': '5'},"
+                + "{'id': '8', 'share_url': 'https://s', 'create_time': 1709296496, 'duration': 12}],"
+                + " 'cursor': '99', 'has_more': true}}");
+        
+        assertEquals(2, page.getPosts().size());
+        UnifiedPost first = page.getPosts().get(0);
+        assertTrue(first.getMediaItems().isEmpty());
+        assertEquals(0L, first.getPublishedAt());
+        assertEquals(5, first.getShareCount());
+        UnifiedPost second = page.getPosts().get(1);
+        assertEquals("", second.getAuthor().getUsername());
+        assertEquals(1709296496000L, second.getPublishedAt());
+        assertEquals(Long.valueOf(12000), second.getMediaItems().get(0).getDuration());
+        assertEquals("99", page.getNextCursor());
+    }
+    
+    @Test
+    public void youtubeToleratesMissingChannelAndReadsStringCounts() throws IOException {
+        FeedPage page = decode(new YouTubeFeedDecoder(), "{'items': ["
+                + "{'id': {'videoId': 'v1'}, 'snippet': {'title': 'T', 'publishedAt': '2024-03-01T12:34:56Z',"
+                + " 'thumbnails': {'default': {'url': 'https://small'}, 'high': {'url': 'https://high', 'width': 480}}},"
+                + " 'statistics': {'likeCount': '12', 'commentCount': 'n/a'}}],"
+                + " 'nextPageToken': 'p2'}");
+        
+        UnifiedPost post = page.getPosts().get(0);
+        assertEquals("yt_v1", post.getId());
+        assertEquals("", post.getAuthor().getUsername());
+        assertEquals(12, post.getLikeCount());
+        assertEquals(0, post.getCommentCount());
+        assertEquals("https://high", post.getMediaItems().get(0).getPreviewUrl());
+        assertEquals(Integer.valueOf(480), post.getMediaItems().get(0).getWidth());
+        assertEquals("p2", page.getNextCursor());
+    }
+    
+    @Test
+    public void blueskyDecodesImagesAndViewerLike() throws IOException {
+        FeedPage page = decode(new BlueskyFeedDecoder(), "{'feed': ["
+                + "{'post': {'uri': 'at://1', 'author': {'did': 'did:1', 'handle': 'cy.bsky.social'},"
+                + " 'record': {'text': 'Hello', 'createdAt': '2024-03-01T12:34:56.000Z'},"
+                + " 'embed': {'images': [{'thumb': 'https://th', 'fullsize': 'https://full'}, {'thumb': 'https://only-thumb'}]},"
+                + " 'viewer': {'like': 'at://like'}}, 'reason': {}},"
+                + "{'post': {'author': {'handle': null}}}],"
+                + " 'cursor': 'c1'}");
+        
+        assertEquals(1, page.getPosts().size());
+        UnifiedPost post = page.getPosts().get(0);
+        assertEquals("Hello", post.getContent());
+        assertEquals("cy.bsky.social", post.getAuthor().getDisplayName());
+        assertEquals(1, post.getMediaItems().size());
+        assertTrue(post.isLiked());
+        assertEquals("c1", page.getNextCursor());
+    }
+    
+    @Test
+    public void mastodonShowsBoostedStatusAtTheBoostsPosition() throws IOException {
+        FeedPage page = decode(new MastodonFeedDecoder(), "["
+                + "{'id': '200', 'created_at': '2024-03-01T12:34:56Z', 'content': '',"
+                + " 'account': {'id': '1', 'acct': 'booster'},"
+                + " 'reblog': {'id': '100', 'created_at': '2024-02-01T00:00:00Z', 'content': '<p>Original</p>',"
+                + "  'favourites_count': 9, 'favourited': true, 'account': {'id': '2', 'acct': 'author@example.org', 'display_name': ''},"
+                + "  'media_attachments': [{'id': 'm1', 'type': 'gifv', 'url': 'https://gif', 'meta': {'original': {'duration': '1.5'}}},"
+                + "   {'id': 'm2', 'type': 'image', 'url': null}]}}]");
+        
+        UnifiedPost post = page.getPosts().get(0);
+        assertEquals("200", post.getPlatformId());
+        assertEquals(1709296496000L, post.getPublishedAt());
+        assertEquals("<p>Original</p>", post.getContent());
+        assertEquals("author@example.org", post.getAuthor().getDisplayName());
+        assertEquals(9, post.getLikeCount());
+        assertTrue(post.isLiked());
+        assertEquals(1, post.getMediaItems().size());
+        assertEquals(MediaType.GIF, post.getMediaItems().get(0).getType());
+        assertEquals(Long.valueOf(1500), post.getMediaItems().get(0).getDuration());
+        assertEquals("200", page.getNextCursor());
+    }
+    
+    @Test
+    public void mastodonSkipsStatusWithoutAccountButPagesPastIt() throws IOException {
+        FeedPage page = decode(new MastodonFeedDecoder(), "["
+                + "{'id': '300', 'content': 'a', 'account': {'id': '1', 'acct': 'a'}},"
+                + "{'id': '299', 'content': 'b', 'account': null}]");
+        
+        assertEquals(1, page.getPosts().size());
+        assertEquals("299", page.getNextCursor());
+        assertTrue(page.hasMore());
+    }
+    
+    @Test
+    public void mastodonEmptyTimelineHasNoNextPage() throws IOException {
+        FeedPage page = decode(new MastodonFeedDecoder(), "[]");
+        
+        assertTrue(page.getPosts().isEmpty());
+        assertNull(page.getNextCursor());
+        assertFalse(page.hasMore());
+    }
+}
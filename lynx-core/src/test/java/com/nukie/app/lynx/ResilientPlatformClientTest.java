@@ -0,0 +1,134 @@
+package com.nukie.app.lynx;
+
+import com.nukie.app.data.model.PlatformType;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Unit tests for the circuit breaker and bulkhead around a platform client.
+ */
+public class ResilientPlatformClientTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private Exception failure;
+    
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void rateLimitedCallsDoNotOpenTheCircuit() throws Exception {
+        ResilientPlatformClient client = new ResilientPlatformClient(PlatformType.MASTODON, new FailingClient());
+        failure = new RateLimitedException(PlatformType.MASTODON, System.currentTimeMillis() + 60_000);
+        
+        for (int i = 0; i < 10; i++) {
+            try {
+                client.fetchPage(null, 20);
+                fail("The rate limit must reach the caller");
+            } catch (RateLimitedException expected) {
+            }
+        }
+        
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+    
+    @Test
+    public void failedCallsOpenTheCircuit() throws Exception {
+        ResilientPlatformClient client = new ResilientPlatformClient(PlatformType.MASTODON, new FailingClient());
+        failure = new IOException("Connection reset");
+        
+        // The breaker's default minimum number of calls
+        for (int i = 0; i < 5; i++) {
+            try {
+                client.fetchPage(null, 20);
+            } catch (IOException expected) {
+            }
+        }
+        
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+    }
+    
+    @Test
+    public void hedgeIsSkippedWhenTheBulkheadIsFull() throws Exception {
+        Semaphore bulkhead = new Semaphore(1);
+        SlowFirstClient delegate = new SlowFirstClient();
+        
+        hedgedClient(delegate, bulkhead).fetchPage(null, 20);
+        
+        assertEquals(1, delegate.calls.get());
+        assertEquals(1, bulkhead.availablePermits());
+    }
+    
+    @Test
+    public void hedgeHoldsAPermitUntilTheLosingAttemptEnds() throws Exception {
+        Semaphore bulkhead = new Semaphore(2);
+        SlowFirstClient delegate = new SlowFirstClient();
+        
+        hedgedClient(delegate, bulkhead).fetchPage(null, 20);
+        
+        assertEquals(2, delegate.calls.get());
+        // The slow first attempt is still running
+        assertEquals(1, bulkhead.availablePermits());
+        Thread.sleep(2 * SlowFirstClient.FIRST_CALL_MS);
+        assertEquals(2, bulkhead.availablePermits());
+    }
+    
+    private ResilientPlatformClient hedgedClient(LynxPlatformClient delegate, Semaphore bulkhead) {
+        HedgingPlatformClient hedging = new HedgingPlatformClient(PlatformType.MASTODON, delegate, executor, bulkhead);
+        hedging.setPolicy(new HedgingPolicy(true, 0.5, 1.0, 1));
+        hedging.getLatencyTracker().record(1);
+        return new ResilientPlatformClient(PlatformType.MASTODON, hedging, new CircuitBreaker(), bulkhead);
+    }
+    
+    /**
+     * Answers the first fetch slowly and every later one at once.
+     */
+    private final class SlowFirstClient extends FailingClient {
+        static final long FIRST_CALL_MS = 500;
+        
+        final AtomicInteger calls = new AtomicInteger();
+        
+        @Override
+        public FeedPage fetchPage(String cursor, int limit) throws Exception {
+            if (calls.incrementAndGet() == 1) {
+                Thread.sleep(FIRST_CALL_MS);
+            }
+            return new FeedPage(Collections.emptyList(), null, false);
+        }
+    }
+    
+    private class FailingClient implements LynxPlatformClient {
+        @Override
+        public FeedPage fetchPage(String cursor, int limit) throws Exception {
+            throw failure;
+        }
+        
+        @Override
+        public boolean createPost(String content, List<String> mediaFiles) {
+            return true;
+        }
+        
+        @Override
+        public boolean authenticate(Map<String, String> authData) {
+            return true;
+        }
+        
+        @Override
+        public boolean performInteraction(String postId, String interactionType, Map<String, String> interactionData) {
+            return true;
+        }
+    }
+}